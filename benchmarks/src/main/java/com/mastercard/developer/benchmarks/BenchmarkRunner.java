@@ -0,0 +1,39 @@
+package com.mastercard.developer.benchmarks;
+
+import org.openjdk.jmh.Main;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks with the JMH command line options, always adding the GC profiler
+ * so that allocation rates are reported next to throughput and average time.
+ * Example: java -jar target/benchmarks.jar -p scheme=JWE -p jsonEngine=JACKSON
+ */
+public class BenchmarkRunner {
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions commandLineOptions = new CommandLineOptions(args);
+        if (commandLineOptions.shouldHelp() || commandLineOptions.shouldList() || commandLineOptions.shouldListWithParams()
+                || commandLineOptions.shouldListProfilers() || commandLineOptions.shouldListResultFormats()) {
+            // Nothing to run
+            Main.main(args);
+            return;
+        }
+
+        OptionsBuilder optionsBuilder = new OptionsBuilder();
+        optionsBuilder.parent(commandLineOptions);
+        boolean gcProfilerRequested = commandLineOptions.getProfilers().stream()
+                .anyMatch(profiler -> "gc".equals(profiler.getKlass()) || GCProfiler.class.getName().equals(profiler.getKlass()));
+        if (!gcProfilerRequested) {
+            optionsBuilder.addProfiler(GCProfiler.class);
+        }
+        Options options = optionsBuilder.build();
+        new Runner(options).run();
+    }
+}
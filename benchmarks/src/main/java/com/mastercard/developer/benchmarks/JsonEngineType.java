@@ -0,0 +1,31 @@
+package com.mastercard.developer.benchmarks;
+
+import com.mastercard.developer.json.GsonJsonEngine;
+import com.mastercard.developer.json.JacksonJsonEngine;
+import com.mastercard.developer.json.JettisonJsonEngine;
+import com.mastercard.developer.json.JsonEngine;
+import com.mastercard.developer.json.JsonOrgJsonEngine;
+import com.mastercard.developer.json.JsonSmartJsonEngine;
+
+import java.util.function.Supplier;
+
+/**
+ * The JSON engines benchmarks can be parameterised with.
+ */
+public enum JsonEngineType {
+    JACKSON(JacksonJsonEngine::new),
+    GSON(GsonJsonEngine::new),
+    JSON_SMART(JsonSmartJsonEngine::new),
+    JETTISON(JettisonJsonEngine::new),
+    JSON_ORG(JsonOrgJsonEngine::new);
+
+    private final Supplier<JsonEngine> factory;
+
+    JsonEngineType(Supplier<JsonEngine> factory) {
+        this.factory = factory;
+    }
+
+    public JsonEngine newJsonEngine() {
+        return factory.get();
+    }
+}
@@ -0,0 +1,175 @@
+package com.mastercard.developer.benchmarks;
+
+import com.mastercard.developer.encryption.EncryptionConfig;
+import com.mastercard.developer.encryption.EncryptionException;
+import com.mastercard.developer.encryption.FieldLevelEncryption;
+import com.mastercard.developer.encryption.FieldLevelEncryptionConfig;
+import com.mastercard.developer.encryption.FieldLevelEncryptionConfigBuilder;
+import com.mastercard.developer.encryption.JsonParser;
+import com.mastercard.developer.encryption.JweConfig;
+import com.mastercard.developer.encryption.JweConfigBuilder;
+import com.mastercard.developer.encryption.JweEncryption;
+import com.mastercard.developer.utils.EncryptionUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.InputStream;
+import java.security.PrivateKey;
+import java.security.cert.Certificate;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link FieldLevelEncryption} and {@link JweEncryption} payload encryption and decryption
+ * for every JSON engine, across payload sizes, numbers of encryption paths and array cardinalities.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PayloadEncryptionBenchmark {
+
+    /**
+     * The encryption scheme.
+     */
+    @Param({"LEGACY", "JWE"})
+    public EncryptionConfig.Scheme scheme;
+
+    /**
+     * The JSON engine used for parsing and serialising payloads.
+     */
+    @Param({"JACKSON", "GSON", "JSON_SMART", "JETTISON", "JSON_ORG"})
+    public JsonEngineType jsonEngine;
+
+    /**
+     * The approximate size in bytes of the clear payload (1 KB to 10 MB).
+     */
+    @Param({"1024", "102400", "1048576", "10485760"})
+    public int payloadSize;
+
+    /**
+     * The number of configured encryption/decryption paths.
+     */
+    @Param({"1", "4"})
+    public int pathCount;
+
+    /**
+     * The number of array elements per path, encrypted through a "[*]" path (0 for no array).
+     */
+    @Param({"0", "100"})
+    public int arrayCardinality;
+
+    private String payload;
+    private String encryptedPayload;
+    private FieldLevelEncryptionConfig fieldLevelEncryptionConfig;
+    private JweConfig jweConfig;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        JsonParser.withJsonEngine(jsonEngine.newJsonEngine());
+        Certificate encryptionCertificate;
+        PrivateKey decryptionKey;
+        try (InputStream certificateStream = getResource("test_certificate-2048.pem");
+             InputStream keyStream = getResource("test_key_pkcs8-2048.der")) {
+            encryptionCertificate = EncryptionUtils.loadEncryptionCertificate(certificateStream);
+            decryptionKey = EncryptionUtils.loadDecryptionKey(keyStream);
+        }
+
+        FieldLevelEncryptionConfigBuilder fieldLevelEncryptionConfigBuilder = FieldLevelEncryptionConfigBuilder.aFieldLevelEncryptionConfig()
+                .withEncryptionCertificate(encryptionCertificate)
+                .withDecryptionKey(decryptionKey)
+                .withOaepPaddingDigestAlgorithm("SHA-256")
+                .withEncryptedValueFieldName("encryptedValue")
+                .withEncryptedKeyFieldName("encryptedKey")
+                .withIvFieldName("iv")
+                .withFieldValueEncoding(FieldLevelEncryptionConfig.FieldValueEncoding.BASE64);
+        JweConfigBuilder jweConfigBuilder = JweConfigBuilder.aJweEncryptionConfig()
+                .withEncryptionCertificate(encryptionCertificate)
+                .withDecryptionKey(decryptionKey);
+
+        for (int i = 0; i < pathCount; i++) {
+            String field = "$.field" + i;
+            if (arrayCardinality == 0) {
+                fieldLevelEncryptionConfigBuilder.withEncryptionPath(field, field);
+                fieldLevelEncryptionConfigBuilder.withDecryptionPath(field, field);
+                jweConfigBuilder.withEncryptionPath(field, field);
+                jweConfigBuilder.withDecryptionPath(field + ".encryptedData", field);
+            } else {
+                String items = field + ".items[*]";
+                fieldLevelEncryptionConfigBuilder.withEncryptionPath(items + ".data", items);
+                fieldLevelEncryptionConfigBuilder.withDecryptionPath(items, items + ".data");
+                jweConfigBuilder.withEncryptionPath(items + ".data", items);
+                jweConfigBuilder.withDecryptionPath(items + ".encryptedData", items + ".data");
+            }
+        }
+        fieldLevelEncryptionConfig = fieldLevelEncryptionConfigBuilder.build();
+        jweConfig = jweConfigBuilder.build();
+
+        payload = generatePayload();
+        encryptedPayload = encryptPayload();
+    }
+
+    @Benchmark
+    public String encryptPayload() throws EncryptionException {
+        if (scheme == EncryptionConfig.Scheme.JWE) {
+            return JweEncryption.encryptPayload(payload, jweConfig);
+        }
+        return FieldLevelEncryption.encryptPayload(payload, fieldLevelEncryptionConfig);
+    }
+
+    @Benchmark
+    public String decryptPayload() throws EncryptionException {
+        if (scheme == EncryptionConfig.Scheme.JWE) {
+            return JweEncryption.decryptPayload(encryptedPayload, jweConfig);
+        }
+        return FieldLevelEncryption.decryptPayload(encryptedPayload, fieldLevelEncryptionConfig);
+    }
+
+    private String generatePayload() {
+        int valueCount = pathCount * Math.max(1, arrayCardinality);
+        String value = repeat('x', Math.max(1, payloadSize / valueCount - 16));
+        StringBuilder builder = new StringBuilder(payloadSize + 64);
+        builder.append('{');
+        for (int i = 0; i < pathCount; i++) {
+            if (i > 0) {
+                builder.append(',');
+            }
+            builder.append("\"field").append(i).append("\":");
+            if (arrayCardinality == 0) {
+                builder.append("{\"data\":\"").append(value).append("\"}");
+                continue;
+            }
+            builder.append("{\"items\":[");
+            for (int j = 0; j < arrayCardinality; j++) {
+                if (j > 0) {
+                    builder.append(',');
+                }
+                builder.append("{\"data\":\"").append(value).append("\"}");
+            }
+            builder.append("]}");
+        }
+        return builder.append('}').toString();
+    }
+
+    private static String repeat(char c, int count) {
+        char[] chars = new char[count];
+        Arrays.fill(chars, c);
+        return new String(chars);
+    }
+
+    private static InputStream getResource(String name) {
+        return PayloadEncryptionBenchmark.class.getClassLoader().getResourceAsStream(name);
+    }
+}
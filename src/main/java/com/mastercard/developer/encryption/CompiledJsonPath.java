@@ -0,0 +1,271 @@
+package com.mastercard.developer.encryption;
+
+import com.jayway.jsonpath.DocumentContext;
+import com.jayway.jsonpath.InvalidModificationException;
+import com.jayway.jsonpath.JsonPath;
+import com.jayway.jsonpath.spi.json.JsonProvider;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A JSON path evaluated directly against the {@link JsonProvider} tree when made of property names and array
+ * indexes only (for instance "$.a.b", "$['a'][0].b"), and by json-path otherwise.
+ * Evaluation follows json-path with {@link com.jayway.jsonpath.Option#SUPPRESS_EXCEPTIONS}: reading a missing
+ * element returns null, while setting or deleting a missing element does nothing.
+ * Anchored paths (see {@link #anchoredAt}) are evaluated from a given node instead of the document root.
+ */
+final class CompiledJsonPath {
+
+    private final String path;
+    // Property names (String) and array indexes (Integer), or null when json-path is needed
+    private final Object[] steps;
+    private final boolean anchored;
+    private final Object anchor;
+    private volatile JsonPath jsonPath;
+
+    private CompiledJsonPath(String path, Object[] steps, boolean anchored, Object anchor) {
+        this.path = path;
+        this.steps = steps;
+        this.anchored = anchored;
+        this.anchor = anchor;
+        if (steps == null) {
+            // Invalid paths are reported now
+            this.jsonPath = JsonPath.compile(path);
+        }
+    }
+
+    static CompiledJsonPath compile(String path) {
+        return new CompiledJsonPath(path, parseSteps(path), false, null);
+    }
+
+    /**
+     * A path made of at least one step, evaluated from the given node (null when the node is missing).
+     */
+    static CompiledJsonPath anchoredAt(Object anchor, Object[] steps) {
+        return new CompiledJsonPath(null, steps, true, anchor);
+    }
+
+    /**
+     * The normalized path, for instance "$['a']['b']" (relative to the anchor for anchored paths).
+     */
+    String getPath() {
+        return anchored ? render(steps) : getJsonPath().getPath();
+    }
+
+    boolean isSimple() {
+        return steps != null;
+    }
+
+    /**
+     * The property name when this path is a single top-level property (for instance "$.a"), null otherwise.
+     */
+    String getTopLevelPropertyName() {
+        return steps != null && steps.length == 1 && steps[0] instanceof String ? (String) steps[0] : null;
+    }
+
+    JsonPath getJsonPath() {
+        JsonPath compiled = jsonPath;
+        if (compiled == null) {
+            compiled = JsonPath.compile(path);
+            jsonPath = compiled;
+        }
+        return compiled;
+    }
+
+    Object read(DocumentContext context) {
+        if (steps == null) {
+            Object json = context.json();
+            return jsonPath.read(json, context.configuration());
+        }
+        JsonProvider jsonProvider = context.configuration().jsonProvider();
+        return navigate(jsonProvider, root(context), steps.length);
+    }
+
+    private Object root(DocumentContext context) {
+        return anchored ? anchor : context.json();
+    }
+
+    /**
+     * Add or replace a property in the object at this path.
+     */
+    void put(DocumentContext context, String key, Object value) {
+        if (steps == null) {
+            jsonPath.put(context.json(), key, value, context.configuration());
+            return;
+        }
+        JsonProvider jsonProvider = context.configuration().jsonProvider();
+        Object object = navigate(jsonProvider, root(context), steps.length);
+        if (object == null) {
+            return;
+        }
+        if (!jsonProvider.isMap(object)) {
+            throw new InvalidModificationException("Can only add properties to a map");
+        }
+        jsonProvider.setProperty(object, key, value);
+    }
+
+    /**
+     * Replace the existing element at this path.
+     */
+    void set(DocumentContext context, Object value) {
+        if (steps == null || steps.length == 0) {
+            getJsonPath().set(context.json(), value, context.configuration());
+            return;
+        }
+        JsonProvider jsonProvider = context.configuration().jsonProvider();
+        Object parent = navigate(jsonProvider, root(context), steps.length - 1);
+        Object lastStep = steps[steps.length - 1];
+        if (parent != null && exists(jsonProvider, parent, lastStep)) {
+            if (lastStep instanceof Integer) {
+                jsonProvider.setArrayIndex(parent, (Integer) lastStep, value);
+            } else {
+                jsonProvider.setProperty(parent, lastStep, value);
+            }
+        }
+    }
+
+    /**
+     * Remove the existing element at this path.
+     */
+    void delete(DocumentContext context) {
+        if (steps == null || steps.length == 0) {
+            getJsonPath().delete(context.json(), context.configuration());
+            return;
+        }
+        JsonProvider jsonProvider = context.configuration().jsonProvider();
+        Object parent = navigate(jsonProvider, root(context), steps.length - 1);
+        Object lastStep = steps[steps.length - 1];
+        if (parent != null && exists(jsonProvider, parent, lastStep)) {
+            jsonProvider.removeProperty(parent, lastStep);
+        }
+    }
+
+    /**
+     * The element reached after the given number of steps, or null.
+     */
+    private Object navigate(JsonProvider jsonProvider, Object root, int stepCount) {
+        return navigate(jsonProvider, root, steps, stepCount);
+    }
+
+    static Object navigate(JsonProvider jsonProvider, Object root, Object[] steps, int stepCount) {
+        Object element = root;
+        for (int i = 0; i < stepCount && element != null; i++) {
+            element = step(jsonProvider, element, steps[i]);
+        }
+        return element;
+    }
+
+    private static Object step(JsonProvider jsonProvider, Object element, Object step) {
+        if (step instanceof Integer) {
+            int index = (Integer) step;
+            if (!jsonProvider.isArray(element) || index >= jsonProvider.length(element)) {
+                return null;
+            }
+            return jsonProvider.getArrayIndex(element, index);
+        }
+        if (!jsonProvider.isMap(element)) {
+            return null;
+        }
+        Object value = jsonProvider.getMapValue(element, (String) step);
+        return value == JsonProvider.UNDEFINED ? null : value;
+    }
+
+    private static boolean exists(JsonProvider jsonProvider, Object element, Object step) {
+        if (step instanceof Integer) {
+            return jsonProvider.isArray(element) && (Integer) step < jsonProvider.length(element);
+        }
+        return jsonProvider.isMap(element) && jsonProvider.getMapValue(element, (String) step) != JsonProvider.UNDEFINED;
+    }
+
+    /**
+     * Render steps the way json-path normalizes paths, for instance "$['a'][0]".
+     */
+    static String render(Object[] steps) {
+        StringBuilder builder = new StringBuilder("$");
+        for (Object step : steps) {
+            builder.append(step instanceof Integer ? "[" + step + "]" : "['" + step + "']");
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Split the part of a path following an array wildcard (for instance ".a", "['a'][0]" or "a") into steps,
+     * or return null when it uses anything else than property names and array indexes.
+     */
+    static Object[] parseRelativeSteps(String path) {
+        if (path.isEmpty()) {
+            return new Object[0];
+        }
+        char first = path.charAt(0);
+        return parseSteps(first == '.' || first == '[' ? "$" + path : "$." + path);
+    }
+
+    /**
+     * Split "$.a['b'][0]" into ["a", "b", 0], or return null when the path uses anything else.
+     */
+    private static Object[] parseSteps(String path) {
+        String trimmed = path.trim();
+        if (!trimmed.startsWith("$")) {
+            // Same as json-path
+            trimmed = "$." + trimmed;
+        }
+        List<Object> steps = new ArrayList<>();
+        int position = 1;
+        int length = trimmed.length();
+        while (position < length) {
+            char c = trimmed.charAt(position);
+            if (c == '.') {
+                int end = position + 1;
+                while (end < length && isPropertyChar(trimmed.charAt(end))) {
+                    end++;
+                }
+                if (end == position + 1) {
+                    return null;
+                }
+                steps.add(trimmed.substring(position + 1, end));
+                position = end;
+            } else if (c == '[') {
+                int end = trimmed.indexOf(']', position);
+                if (end == -1) {
+                    return null;
+                }
+                Object step = parseBracketStep(trimmed.substring(position + 1, end));
+                if (step == null) {
+                    return null;
+                }
+                steps.add(step);
+                position = end + 1;
+            } else {
+                return null;
+            }
+        }
+        return steps.toArray();
+    }
+
+    private static Object parseBracketStep(String content) {
+        if (content.length() >= 2 && content.charAt(0) == '\'' && content.charAt(content.length() - 1) == '\'') {
+            String name = content.substring(1, content.length() - 1);
+            for (int i = 0; i < name.length(); i++) {
+                char c = name.charAt(i);
+                if (c == '\'' || c == '\\' || c == ',' || c == '"') {
+                    return null;
+                }
+            }
+            return name.isEmpty() ? null : name;
+        }
+        if (content.isEmpty() || content.length() > 9) {
+            return null;
+        }
+        for (int i = 0; i < content.length(); i++) {
+            if (!Character.isDigit(content.charAt(i))) {
+                return null;
+            }
+        }
+        return Integer.valueOf(content);
+    }
+
+    private static boolean isPropertyChar(char c) {
+        return Character.isLetterOrDigit(c) || c == '_' || c == '-' || c == '$';
+    }
+}
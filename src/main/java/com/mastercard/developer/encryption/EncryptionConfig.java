@@ -1,10 +1,14 @@
 package com.mastercard.developer.encryption;
 
+import com.jayway.jsonpath.Configuration;
+import com.mastercard.developer.json.JsonEngine;
+
 import java.security.PrivateKey;
 import java.security.PublicKey;
 import java.security.cert.Certificate;
 import java.util.Collections;
 import java.util.Map;
+import java.util.concurrent.Executor;
 
 public abstract class EncryptionConfig {
 
@@ -79,11 +83,67 @@ public abstract class EncryptionConfig {
      */
     Map<String, String> decryptionPaths = Collections.emptyMap();
 
+    /**
+     * The encryptor and the decryptor used by the static methods of {@link FieldLevelEncryption},
+     * {@link JweEncryption} and {@link StreamingEncryption}, built with the configuration.
+     */
+    PayloadEncryptor encryptor;
+    PayloadDecryptor decryptor;
+
     /**
      * The name of the payload field where to write/read the encrypted data value.
      */
     String encryptedValueFieldName = null;
 
+    /**
+     * A cache of unwrapped secret keys to be used for decryption (optional, wrapped keys are
+     * unwrapped for every decryption when this field is null).
+     */
+    SecretKeyCache secretKeyCache;
+
+    /**
+     * The JSON engine to parse and write payloads with (optional, the engine set with
+     * {@link JsonParser#withJsonEngine(JsonEngine)} when the configuration was created is used by default).
+     */
+    JsonEngine jsonEngine = JsonParser.jsonEngine;
+    Configuration jsonPathConfig = JsonParser.jsonPathConfig;
+
+    /**
+     * The source of random bytes for IVs and secret keys.
+     */
+    RandomSource randomSource = RandomSource.getDefault();
+
+    /**
+     * Whether a single key should be generated (and wrapped) for all the fields of a payload, with a new IV
+     * for every field, instead of a key per field.
+     */
+    boolean payloadKeyReuse = false;
+
+    /**
+     * Bounds for reusing a generated secret key across requests (optional, a secret key is generated
+     * for every request when this field is null).
+     */
+    SessionKeyPolicy sessionKeyPolicy;
+
+    /**
+     * The number of single-use keys to generate ahead of time (optional, keys are generated on the
+     * request thread when this field is 0).
+     */
+    int keyPoolCapacity = 0;
+
+    /**
+     * An executor for encrypting/decrypting the elements matched by the JSON paths concurrently, for instance
+     * {@link java.util.concurrent.ForkJoinPool#commonPool()} (optional, elements are processed one after
+     * the other on the calling thread when this field is null). Elements of paths that don't overlap are
+     * processed as one batch; an overlapping path waits for the previous paths to be processed.
+     */
+    Executor parallelExecutor;
+
+    /**
+     * The minimum number of elements in a batch for them to be processed concurrently.
+     */
+    int parallelThreshold = 16;
+
     public String getEncryptionKeyFingerprint() { return encryptionKeyFingerprint; }
 
     public Certificate getEncryptionCertificate() {
@@ -111,9 +171,35 @@ public abstract class EncryptionConfig {
         return decryptionPaths;
     }
 
+    PayloadEncryptor getEncryptor() {
+        return encryptor;
+    }
+
+    PayloadDecryptor getDecryptor() {
+        return decryptor;
+    }
+
     String getEncryptedValueFieldName() {
         return encryptedValueFieldName;
     }
 
     public Integer getIVSize() { return ivSize; }
+
+    public SecretKeyCache getSecretKeyCache() { return secretKeyCache; }
+
+    public RandomSource getRandomSource() { return randomSource; }
+
+    public JsonEngine getJsonEngine() { return jsonEngine; }
+
+    Configuration getJsonPathConfig() { return jsonPathConfig; }
+
+    public boolean isPayloadKeyReuse() { return payloadKeyReuse; }
+
+    public SessionKeyPolicy getSessionKeyPolicy() { return sessionKeyPolicy; }
+
+    public int getKeyPoolCapacity() { return keyPoolCapacity; }
+
+    public Executor getParallelExecutor() { return parallelExecutor; }
+
+    public int getParallelThreshold() { return parallelThreshold; }
 }
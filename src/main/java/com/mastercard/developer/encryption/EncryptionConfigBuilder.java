@@ -1,6 +1,7 @@
 package com.mastercard.developer.encryption;
 
 import com.jayway.jsonpath.JsonPath;
+import com.mastercard.developer.json.JsonEngine;
 
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
@@ -9,6 +10,7 @@ import java.security.PublicKey;
 import java.security.cert.Certificate;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.Executor;
 
 import static com.mastercard.developer.utils.EncodingUtils.encodeBytes;
 import static com.mastercard.developer.utils.StringUtils.isNullOrEmpty;
@@ -22,9 +24,32 @@ abstract class EncryptionConfigBuilder {
     protected Map<String, String> encryptionPaths = new HashMap<>();
     protected Map<String, String> decryptionPaths = new HashMap<>();
     protected String encryptedValueFieldName;
+    protected SecretKeyCache secretKeyCache;
+    protected RandomSource randomSource = RandomSource.getDefault();
+    protected JsonEngine jsonEngine;
+    protected boolean payloadKeyReuse;
+    protected SessionKeyPolicy sessionKeyPolicy;
+    protected int keyPoolCapacity;
+    protected Executor parallelExecutor;
+    protected int parallelThreshold = 16;
 
     protected Integer ivSize = 16;
 
+    void setJsonEngine(EncryptionConfig config) {
+        if (jsonEngine != null) {
+            config.jsonEngine = jsonEngine;
+            config.jsonPathConfig = JsonParser.newJsonPathConfig(jsonEngine);
+        }
+    }
+
+    /**
+     * Build the encryptor and the decryptor of a configuration, once all its fields have been set.
+     */
+    static void setPayloadProcessors(EncryptionConfig config) {
+        config.encryptor = new PayloadEncryptor(config);
+        config.decryptor = new PayloadDecryptor(config);
+    }
+
     void computeEncryptionKeyFingerprintWhenNeeded() throws EncryptionException {
         try {
             if ((encryptionCertificate == null && encryptionKey == null) || !isNullOrEmpty(encryptionKeyFingerprint)) {
@@ -63,7 +88,7 @@ abstract class EncryptionConfigBuilder {
         boolean valueHasWildcard = value.contains("[*]");
         if (keyHasWildcard || valueHasWildcard) {
             validateBothOrNoneHasWildcard(keyHasWildcard, valueHasWildcard, action);
-            validateSingleWildcardOnly(key, value, action);
+            validateSameWildcardCount(key, value, action);
         } else {
             validateDefinitePaths(key, value, action);
         }
@@ -75,9 +100,9 @@ abstract class EncryptionConfigBuilder {
         }
     }
 
-    private void validateSingleWildcardOnly(String key, String value, String action) {
-        if (countWildcards(key) > 1 || countWildcards(value) > 1) {
-            throw new IllegalArgumentException("JSON paths for " + action + " with can only contain one wildcard!");
+    private void validateSameWildcardCount(String key, String value, String action) {
+        if (countWildcards(key) != countWildcards(value)) {
+            throw new IllegalArgumentException("JSON paths for " + action + " with wildcard must contain the same number of wildcards!");
         }
     }
 
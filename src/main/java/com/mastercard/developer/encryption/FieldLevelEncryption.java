@@ -6,10 +6,11 @@ import com.jayway.jsonpath.spi.json.JsonProvider;
 import com.mastercard.developer.encryption.aes.AESCBC;
 
 import javax.crypto.Cipher;
-import java.io.UnsupportedEncodingException;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.security.GeneralSecurityException;
-import java.util.Map.Entry;
+import java.util.ArrayList;
+import java.util.List;
 
 import static com.mastercard.developer.utils.EncodingUtils.decodeValue;
 import static com.mastercard.developer.utils.EncodingUtils.encodeBytes;
@@ -30,29 +31,33 @@ public class FieldLevelEncryption {
     }
 
     public static String encryptPayload(String payload, FieldLevelEncryptionConfig config, Object params) throws EncryptionException {
-        try {
-            // Parse the given payload
-            DocumentContext payloadContext = JsonPath.parse(payload, JsonParser.jsonPathConfig);
+        return config.getEncryptor().encrypt(payload, params);
+    }
 
-            // Perform encryption (if needed)
-            for (Entry<String, String> entry : config.encryptionPaths.entrySet()) {
-                String jsonPathIn = entry.getKey();
-                String jsonPathOut = entry.getValue();
-                if(!jsonPathIn.contains("[*]")){
-                    payloadContext = encryptPayloadPath(payloadContext, jsonPathIn, jsonPathOut, config, (FieldLevelEncryptionParams) params);
-                }else {
-                    String getFieldLength = jsonPathIn.split("\\[.*?\\]")[0].concat(".length()");
-                    Integer length = JsonPath.read(payload, getFieldLength);
-                    for (Integer i = 0; i < length; i++) {
-                        String newJsonPathIn = jsonPathIn.replace("*", i.toString());
-                        String newJsonPathOut = jsonPathOut.replace("*", i.toString());
-                        payloadContext = encryptPayloadPath(payloadContext, newJsonPathIn, newJsonPathOut, config, (FieldLevelEncryptionParams) params);
-                    }
-                }
-            }
+    /**
+     * Encrypt a UTF-8 encoded payload, without decoding it to a string first.
+     */
+    public static byte[] encryptPayload(byte[] payload, FieldLevelEncryptionConfig config) throws EncryptionException {
+        return encryptPayload(payload, config, null);
+    }
 
-            // Return the updated payload
-            return payloadContext.jsonString();
+    public static byte[] encryptPayload(byte[] payload, FieldLevelEncryptionConfig config, Object params) throws EncryptionException {
+        return config.getEncryptor().encrypt(payload, params);
+    }
+
+    public static ByteBuffer encryptPayload(ByteBuffer payload, FieldLevelEncryptionConfig config) throws EncryptionException {
+        return encryptPayload(payload, config, null);
+    }
+
+    public static ByteBuffer encryptPayload(ByteBuffer payload, FieldLevelEncryptionConfig config, Object params) throws EncryptionException {
+        return config.getEncryptor().encrypt(payload, params);
+    }
+
+    static DocumentContext encryptPayload(DocumentContext payloadContext, FieldLevelEncryptionConfig config, FieldLevelEncryptionParams params,
+                                          PayloadProcessor processor, PayloadKeys keys) throws EncryptionException {
+        try {
+            // Perform encryption (if needed)
+            return processor.applyPlans(payloadContext, (context, plans) -> encryptPayloadPaths(context, plans, config, params, keys));
         } catch (GeneralSecurityException e) {
             throw new EncryptionException("Payload encryption failed!", e);
         }
@@ -63,105 +68,178 @@ public class FieldLevelEncryption {
     }
 
     public static String decryptPayload(String payload, FieldLevelEncryptionConfig config, Object params) throws EncryptionException {
-        try {
-            // Parse the given payload
-            DocumentContext payloadContext = JsonPath.parse(payload, JsonParser.jsonPathConfig);
+        return config.getDecryptor().decrypt(payload, params);
+    }
 
-            // Perform decryption (if needed)
-            for (Entry<String, String> entry : config.decryptionPaths.entrySet()) {
-                String jsonPathIn = entry.getKey();
-                String jsonPathOut = entry.getValue();
-                if(!jsonPathIn.contains("[*]")){
-                    payloadContext = decryptPayloadPath(payloadContext, jsonPathIn, jsonPathOut, config, (FieldLevelEncryptionParams) params);
-                }else {
-                    String getFieldLength = jsonPathIn.split("\\[.*?\\]")[0].concat(".length()");
-                    Integer length = JsonPath.read(payload, getFieldLength);
-                    for (Integer i = 0; i < length; i++) {
-                        String newJsonPathIn = jsonPathIn.replace("*", i.toString());
-                        String newJsonPathOut = jsonPathOut.replace("*", i.toString());
-                        payloadContext = decryptPayloadPath(payloadContext, newJsonPathIn, newJsonPathOut, config, (FieldLevelEncryptionParams) params);
-                    }
-                }
-            }
+    /**
+     * Decrypt a UTF-8 encoded payload, without decoding it to a string first.
+     */
+    public static byte[] decryptPayload(byte[] payload, FieldLevelEncryptionConfig config) throws EncryptionException {
+        return decryptPayload(payload, config, null);
+    }
+
+    public static byte[] decryptPayload(byte[] payload, FieldLevelEncryptionConfig config, Object params) throws EncryptionException {
+        return config.getDecryptor().decrypt(payload, params);
+    }
 
-            // Return the updated payload
-            return payloadContext.jsonString();
+    public static ByteBuffer decryptPayload(ByteBuffer payload, FieldLevelEncryptionConfig config) throws EncryptionException {
+        return decryptPayload(payload, config, null);
+    }
+
+    public static ByteBuffer decryptPayload(ByteBuffer payload, FieldLevelEncryptionConfig config, Object params) throws EncryptionException {
+        return config.getDecryptor().decrypt(payload, params);
+    }
+
+    static DocumentContext decryptPayload(DocumentContext payloadContext, FieldLevelEncryptionConfig config, FieldLevelEncryptionParams params,
+                                          PayloadProcessor processor, PayloadKeys keys) throws EncryptionException {
+        try {
+            // Perform decryption (if needed)
+            return processor.applyPlans(payloadContext, (context, plans) -> decryptPayloadPaths(context, plans, config, params, keys));
         } catch (GeneralSecurityException e) {
             throw new EncryptionException("Payload decryption failed!", e);
         }
     }
 
-    private static DocumentContext encryptPayloadPath(DocumentContext payloadContext, String jsonPathIn, String jsonPathOut,
-                                           FieldLevelEncryptionConfig config, FieldLevelEncryptionParams params) throws GeneralSecurityException, EncryptionException {
+    private static DocumentContext encryptPayloadPaths(DocumentContext payloadContext, List<JsonPathPlan> plans, FieldLevelEncryptionConfig config,
+                                                       FieldLevelEncryptionParams params, PayloadKeys keys) throws GeneralSecurityException, EncryptionException {
+        if (!ParallelCrypto.isEnabled(config, plans.size())) {
+            for (JsonPathPlan plan : plans) {
+                payloadContext = encryptPayloadPath(payloadContext, plan, config, params, keys);
+            }
+            return payloadContext;
+        }
 
-        Object inJsonElement = JsonParser.readJsonElement(payloadContext, jsonPathIn);
-        if (inJsonElement == null) {
+        // Values are read in order, encrypted concurrently, then written back in order
+        List<String> values = new ArrayList<>(plans.size());
+        for (JsonPathPlan plan : plans) {
+            values.add(readValueToEncrypt(payloadContext, plan, config));
+        }
+        List<EncryptedValue> encryptedValues = ParallelCrypto.map(config, values, value -> encryptValue(value, config, params, keys));
+        for (int i = 0; i < plans.size(); i++) {
+            if (encryptedValues.get(i) != null) {
+                payloadContext = writeEncryptedValue(payloadContext, plans.get(i), config, encryptedValues.get(i));
+            }
+        }
+        return payloadContext;
+    }
+
+    static DocumentContext encryptPayloadPath(DocumentContext payloadContext, JsonPathPlan plan, FieldLevelEncryptionConfig config,
+                                           FieldLevelEncryptionParams params, PayloadKeys keys) throws GeneralSecurityException, EncryptionException {
+
+        String inJsonString = readValueToEncrypt(payloadContext, plan, config);
+        if (inJsonString == null) {
             // Nothing to encrypt
             return payloadContext;
         }
+        return writeEncryptedValue(payloadContext, plan, config, encryptValue(inJsonString, config, params, keys));
+    }
 
+    private static String readValueToEncrypt(DocumentContext payloadContext, JsonPathPlan plan, FieldLevelEncryptionConfig config) {
+        Object inJsonElement = JsonParser.readJsonElement(payloadContext, plan.getCompiledInPath());
+        return inJsonElement == null ? null : sanitizeJson(config.jsonEngine.toJsonString(inJsonElement));
+    }
+
+    private static EncryptedValue encryptValue(String inJsonString, FieldLevelEncryptionConfig config,
+                                               FieldLevelEncryptionParams params, PayloadKeys keys) throws GeneralSecurityException, EncryptionException {
         if (params == null) {
             // Generate encryption params
-            params = FieldLevelEncryptionParams.generate(config);
+            params = keys.nextParams();
         }
 
         // Encrypt data at the given JSON path
-        String inJsonString = sanitizeJson(JsonParser.jsonEngine.toJsonString(inJsonElement));
-        byte[] inJsonBytes = null;
-        try {
-            inJsonBytes = inJsonString.getBytes(StandardCharsets.UTF_8.name());
-        } catch (UnsupportedEncodingException e) {
-            // Should not happen
-        }
+        byte[] inJsonBytes = inJsonString.getBytes(StandardCharsets.UTF_8);
         byte[] encryptedValueBytes = AESCBC.cipher(params.getSecretKey(), params.getIvSpec(), inJsonBytes, Cipher.ENCRYPT_MODE);
-        String encryptedValue = encodeBytes(encryptedValueBytes, config.fieldValueEncoding);
+        return new EncryptedValue(encodeBytes(encryptedValueBytes, config.fieldValueEncoding), params);
+    }
+
+    private static DocumentContext writeEncryptedValue(DocumentContext payloadContext, JsonPathPlan plan,
+                                                       FieldLevelEncryptionConfig config, EncryptedValue encryptedValue) {
+        FieldLevelEncryptionParams params = encryptedValue.params;
 
         // Delete data in clear
-        if (!"$".equals(jsonPathIn)) {
-            payloadContext.delete(jsonPathIn);
+        if (!plan.isInRoot()) {
+            JsonParser.delete(payloadContext, plan.getCompiledInPath());
         } else {
             // We can't reuse the same DocumentContext. We have to create a new DocumentContext
             // with the appropriate internal representation (JSON object).
-            payloadContext = JsonPath.parse("{}", JsonParser.jsonPathConfig);
+            payloadContext = JsonPath.parse("{}", config.jsonPathConfig);
         }
 
         // Add encrypted data and encryption fields at the given JSON path
-        JsonParser.checkOrCreateOutObject(payloadContext, jsonPathOut);
-        payloadContext.put(jsonPathOut, config.encryptedValueFieldName, encryptedValue);
+        CompiledJsonPath outJsonPath = plan.getCompiledOutPath();
+        JsonParser.checkOrCreateOutObject(payloadContext, plan, config.jsonEngine);
+        JsonParser.put(payloadContext, outJsonPath, config.encryptedValueFieldName, encryptedValue.value);
         if (!isNullOrEmpty(config.ivFieldName)) {
-            payloadContext.put(jsonPathOut, config.ivFieldName, params.getIvValue());
+            JsonParser.put(payloadContext, outJsonPath, config.ivFieldName, params.getIvValue());
         }
         if (!isNullOrEmpty(config.encryptedKeyFieldName)) {
-            payloadContext.put(jsonPathOut, config.encryptedKeyFieldName, params.getEncryptedKeyValue());
+            JsonParser.put(payloadContext, outJsonPath, config.encryptedKeyFieldName, params.getEncryptedKeyValue());
         }
         if (!isNullOrEmpty(config.encryptionCertificateFingerprintFieldName)) {
-            payloadContext.put(jsonPathOut, config.encryptionCertificateFingerprintFieldName, config.encryptionCertificateFingerprint);
+            JsonParser.put(payloadContext, outJsonPath, config.encryptionCertificateFingerprintFieldName, config.encryptionCertificateFingerprint);
         }
         if (!isNullOrEmpty(config.encryptionKeyFingerprintFieldName)) {
-            payloadContext.put(jsonPathOut, config.encryptionKeyFingerprintFieldName, config.encryptionKeyFingerprint);
+            JsonParser.put(payloadContext, outJsonPath, config.encryptionKeyFingerprintFieldName, config.encryptionKeyFingerprint);
         }
         if (!isNullOrEmpty(config.oaepPaddingDigestAlgorithmFieldName)) {
-            payloadContext.put(jsonPathOut, config.oaepPaddingDigestAlgorithmFieldName, params.getOaepPaddingDigestAlgorithmValue());
+            JsonParser.put(payloadContext, outJsonPath, config.oaepPaddingDigestAlgorithmFieldName, params.getOaepPaddingDigestAlgorithmValue());
         }
         return payloadContext;
     }
 
-    private static DocumentContext decryptPayloadPath(DocumentContext payloadContext, String jsonPathIn, String jsonPathOut,
-                                           FieldLevelEncryptionConfig config, FieldLevelEncryptionParams params) throws GeneralSecurityException, EncryptionException {
-
-        JsonProvider jsonProvider = JsonParser.jsonPathConfig.jsonProvider();
-        Object inJsonObject = JsonParser.readJsonObject(payloadContext, jsonPathIn);
-        if (inJsonObject == null) {
-            // Nothing to decrypt
+    private static DocumentContext decryptPayloadPaths(DocumentContext payloadContext, List<JsonPathPlan> plans, FieldLevelEncryptionConfig config,
+                                                       FieldLevelEncryptionParams params, PayloadKeys keys) throws GeneralSecurityException, EncryptionException {
+        if (!ParallelCrypto.isEnabled(config, plans.size())) {
+            for (JsonPathPlan plan : plans) {
+                payloadContext = decryptPayloadPath(payloadContext, plan, config, params, keys);
+            }
             return payloadContext;
         }
 
-        // Read and remove encrypted data and encryption fields at the given JSON path
-        Object encryptedValueJsonElement = readAndDeleteJsonKey(payloadContext, jsonPathIn, inJsonObject, config.encryptedValueFieldName);
-        if (JsonParser.jsonEngine.isNullOrEmptyJson(encryptedValueJsonElement)) {
+        // Values are read in order, decrypted concurrently, then written back in order
+        List<EncryptedValue> encryptedValues = new ArrayList<>(plans.size());
+        for (JsonPathPlan plan : plans) {
+            encryptedValues.add(readValueToDecrypt(payloadContext, plan, config, params, keys));
+        }
+        if (params != null) {
+            // Shared params: unwrap the key once, before the threads need it
+            params.getSecretKey();
+            params.getIvSpec();
+        }
+        List<String> decryptedValues = ParallelCrypto.map(config, encryptedValues, encryptedValue -> decryptValue(encryptedValue, config));
+        for (int i = 0; i < plans.size(); i++) {
+            if (decryptedValues.get(i) != null) {
+                payloadContext = writeDecryptedValue(payloadContext, plans.get(i), config, decryptedValues.get(i));
+            }
+        }
+        return payloadContext;
+    }
+
+    static DocumentContext decryptPayloadPath(DocumentContext payloadContext, JsonPathPlan plan, FieldLevelEncryptionConfig config,
+                                           FieldLevelEncryptionParams params, PayloadKeys keys) throws GeneralSecurityException, EncryptionException {
+
+        EncryptedValue encryptedValue = readValueToDecrypt(payloadContext, plan, config, params, keys);
+        if (encryptedValue == null) {
             // Nothing to decrypt
             return payloadContext;
         }
+        return writeDecryptedValue(payloadContext, plan, config, decryptValue(encryptedValue, config));
+    }
+
+    /**
+     * Read and remove encrypted data and encryption fields at the given JSON path.
+     */
+    private static EncryptedValue readValueToDecrypt(DocumentContext payloadContext, JsonPathPlan plan, FieldLevelEncryptionConfig config,
+                                                     FieldLevelEncryptionParams params, PayloadKeys keys) {
+        Object inJsonObject = JsonParser.readInJsonObject(payloadContext, plan, config.jsonEngine);
+        if (inJsonObject == null) {
+            return null;
+        }
+
+        Object encryptedValueJsonElement = readAndDeleteJsonKey(payloadContext, inJsonObject, config.encryptedValueFieldName);
+        if (config.jsonEngine.isNullOrEmptyJson(encryptedValueJsonElement)) {
+            return null;
+        }
 
         if (!config.useHttpPayloads() && params == null) {
             throw new IllegalStateException("Encryption params have to be set when not stored in HTTP payloads!");
@@ -169,35 +247,40 @@ public class FieldLevelEncryption {
 
         if (params == null) {
             // Read encryption params from the payload
-            Object oaepDigestAlgorithmJsonElement = readAndDeleteJsonKey(payloadContext, jsonPathIn, inJsonObject, config.oaepPaddingDigestAlgorithmFieldName);
-            String oaepDigestAlgorithm = JsonParser.jsonEngine.isNullOrEmptyJson(oaepDigestAlgorithmJsonElement) ? config.oaepPaddingDigestAlgorithm : JsonParser.jsonEngine.toJsonString(oaepDigestAlgorithmJsonElement);
-            Object encryptedKeyJsonElement = readAndDeleteJsonKey(payloadContext, jsonPathIn, inJsonObject, config.encryptedKeyFieldName);
-            Object ivJsonElement = readAndDeleteJsonKey(payloadContext, jsonPathIn, inJsonObject, config.ivFieldName);
-            readAndDeleteJsonKey(payloadContext, jsonPathIn, inJsonObject, config.encryptionCertificateFingerprintFieldName);
-            readAndDeleteJsonKey(payloadContext, jsonPathIn, inJsonObject, config.encryptionKeyFingerprintFieldName);
-            params = new FieldLevelEncryptionParams(JsonParser.jsonEngine.toJsonString(ivJsonElement), JsonParser.jsonEngine.toJsonString(encryptedKeyJsonElement), oaepDigestAlgorithm, config);
+            Object oaepDigestAlgorithmJsonElement = readAndDeleteJsonKey(payloadContext, inJsonObject, config.oaepPaddingDigestAlgorithmFieldName);
+            String oaepDigestAlgorithm = config.jsonEngine.isNullOrEmptyJson(oaepDigestAlgorithmJsonElement) ? config.oaepPaddingDigestAlgorithm : config.jsonEngine.toJsonString(oaepDigestAlgorithmJsonElement);
+            Object encryptedKeyJsonElement = readAndDeleteJsonKey(payloadContext, inJsonObject, config.encryptedKeyFieldName);
+            Object ivJsonElement = readAndDeleteJsonKey(payloadContext, inJsonObject, config.ivFieldName);
+            readAndDeleteJsonKey(payloadContext, inJsonObject, config.encryptionCertificateFingerprintFieldName);
+            readAndDeleteJsonKey(payloadContext, inJsonObject, config.encryptionKeyFingerprintFieldName);
+            params = keys.decryptionParams(config.jsonEngine.toJsonString(ivJsonElement), config.jsonEngine.toJsonString(encryptedKeyJsonElement), oaepDigestAlgorithm);
         }
+        return new EncryptedValue(config.jsonEngine.toJsonString(encryptedValueJsonElement), params);
+    }
 
-        // Decrypt data
-        byte[] encryptedValueBytes = decodeValue(JsonParser.jsonEngine.toJsonString(encryptedValueJsonElement), config.fieldValueEncoding);
+    private static String decryptValue(EncryptedValue encryptedValue, FieldLevelEncryptionConfig config) throws GeneralSecurityException, EncryptionException {
+        FieldLevelEncryptionParams params = encryptedValue.params;
+        byte[] encryptedValueBytes = decodeValue(encryptedValue.value, config.fieldValueEncoding);
         byte[] decryptedValueBytes = AESCBC.cipher(params.getSecretKey(), params.getIvSpec(), encryptedValueBytes, Cipher.DECRYPT_MODE);
+        return sanitizeJson(new String(decryptedValueBytes, StandardCharsets.UTF_8));
+    }
 
+    private static DocumentContext writeDecryptedValue(DocumentContext payloadContext, JsonPathPlan plan, FieldLevelEncryptionConfig config, String decryptedValue) {
         // Add decrypted data at the given JSON path
-        String decryptedValue = new String(decryptedValueBytes, StandardCharsets.UTF_8);
-        decryptedValue = sanitizeJson(decryptedValue);
-        if ("$".equals(jsonPathOut)) {
+        if (plan.isOutRoot()) {
             // We can't reuse the same DocumentContext. We have to create a new DocumentContext
             // with the appropriate internal representation (JSON object or JSON array).
-            payloadContext = JsonPath.parse(decryptedValue, JsonParser.jsonPathConfig);
+            payloadContext = JsonPath.parse(decryptedValue, config.jsonPathConfig);
         } else {
-            JsonParser.checkOrCreateOutObject(payloadContext, jsonPathOut);
-            JsonParser.addDecryptedDataToPayload(payloadContext, decryptedValue, jsonPathOut);
+            JsonParser.checkOrCreateOutObject(payloadContext, plan, config.jsonEngine);
+            JsonParser.addDecryptedDataToPayload(payloadContext, decryptedValue, plan, config.jsonEngine);
 
-            if(!jsonPathIn.equals(jsonPathOut)) {
+            if (!plan.isInSameAsOut()) {
                 // Remove the input if now empty
-                Object inJsonElement  = JsonParser.readJsonElement(payloadContext, jsonPathIn);
+                JsonProvider jsonProvider = payloadContext.configuration().jsonProvider();
+                Object inJsonElement  = JsonParser.readJsonElement(payloadContext, plan.getCompiledInPath());
                 if (0 == jsonProvider.length(inJsonElement)) {
-                    payloadContext.delete(jsonPathIn);
+                    JsonParser.delete(payloadContext, plan.getCompiledInPath());
                 }
             }
         }
@@ -205,14 +288,27 @@ public class FieldLevelEncryption {
         return payloadContext;
     }
 
-    private static Object readAndDeleteJsonKey(DocumentContext context, String objectPath, Object object, String key) {
+    private static Object readAndDeleteJsonKey(DocumentContext context, Object object, String key) {
         if (null == key) {
             // Do nothing
             return null;
         }
-        JsonProvider jsonProvider = JsonParser.jsonPathConfig.jsonProvider();
+        JsonProvider jsonProvider = context.configuration().jsonProvider();
         Object value = jsonProvider.getMapValue(object, key);
-        JsonParser.deleteIfExists(context, objectPath + "." + key);
+        JsonParser.deleteIfExists(jsonProvider, object, key);
         return value;
     }
+
+    /**
+     * An encrypted value with the params it was encrypted with.
+     */
+    private static final class EncryptedValue {
+        private final String value;
+        private final FieldLevelEncryptionParams params;
+
+        private EncryptedValue(String value, FieldLevelEncryptionParams params) {
+            this.value = value;
+            this.params = params;
+        }
+    }
 }
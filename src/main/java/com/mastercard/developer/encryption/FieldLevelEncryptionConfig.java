@@ -86,6 +86,16 @@ public class FieldLevelEncryptionConfig extends EncryptionConfig {
      */
     FieldLevelEncryptionConfig.FieldValueEncoding fieldValueEncoding;
 
+    /**
+     * The current session key, when a {@link SessionKeyPolicy} is set.
+     */
+    SessionKeys<FieldLevelEncryptionParams> sessionKeys;
+
+    /**
+     * Keys generated ahead of time, when a key pool capacity is set.
+     */
+    KeyPool<FieldLevelEncryptionParams> keyPool;
+
     /**
      * If the encryption parameters must be written to/read from HTTP headers.
      */
@@ -123,4 +133,8 @@ public class FieldLevelEncryptionConfig extends EncryptionConfig {
     public String getEncryptionCertificateFingerprint() {
         return encryptionCertificateFingerprint;
     }
+
+    public KeyPool<FieldLevelEncryptionParams> getKeyPool() {
+        return keyPool;
+    }
 }
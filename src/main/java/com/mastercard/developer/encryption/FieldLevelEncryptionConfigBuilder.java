@@ -1,7 +1,10 @@
 package com.mastercard.developer.encryption;
 
+import com.mastercard.developer.json.JsonEngine;
+
 import java.security.PrivateKey;
 import java.security.cert.Certificate;
+import java.util.concurrent.Executor;
 
 import static com.mastercard.developer.utils.EncodingUtils.encodeBytes;
 import static com.mastercard.developer.utils.StringUtils.isNullOrEmpty;
@@ -196,6 +199,71 @@ public class FieldLevelEncryptionConfigBuilder extends EncryptionConfigBuilder {
         }
         throw new IllegalArgumentException("Supported IV Sizes are either 12 or 16!");
     }
+
+    /**
+     * See: {@link EncryptionConfig#secretKeyCache}.
+     */
+    public FieldLevelEncryptionConfigBuilder withSecretKeyCache(SecretKeyCache secretKeyCache) {
+        this.secretKeyCache = secretKeyCache;
+        return this;
+    }
+
+    /**
+     * See: {@link EncryptionConfig#jsonEngine}.
+     */
+    public FieldLevelEncryptionConfigBuilder withJsonEngine(JsonEngine jsonEngine) {
+        this.jsonEngine = jsonEngine;
+        return this;
+    }
+
+    /**
+     * See: {@link EncryptionConfig#randomSource}.
+     */
+    public FieldLevelEncryptionConfigBuilder withRandomSource(RandomSource randomSource) {
+        this.randomSource = randomSource;
+        return this;
+    }
+
+    /**
+     * See: {@link EncryptionConfig#payloadKeyReuse}.
+     */
+    public FieldLevelEncryptionConfigBuilder withPayloadKeyReuse(boolean payloadKeyReuse) {
+        this.payloadKeyReuse = payloadKeyReuse;
+        return this;
+    }
+
+    /**
+     * See: {@link EncryptionConfig#sessionKeyPolicy}.
+     */
+    public FieldLevelEncryptionConfigBuilder withSessionKeyPolicy(SessionKeyPolicy sessionKeyPolicy) {
+        this.sessionKeyPolicy = sessionKeyPolicy;
+        return this;
+    }
+
+    /**
+     * See: {@link EncryptionConfig#keyPoolCapacity}.
+     */
+    public FieldLevelEncryptionConfigBuilder withKeyPoolCapacity(int keyPoolCapacity) {
+        this.keyPoolCapacity = keyPoolCapacity;
+        return this;
+    }
+
+    /**
+     * See: {@link EncryptionConfig#parallelExecutor}.
+     */
+    public FieldLevelEncryptionConfigBuilder withParallelExecutor(Executor parallelExecutor) {
+        this.parallelExecutor = parallelExecutor;
+        return this;
+    }
+
+    /**
+     * See: {@link EncryptionConfig#parallelThreshold}.
+     */
+    public FieldLevelEncryptionConfigBuilder withParallelThreshold(int parallelThreshold) {
+        this.parallelThreshold = parallelThreshold;
+        return this;
+    }
+
     /**
      * Build a {@link com.mastercard.developer.encryption.FieldLevelEncryptionConfig}.
      * @throws EncryptionException
@@ -230,7 +298,23 @@ public class FieldLevelEncryptionConfigBuilder extends EncryptionConfigBuilder {
         config.encryptedKeyHeaderName = this.encryptedKeyHeaderName;
         config.encryptionCertificateFingerprintHeaderName = this.encryptionCertificateFingerprintHeaderName;
         config.encryptionKeyFingerprintHeaderName = this.encryptionKeyFingerprintHeaderName;
+        config.secretKeyCache = this.secretKeyCache;
+        config.randomSource = this.randomSource;
+        setJsonEngine(config);
+        config.payloadKeyReuse = this.payloadKeyReuse;
+        config.parallelExecutor = this.parallelExecutor;
+        config.parallelThreshold = this.parallelThreshold;
+        config.sessionKeyPolicy = this.sessionKeyPolicy;
+        config.sessionKeys = this.sessionKeyPolicy == null ? null : new SessionKeys<>(this.sessionKeyPolicy, () -> FieldLevelEncryptionParams.generateNew(config), this.parallelExecutor);
+        config.keyPoolCapacity = this.keyPoolCapacity;
+        if (this.keyPoolCapacity > 0) {
+            config.keyPool = new KeyPool<>(this.keyPoolCapacity, () -> FieldLevelEncryptionParams.generateNew(config), this.parallelExecutor);
+            if (this.encryptionCertificate != null) {
+                config.keyPool.refill();
+            }
+        }
         config.scheme = EncryptionConfig.Scheme.LEGACY;
+        setPayloadProcessors(config);
         return config;
     }
 
@@ -259,6 +343,22 @@ public class FieldLevelEncryptionConfigBuilder extends EncryptionConfigBuilder {
         if (encryptedValueFieldName == null) {
             throw new IllegalArgumentException("Encrypted value field name cannot be null!");
         }
+
+        if (randomSource == null) {
+            throw new IllegalArgumentException("Random source cannot be null!");
+        }
+
+        if (parallelThreshold < 1) {
+            throw new IllegalArgumentException("Parallel threshold must be positive!");
+        }
+
+        if (keyPoolCapacity < 0) {
+            throw new IllegalArgumentException("Key pool capacity cannot be negative!");
+        }
+
+        if (keyPoolCapacity > 0 && sessionKeyPolicy != null) {
+            throw new IllegalArgumentException("A key pool can't be used with a session key policy!");
+        }
     }
 
     private void checkParameterConsistency() {
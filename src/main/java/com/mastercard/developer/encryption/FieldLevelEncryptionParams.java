@@ -1,13 +1,14 @@
 package com.mastercard.developer.encryption;
 
-import javax.crypto.KeyGenerator;
 import javax.crypto.SecretKey;
 import javax.crypto.spec.IvParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
 import java.security.GeneralSecurityException;
 import java.security.Key;
 
 import com.mastercard.developer.encryption.aes.AESEncryption;
 import com.mastercard.developer.encryption.rsa.RSA;
+import com.mastercard.developer.utils.ByteUtils;
 
 import static com.mastercard.developer.utils.EncodingUtils.decodeValue;
 import static com.mastercard.developer.utils.EncodingUtils.encodeBytes;
@@ -26,6 +27,8 @@ public final class FieldLevelEncryptionParams {
     private final FieldLevelEncryptionConfig config;
     private Key secretKey;
     private IvParameterSpec ivParameterSpec;
+    // Params sharing the secret key of other params don't unwrap it again
+    private FieldLevelEncryptionParams keyOwner;
 
     public FieldLevelEncryptionParams(String ivValue, String encryptedKeyValue, String oaepPaddingDigestAlgorithmValue, FieldLevelEncryptionConfig config) {
         this.ivValue = ivValue;
@@ -41,13 +44,30 @@ public final class FieldLevelEncryptionParams {
      * @throws EncryptionException
      */
     public static FieldLevelEncryptionParams generate(FieldLevelEncryptionConfig config) throws EncryptionException {
+        if (config.sessionKeys == null && config.keyPool == null) {
+            return generateNew(config);
+        }
+        try {
+            if (config.keyPool != null) {
+                return config.keyPool.take();
+            }
+            // Reuse the session key with a new IV
+            return config.sessionKeys.acquire().withNewIv();
+        } catch (EncryptionException e) {
+            throw e;
+        } catch (GeneralSecurityException e) {
+            throw new EncryptionException("Failed to generate a session key!", e);
+        }
+    }
+
+    static FieldLevelEncryptionParams generateNew(FieldLevelEncryptionConfig config) throws EncryptionException {
 
         // Generate a random IV
-        IvParameterSpec ivParameterSpec = AESEncryption.generateIv(config.getIVSize());
+        IvParameterSpec ivParameterSpec = AESEncryption.generateIv(config.getIVSize(), config.getRandomSource());
         String ivSpecValue = encodeBytes(ivParameterSpec.getIV(), config.fieldValueEncoding);
 
         // Generate an AES secret key
-        SecretKey secretKey = generateSecretKey();
+        SecretKey secretKey = generateSecretKey(config.getRandomSource());
 
         // Encrypt the secret key
         byte[] encryptedSecretKeyBytes = RSA.wrapSecretKey(config.encryptionCertificate.getPublicKey(), secretKey, config.oaepPaddingDigestAlgorithm);
@@ -64,6 +84,25 @@ public final class FieldLevelEncryptionParams {
         return params;
     }
 
+    /**
+     * Params using the same secret key, with a newly generated IV.
+     */
+    FieldLevelEncryptionParams withNewIv() throws EncryptionException {
+        IvParameterSpec newIvParameterSpec = AESEncryption.generateIv(config.getIVSize(), config.getRandomSource());
+        FieldLevelEncryptionParams params = withIv(encodeBytes(newIvParameterSpec.getIV(), config.fieldValueEncoding));
+        params.ivParameterSpec = newIvParameterSpec;
+        return params;
+    }
+
+    /**
+     * Params using the same secret key, with the given IV.
+     */
+    FieldLevelEncryptionParams withIv(String newIvValue) {
+        FieldLevelEncryptionParams params = new FieldLevelEncryptionParams(newIvValue, encryptedKeyValue, oaepPaddingDigestAlgorithmValue, config);
+        params.keyOwner = keyOwner != null ? keyOwner : this;
+        return params;
+    }
+
     public String getIvValue() {
         return ivValue;
     }
@@ -77,13 +116,25 @@ public final class FieldLevelEncryptionParams {
     }
 
     Key getSecretKey() throws EncryptionException {
+        if (keyOwner != null) {
+            return keyOwner.getSecretKey();
+        }
+        synchronized (this) {
+            return unwrapSecretKey();
+        }
+    }
+
+    private Key unwrapSecretKey() throws EncryptionException {
         try {
             if (secretKey != null) {
                 return secretKey;
             }
             // Decrypt the AES secret key
             byte[] encryptedSecretKeyBytes = decodeValue(encryptedKeyValue, config.fieldValueEncoding);
-            secretKey = RSA.unwrapSecretKey(config.decryptionKey, encryptedSecretKeyBytes, oaepPaddingDigestAlgorithmValue);
+            SecretKeyCache secretKeyCache = config.getSecretKeyCache();
+            secretKey = secretKeyCache != null
+                    ? secretKeyCache.unwrapSecretKey(config.decryptionKey, encryptedSecretKeyBytes, oaepPaddingDigestAlgorithmValue)
+                    : RSA.unwrapSecretKey(config.decryptionKey, encryptedSecretKeyBytes, oaepPaddingDigestAlgorithmValue);
             return secretKey;
         } catch (EncryptionException e) {
             throw e;
@@ -107,12 +158,11 @@ public final class FieldLevelEncryptionParams {
         }
     }
 
-    private static SecretKey generateSecretKey() throws EncryptionException {
+    private static SecretKey generateSecretKey(RandomSource randomSource) throws EncryptionException {
         try {
-            KeyGenerator generator = KeyGenerator.getInstance(SYMMETRIC_KEY_TYPE);
-            generator.init(SYMMETRIC_KEY_SIZE);
-            return generator.generateKey();
-        } catch (GeneralSecurityException e) {
+            // Same as an AES KeyGenerator, without looking one up for every key
+            return new SecretKeySpec(randomSource.nextBytes(ByteUtils.byteLength(SYMMETRIC_KEY_SIZE)), SYMMETRIC_KEY_TYPE);
+        } catch (RuntimeException e) {
             throw new EncryptionException("Failed to generate a secret key!", e);
         }
     }
@@ -7,6 +7,10 @@ import com.jayway.jsonpath.Option;
 import com.jayway.jsonpath.spi.json.JsonProvider;
 import com.mastercard.developer.json.JsonEngine;
 
+import java.io.ByteArrayInputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 
@@ -16,68 +20,407 @@ public final class JsonParser {
         // Nothing to do here
     }
 
+    private static final byte[] TRUE = "true".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] FALSE = "false".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] NULL = "null".getBytes(StandardCharsets.UTF_8);
+
     static JsonEngine jsonEngine;
     static Configuration jsonPathConfig = withJsonEngine(JsonEngine.getDefault());
 
     /**
-     * Specify the JSON engine to be used.
+     * Specify the JSON engine to be used by default, by the configurations built afterwards.
+     * See also: {@link EncryptionConfig#jsonEngine}.
      *
      * @param jsonEngine A {@link com.mastercard.developer.json.JsonEngine} instance
      */
    public static synchronized Configuration withJsonEngine(JsonEngine jsonEngine) {
         JsonParser.jsonEngine = jsonEngine;
-        JsonParser.jsonPathConfig = new Configuration.ConfigurationBuilder()
+        JsonParser.jsonPathConfig = newJsonPathConfig(jsonEngine);
+        return jsonPathConfig;
+    }
+
+    static Configuration newJsonPathConfig(JsonEngine jsonEngine) {
+        return new Configuration.ConfigurationBuilder()
                 .jsonProvider(jsonEngine.getJsonProvider())
                 .options(Option.SUPPRESS_EXCEPTIONS)
                 .build();
-        return jsonPathConfig;
     }
 
-    static void addDecryptedDataToPayload(DocumentContext payloadContext, String decryptedValue, String jsonPathOut) {
-        JsonProvider jsonProvider = jsonPathConfig.jsonProvider();
+    /**
+     * Parse a UTF-8 encoded payload.
+     */
+    static DocumentContext parse(byte[] payload, Configuration jsonPathConfig) {
+        return JsonPath.parse(new ByteArrayInputStream(payload), jsonPathConfig);
+    }
+
+    static DocumentContext parse(ByteBuffer payload, Configuration jsonPathConfig) {
+        if (payload.hasArray()) {
+            // Read the backing array in place
+            return JsonPath.parse(new ByteArrayInputStream(payload.array(), payload.arrayOffset() + payload.position(), payload.remaining()), jsonPathConfig);
+        }
+        byte[] bytes = new byte[payload.remaining()];
+        payload.duplicate().get(bytes);
+        return parse(bytes, jsonPathConfig);
+    }
+
+    static byte[] toBytes(DocumentContext context) {
+        return context.jsonString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Whether a UTF-8 encoded payload is a well-formed JSON object or JSON array. The payload is scanned once,
+     * without being parsed (escape sequences and control characters in strings aren't checked).
+     */
+    static boolean isJsonObjectOrArray(byte[] json, int offset, int length) {
+        int end = offset + length;
+        int i = skipWhitespaces(json, offset, end);
+        if (i == end || (json[i] != '{' && json[i] != '[')) {
+            return false;
+        }
+        byte[] containers = new byte[16];
+        int depth = 0;
+        while (true) {
+            // Read a value
+            i = skipWhitespaces(json, i, end);
+            if (i == end) {
+                return false;
+            }
+            byte b = json[i];
+            if (b == '{' || b == '[') {
+                i = skipWhitespaces(json, i + 1, end);
+                if (i < end && json[i] == closing(b)) {
+                    i++;
+                } else {
+                    if (depth == containers.length) {
+                        containers = Arrays.copyOf(containers, depth * 2);
+                    }
+                    containers[depth++] = b;
+                    if (b == '{' && (i = skipKey(json, i, end)) == -1) {
+                        return false;
+                    }
+                    continue;
+                }
+            } else if ((i = skipScalar(json, i, end)) == -1) {
+                return false;
+            }
+            // Close the containers ending after the value, then move to the next value
+            while (true) {
+                i = skipWhitespaces(json, i, end);
+                if (depth == 0) {
+                    return i == end;
+                }
+                if (i == end) {
+                    return false;
+                }
+                byte container = containers[depth - 1];
+                if (json[i] == ',') {
+                    i = skipWhitespaces(json, i + 1, end);
+                    if (container == '{' && (i = skipKey(json, i, end)) == -1) {
+                        return false;
+                    }
+                    break;
+                }
+                if (json[i] != closing(container)) {
+                    return false;
+                }
+                depth--;
+                i++;
+            }
+        }
+    }
+
+    /**
+     * Return the value of a top-level property of a UTF-8 encoded JSON object, without parsing the object, when the
+     * value is a string without escape sequences. Return null otherwise (including for unexpected input).
+     */
+    static String readTopLevelString(byte[] json, int offset, int length, String name) {
+        byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+        int end = offset + length;
+        int i = skipWhitespaces(json, offset, end);
+        if (i == end || json[i] != '{') {
+            return null;
+        }
+        i++;
+        while (true) {
+            i = skipWhitespaces(json, i, end);
+            if (i == end || json[i] != '"') {
+                return null;
+            }
+            int keyStart = i + 1;
+            i = skipString(json, i, end);
+            if (i == -1) {
+                return null;
+            }
+            boolean matches = isSameBytes(json, keyStart, i - 1, nameBytes);
+            i = skipWhitespaces(json, i, end);
+            if (i == end || json[i] != ':') {
+                return null;
+            }
+            i = skipWhitespaces(json, i + 1, end);
+            if (matches) {
+                return readSimpleString(json, i, end);
+            }
+            i = skipValue(json, i, end);
+            if (i == -1) {
+                return null;
+            }
+            i = skipWhitespaces(json, i, end);
+            if (i == end || json[i] != ',') {
+                // End of the object (the property wasn't found) or unexpected input
+                return null;
+            }
+            i++;
+        }
+    }
+
+    private static int skipWhitespaces(byte[] json, int i, int end) {
+        while (i < end && (json[i] == ' ' || json[i] == '\n' || json[i] == '\r' || json[i] == '\t')) {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * Return the index following the string starting at the given index, or -1.
+     */
+    private static int skipString(byte[] json, int i, int end) {
+        for (i++; i < end; i++) {
+            if (json[i] == '\\') {
+                i++;
+            } else if (json[i] == '"') {
+                return i + 1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Return the index following the value starting at the given index, or -1.
+     */
+    private static int skipValue(byte[] json, int i, int end) {
+        if (i == end) {
+            return -1;
+        }
+        if (json[i] == '"') {
+            return skipString(json, i, end);
+        }
+        if (json[i] != '{' && json[i] != '[') {
+            // Number, boolean or null
+            while (i < end && json[i] != ',' && json[i] != '}' && json[i] != ']' && json[i] != ' '
+                    && json[i] != '\n' && json[i] != '\r' && json[i] != '\t') {
+                i++;
+            }
+            return i;
+        }
+        int depth = 0;
+        while (i < end) {
+            byte b = json[i];
+            if (b == '"') {
+                i = skipString(json, i, end);
+                if (i == -1) {
+                    return -1;
+                }
+                continue;
+            }
+            if (b == '{' || b == '[') {
+                depth++;
+            } else if ((b == '}' || b == ']') && --depth == 0) {
+                return i + 1;
+            }
+            i++;
+        }
+        return -1;
+    }
+
+    private static byte closing(byte container) {
+        return container == '{' ? (byte) '}' : (byte) ']';
+    }
+
+    /**
+     * Return the index following the object key (and the colon) starting at the given index, or -1.
+     */
+    private static int skipKey(byte[] json, int i, int end) {
+        if (i == end || json[i] != '"' || (i = skipString(json, i, end)) == -1) {
+            return -1;
+        }
+        i = skipWhitespaces(json, i, end);
+        return i < end && json[i] == ':' ? i + 1 : -1;
+    }
+
+    /**
+     * Return the index following the string, number, boolean or null starting at the given index, or -1.
+     */
+    private static int skipScalar(byte[] json, int i, int end) {
+        switch (json[i]) {
+            case '"':
+                return skipString(json, i, end);
+            case 't':
+                return skipLiteral(json, i, end, TRUE);
+            case 'f':
+                return skipLiteral(json, i, end, FALSE);
+            case 'n':
+                return skipLiteral(json, i, end, NULL);
+            default:
+                return skipNumber(json, i, end);
+        }
+    }
+
+    private static int skipLiteral(byte[] json, int i, int end, byte[] literal) {
+        return end - i >= literal.length && isSameBytes(json, i, i + literal.length, literal) ? i + literal.length : -1;
+    }
+
+    private static int skipNumber(byte[] json, int i, int end) {
+        if (i < end && json[i] == '-') {
+            i++;
+        }
+        if (i < end && json[i] == '0') {
+            i++;
+        } else if ((i = skipDigits(json, i, end)) == -1) {
+            return -1;
+        }
+        if (i < end && json[i] == '.' && (i = skipDigits(json, i + 1, end)) == -1) {
+            return -1;
+        }
+        if (i < end && (json[i] == 'e' || json[i] == 'E')) {
+            i++;
+            if (i < end && (json[i] == '+' || json[i] == '-')) {
+                i++;
+            }
+            return skipDigits(json, i, end);
+        }
+        return i;
+    }
+
+    /**
+     * Return the index following the (at least one) digits starting at the given index, or -1.
+     */
+    private static int skipDigits(byte[] json, int i, int end) {
+        int start = i;
+        while (i < end && json[i] >= '0' && json[i] <= '9') {
+            i++;
+        }
+        return i == start ? -1 : i;
+    }
+
+    private static String readSimpleString(byte[] json, int i, int end) {
+        if (i == end || json[i] != '"') {
+            return null;
+        }
+        for (int j = i + 1; j < end; j++) {
+            if (json[j] == '\\') {
+                return null;
+            }
+            if (json[j] == '"') {
+                return new String(json, i + 1, j - i - 1, StandardCharsets.UTF_8);
+            }
+        }
+        return null;
+    }
+
+    private static boolean isSameBytes(byte[] json, int from, int to, byte[] bytes) {
+        if (to - from != bytes.length) {
+            return false;
+        }
+        for (int i = 0; i < bytes.length; i++) {
+            if (json[from + i] != bytes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static void addDecryptedDataToPayload(DocumentContext payloadContext, String decryptedValue, JsonPathPlan plan, JsonEngine jsonEngine) {
+        JsonProvider jsonProvider = payloadContext.configuration().jsonProvider();
         Object decryptedValueJsonElement = jsonEngine.parse(decryptedValue);
 
         if (!jsonEngine.isJsonObject(decryptedValueJsonElement)) {
             // Array or primitive: overwrite
-            payloadContext.set(jsonPathOut, decryptedValueJsonElement);
+            plan.getCompiledOutPath().set(payloadContext, decryptedValueJsonElement);
             return;
         }
 
         // Object: merge
         int length = jsonProvider.length(decryptedValueJsonElement);
         Collection<String> propertyKeys = (0 == length) ? Collections.emptyList() : jsonProvider.getPropertyKeys(decryptedValueJsonElement);
+        Object outJsonObject = readJsonElement(payloadContext, plan.getCompiledOutPath());
         for (String key : propertyKeys) {
-            deleteIfExists( payloadContext, jsonPathOut + "." + key);
-            payloadContext.put(jsonPathOut, key, jsonProvider.getMapValue(decryptedValueJsonElement, key));
+            if (outJsonObject != null && jsonProvider.isMap(outJsonObject)) {
+                // Replaced properties move to the end
+                deleteIfExists(jsonProvider, outJsonObject, key);
+            }
+            put(payloadContext, plan.getCompiledOutPath(), key, jsonProvider.getMapValue(decryptedValueJsonElement, key));
         }
     }
 
-    static void checkOrCreateOutObject(DocumentContext context, String jsonPathOutString) {
-        Object outJsonObject = readJsonObject(context, jsonPathOutString);
+    /**
+     * Remove a property of the given object, unless missing or null.
+     */
+    static void deleteIfExists(JsonProvider jsonProvider, Object jsonObject, String key) {
+        Object value = jsonProvider.getMapValue(jsonObject, key);
+        if (value != null && value != JsonProvider.UNDEFINED) {
+            jsonProvider.removeProperty(jsonObject, key);
+        }
+    }
+
+    /**
+     * Read the JSON object at the input path of the given plan.
+     */
+    static Object readInJsonObject(DocumentContext context, JsonPathPlan plan, JsonEngine jsonEngine) {
+        Object jsonElement = readJsonElement(context, plan.getCompiledInPath());
+        if (jsonElement != null && !jsonEngine.isJsonObject(jsonElement)) {
+            throw new IllegalArgumentException(String.format("JSON object expected at path: '%s'!", plan.getInPath()));
+        }
+        return jsonElement;
+    }
+
+    static void checkOrCreateOutObject(DocumentContext context, JsonPathPlan plan, JsonEngine jsonEngine) {
+        Object outJsonObject = readJsonElement(context, plan.getCompiledOutPath());
         if (null != outJsonObject) {
+            if (!jsonEngine.isJsonObject(outJsonObject)) {
+                throw new IllegalArgumentException(String.format("JSON object expected at path: '%s'!", plan.getOutPath()));
+            }
             // Object already exists
             return;
         }
 
         // Path does not exist: if parent exists then we create a new object under the parent
-        String parentJsonPath = JsonEngine.getParentJsonPath(jsonPathOutString);
-        Object parentJsonObject = readJsonObject(context, parentJsonPath);
+        CompiledJsonPath parentJsonPath = plan.getCompiledOutParentPath();
+        Object parentJsonObject = readJsonElement(context, parentJsonPath);
+        if (parentJsonObject != null && !jsonEngine.isJsonObject(parentJsonObject)) {
+            throw new IllegalArgumentException(String.format("JSON object expected at path: '%s'!", plan.getOutParentPath()));
+        }
         if (parentJsonObject == null) {
-            throw new IllegalArgumentException(String.format("Parent path not found in payload: '%s'!", parentJsonPath));
+            throw new IllegalArgumentException(String.format("Parent path not found in payload: '%s'!", plan.getOutParentPath()));
         }
-        outJsonObject = jsonPathConfig.jsonProvider().createMap();
-        String elementKey = JsonEngine.getJsonElementKey(jsonPathOutString);
-        context.put(parentJsonPath, elementKey, outJsonObject);
+        outJsonObject = context.configuration().jsonProvider().createMap();
+        put(context, parentJsonPath, plan.getOutElementKey(), outJsonObject);
+    }
+
+    // Compiled paths are evaluated against the document directly, with the configuration the document
+    // was parsed with (see CompiledJsonPath).
+
+    static void put(DocumentContext context, CompiledJsonPath jsonPath, String key, Object value) {
+        jsonPath.put(context, key, value);
+    }
+
+    static void delete(DocumentContext context, CompiledJsonPath jsonPath) {
+        jsonPath.delete(context);
     }
 
     static Object readJsonElement(DocumentContext context, String jsonPathString) {
-        Object payloadJsonObject = context.json();
-        JsonPath jsonPath = JsonPath.compile(jsonPathString);
-        return jsonPath.read(payloadJsonObject, jsonPathConfig);
+        return CompiledJsonPath.compile(jsonPathString).read(context);
+    }
+
+    static Object readJsonElement(DocumentContext context, CompiledJsonPath jsonPath) {
+        return jsonPath.read(context);
+    }
+
+    static Object readJsonObject(DocumentContext context, String jsonPathString, JsonEngine jsonEngine) {
+        return readJsonObject(context, CompiledJsonPath.compile(jsonPathString), jsonPathString, jsonEngine);
     }
 
-    static Object readJsonObject(DocumentContext context, String jsonPathString) {
-        Object jsonElement = readJsonElement(context, jsonPathString);
+    static Object readJsonObject(DocumentContext context, CompiledJsonPath jsonPath, String jsonPathString, JsonEngine jsonEngine) {
+        Object jsonElement = readJsonElement(context, jsonPath);
         if (jsonElement == null) {
             return null;
         }
@@ -87,10 +430,14 @@ public final class JsonParser {
         return jsonElement;
     }
 
+    static void deleteIfExists(DocumentContext context, CompiledJsonPath jsonPath) {
+        Object value = readJsonElement(context, jsonPath);
+        if (value != null) {
+            delete(context, jsonPath);
+        }
+    }
+
     static void deleteIfExists(DocumentContext context, String jsonPathString){
-       Object value = context.read(jsonPathString);
-       if(value != null){
-           context.delete(jsonPathString);
-       }
+       deleteIfExists(context, CompiledJsonPath.compile(jsonPathString));
     }
 }
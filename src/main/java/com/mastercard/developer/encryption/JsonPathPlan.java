@@ -0,0 +1,344 @@
+package com.mastercard.developer.encryption;
+
+import com.jayway.jsonpath.DocumentContext;
+import com.jayway.jsonpath.spi.json.JsonProvider;
+import com.mastercard.developer.json.JsonEngine;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An immutable, precompiled view of a configured (input path, output path) pair,
+ * built once when the configuration is built and then reused for every payload.
+ * Paths with wildcards are split into steps around each wildcard, and expanded by walking the document arrays:
+ * item plans are anchored on their array nodes, so no per-item path is built or resolved from the root.
+ */
+final class JsonPathPlan {
+
+    private static final String WILDCARD = "[*]";
+
+    private final String inPath;
+    private final String outPath;
+    private final CompiledJsonPath compiledInPath;
+    private final CompiledJsonPath compiledOutPath;
+    private final CompiledJsonPath compiledOutParentPath;
+    private final String outElementKey;
+
+    // With wildcards: the steps before, between and after the wildcards of the input and output paths
+    private final Object[][] inSegments;
+    private final Object[][] outSegments;
+
+    // Array items: the plan with wildcards, and the item indexes (at each nesting level)
+    private final JsonPathPlan wildcardPlan;
+    private final int[] indexes;
+    private String itemInPath;
+    private String itemOutPath;
+
+    private JsonPathPlan(String inPath, String outPath) {
+        this.inPath = inPath;
+        this.outPath = outPath;
+        this.wildcardPlan = null;
+        this.indexes = null;
+        if (inPath.contains(WILDCARD)) {
+            // Paths are anchored once the array nodes are known
+            this.compiledInPath = null;
+            this.compiledOutPath = null;
+            this.compiledOutParentPath = null;
+            this.outElementKey = null;
+            this.inSegments = parseSegments(inPath);
+            this.outSegments = parseSegments(outPath);
+            if (inSegments.length != outSegments.length) {
+                throw new IllegalArgumentException(String.format("JSON paths '%s' and '%s' must contain the same number of wildcards!", inPath, outPath));
+            }
+        } else {
+            this.compiledInPath = CompiledJsonPath.compile(inPath);
+            this.compiledOutPath = CompiledJsonPath.compile(outPath);
+            String outParentPath = findParentJsonPath(outPath);
+            this.compiledOutParentPath = outParentPath == null ? null : CompiledJsonPath.compile(outParentPath);
+            this.outElementKey = outParentPath == null ? null : JsonEngine.getJsonElementKey(outPath);
+            this.inSegments = null;
+            this.outSegments = null;
+        }
+    }
+
+    private JsonPathPlan(JsonPathPlan wildcardPlan, int[] indexes, Object inArray, Object outArray) {
+        this.inPath = null;
+        this.outPath = null;
+        this.wildcardPlan = wildcardPlan;
+        this.indexes = indexes;
+        this.inSegments = null;
+        this.outSegments = null;
+        int index = indexes[indexes.length - 1];
+        Object[] inSteps = itemSteps(index, wildcardPlan.inSegments);
+        Object[] outSteps = itemSteps(index, wildcardPlan.outSegments);
+        this.compiledInPath = CompiledJsonPath.anchoredAt(inArray, inSteps);
+        this.compiledOutPath = CompiledJsonPath.anchoredAt(outArray, outSteps);
+        Object lastOutStep = outSteps[outSteps.length - 1];
+        if (lastOutStep instanceof String) {
+            this.compiledOutParentPath = CompiledJsonPath.anchoredAt(outArray, Arrays.copyOf(outSteps, outSteps.length - 1));
+            this.outElementKey = (String) lastOutStep;
+        } else {
+            // The output is the array item itself
+            this.compiledOutParentPath = null;
+            this.outElementKey = null;
+        }
+    }
+
+    /**
+     * Build the plans for the given (input path, output path) pairs, preserving their iteration order.
+     */
+    static List<JsonPathPlan> compile(Map<String, String> paths) {
+        List<JsonPathPlan> plans = new ArrayList<>(paths.size());
+        for (Map.Entry<String, String> entry : paths.entrySet()) {
+            plans.add(new JsonPathPlan(entry.getKey(), entry.getValue()));
+        }
+        return Collections.unmodifiableList(plans);
+    }
+
+    /**
+     * Build a plan for a single (input path, output path) pair.
+     */
+    static JsonPathPlan of(String inPath, String outPath) {
+        return new JsonPathPlan(inPath, outPath);
+    }
+
+    /**
+     * Group consecutive plans into batches of plans whose paths don't overlap, so that the values of a batch
+     * can all be read before any of them gets written back. A plan overlapping a plan of the current batch
+     * starts a new batch.
+     */
+    static List<List<JsonPathPlan>> batchIndependent(List<JsonPathPlan> plans) {
+        List<List<JsonPathPlan>> batches = new ArrayList<>();
+        List<JsonPathPlan> batch = new ArrayList<>();
+        for (JsonPathPlan plan : plans) {
+            for (JsonPathPlan batchPlan : batch) {
+                if (plan.overlaps(batchPlan)) {
+                    batches.add(Collections.unmodifiableList(batch));
+                    batch = new ArrayList<>();
+                    break;
+                }
+            }
+            batch.add(plan);
+        }
+        if (!batch.isEmpty()) {
+            batches.add(Collections.unmodifiableList(batch));
+        }
+        return Collections.unmodifiableList(batches);
+    }
+
+    /**
+     * Return the plans without wildcard matching the given document for all the given plans, in order.
+     */
+    static List<JsonPathPlan> expand(List<JsonPathPlan> plans, DocumentContext context) {
+        if (plans.size() == 1) {
+            return plans.get(0).expand(context);
+        }
+        List<JsonPathPlan> expandedPlans = new ArrayList<>();
+        for (JsonPathPlan plan : plans) {
+            expandedPlans.addAll(plan.expand(context));
+        }
+        return expandedPlans;
+    }
+
+    /**
+     * Whether a path of this plan could be the same as, or be inside, a path of the other plan.
+     * Paths are only compared up to their first bracket other than a wildcard, so this errs on the side of overlapping.
+     */
+    private boolean overlaps(JsonPathPlan other) {
+        return overlaps(inPath, other.inPath) || overlaps(inPath, other.outPath)
+                || overlaps(outPath, other.inPath) || overlaps(outPath, other.outPath);
+    }
+
+    private static boolean overlaps(String path, String otherPath) {
+        String prefix = dotNotationPrefix(path);
+        String otherPrefix = dotNotationPrefix(otherPath);
+        return isPrefix(prefix, otherPrefix) || isPrefix(otherPrefix, prefix);
+    }
+
+    private static String dotNotationPrefix(String path) {
+        String dotNotation = path.trim().replace(WILDCARD, ".*");
+        int bracketIndex = dotNotation.indexOf('[');
+        return bracketIndex == -1 ? dotNotation : dotNotation.substring(0, bracketIndex);
+    }
+
+    private static boolean isPrefix(String prefix, String path) {
+        return path.startsWith(prefix) && (path.length() == prefix.length() || path.charAt(prefix.length()) == '.');
+    }
+
+    private static String findParentJsonPath(String jsonPath) {
+        if ("$".equals(jsonPath)) {
+            return null;
+        }
+        try {
+            return JsonEngine.getParentJsonPath(jsonPath);
+        } catch (IllegalStateException e) {
+            // Reported when (and if) the parent is actually needed
+            return null;
+        }
+    }
+
+    /**
+     * Split "$.a[*].b[*].c" into [["a"], ["b"], ["c"]].
+     */
+    private static Object[][] parseSegments(String path) {
+        List<Object[]> segments = new ArrayList<>();
+        int start = 0;
+        while (true) {
+            int wildcardIndex = path.indexOf(WILDCARD, start);
+            String segment = wildcardIndex == -1 ? path.substring(start) : path.substring(start, wildcardIndex);
+            Object[] steps = start == 0 ? parseFirstSegment(segment) : CompiledJsonPath.parseRelativeSteps(segment);
+            if (steps == null) {
+                throw new IllegalArgumentException(String.format("JSON paths with wildcard must only contain property names and array indexes: '%s'!", path));
+            }
+            segments.add(steps);
+            if (wildcardIndex == -1) {
+                return segments.toArray(new Object[0][]);
+            }
+            start = wildcardIndex + WILDCARD.length();
+        }
+    }
+
+    private static Object[] parseFirstSegment(String segment) {
+        String trimmed = segment.trim();
+        return CompiledJsonPath.parseRelativeSteps(trimmed.startsWith("$") ? trimmed.substring(1) : trimmed);
+    }
+
+    private static Object[] itemSteps(int index, Object[][] segments) {
+        Object[] tail = segments[segments.length - 1];
+        Object[] steps = new Object[tail.length + 1];
+        steps[0] = index;
+        System.arraycopy(tail, 0, steps, 1, tail.length);
+        return steps;
+    }
+
+    /**
+     * Return the plans without wildcard matching the given document: this plan when its paths are definite,
+     * one plan per item (at any nesting depth) otherwise. The document is read once, before any update.
+     */
+    List<JsonPathPlan> expand(DocumentContext context) {
+        if (!hasWildcard()) {
+            return Collections.singletonList(this);
+        }
+        List<JsonPathPlan> plans = new ArrayList<>();
+        Object root = context.json();
+        expand(context.configuration().jsonProvider(), root, root, true, 0, new int[inSegments.length - 1], plans);
+        return plans;
+    }
+
+    private void expand(JsonProvider jsonProvider, Object inParent, Object outParent, boolean sameParents,
+                        int level, int[] indexes, List<JsonPathPlan> plans) {
+        Object[] inSteps = inSegments[level];
+        Object[] outSteps = outSegments[level];
+        Object inArray = CompiledJsonPath.navigate(jsonProvider, inParent, inSteps, inSteps.length);
+        if (inArray == null || !jsonProvider.isArray(inArray)) {
+            return;
+        }
+        // Input and output items usually are in the same arrays
+        boolean sameArrays = sameParents && Arrays.equals(inSteps, outSteps);
+        Object outArray = sameArrays ? inArray : outParent == null ? null : CompiledJsonPath.navigate(jsonProvider, outParent, outSteps, outSteps.length);
+        int length = jsonProvider.length(inArray);
+        for (int i = 0; i < length; i++) {
+            indexes[level] = i;
+            if (level == indexes.length - 1) {
+                plans.add(new JsonPathPlan(this, indexes.clone(), inArray, outArray));
+            } else {
+                // Nested array
+                Object inItem = jsonProvider.getArrayIndex(inArray, i);
+                Object outItem = sameArrays ? inItem : outArray != null && jsonProvider.isArray(outArray) && i < jsonProvider.length(outArray)
+                        ? jsonProvider.getArrayIndex(outArray, i) : null;
+                expand(jsonProvider, inItem, outItem, sameArrays, level + 1, indexes, plans);
+            }
+        }
+    }
+
+    private static String replaceWildcards(String path, int[] indexes) {
+        StringBuilder builder = new StringBuilder(path.length() + 4 * indexes.length);
+        int start = 0;
+        for (int index : indexes) {
+            int wildcardIndex = path.indexOf(WILDCARD, start);
+            builder.append(path, start, wildcardIndex).append('[').append(index).append(']');
+            start = wildcardIndex + WILDCARD.length();
+        }
+        return builder.append(path, start, path.length()).toString();
+    }
+
+    boolean hasWildcard() {
+        return inSegments != null;
+    }
+
+    boolean isArrayItem() {
+        return wildcardPlan != null;
+    }
+
+    /**
+     * The input path (for array items, built on demand for error messages and tests).
+     */
+    String getInPath() {
+        if (wildcardPlan == null) {
+            return inPath;
+        }
+        if (itemInPath == null) {
+            itemInPath = replaceWildcards(wildcardPlan.inPath, indexes);
+        }
+        return itemInPath;
+    }
+
+    /**
+     * The output path (for array items, built on demand for error messages and tests).
+     */
+    String getOutPath() {
+        if (wildcardPlan == null) {
+            return outPath;
+        }
+        if (itemOutPath == null) {
+            itemOutPath = replaceWildcards(wildcardPlan.outPath, indexes);
+        }
+        return itemOutPath;
+    }
+
+    boolean isInSameAsOut() {
+        return wildcardPlan == null ? inPath.equals(outPath) : wildcardPlan.isInSameAsOut();
+    }
+
+    boolean isInRoot() {
+        return "$".equals(inPath);
+    }
+
+    boolean isOutRoot() {
+        return "$".equals(outPath);
+    }
+
+    CompiledJsonPath getCompiledInPath() {
+        return compiledInPath;
+    }
+
+    CompiledJsonPath getCompiledOutPath() {
+        return compiledOutPath;
+    }
+
+    CompiledJsonPath getCompiledOutParentPath() {
+        if (compiledOutParentPath == null) {
+            if (wildcardPlan != null) {
+                throw new IllegalArgumentException(String.format("Parent path not found in payload: '%s'!", getOutPath()));
+            }
+            // Throws the appropriate exception
+            JsonEngine.getParentJsonPath(outPath);
+        }
+        return compiledOutParentPath;
+    }
+
+    /**
+     * The output parent path, for error messages.
+     */
+    String getOutParentPath() {
+        CompiledJsonPath parentPath = getCompiledOutParentPath();
+        return wildcardPlan == null ? parentPath.getPath() : JsonEngine.getParentJsonPath(getOutPath());
+    }
+
+    String getOutElementKey() {
+        return outElementKey;
+    }
+}
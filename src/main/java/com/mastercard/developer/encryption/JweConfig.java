@@ -1,4 +1,82 @@
 package com.mastercard.developer.encryption;
 
+import com.mastercard.developer.encryption.jwe.JweHeader;
+import com.mastercard.developer.encryption.jwe.JweObject;
+
+import javax.crypto.SecretKey;
+
 public class JweConfig extends EncryptionConfig {
+
+    public static final int DEFAULT_MAXIMUM_INFLATED_SIZE = 16 * 1024 * 1024;
+
+    /**
+     * The JWE key management algorithm used for encryption ("RSA-OAEP-256", "dir", "A256KW", "A256GCMKW", "ECDH-ES"
+     * or "ECDH-ES+A256KW").
+     * Decryption only accepts encrypted values using this algorithm.
+     */
+    String keyManagementAlgorithm = JweEncryption.ALGORITHM;
+
+    /**
+     * A pre-shared content encryption key, for the "dir" algorithm.
+     */
+    SecretKey contentEncryptionKey;
+
+    /**
+     * A pre-shared key encryption key, for the "A256KW" and "A256GCMKW" algorithms.
+     */
+    SecretKey keyEncryptionKey;
+
+    /**
+     * The protected header of encrypted values (constant for a given configuration, so encoded only once).
+     */
+    JweHeader jweHeader;
+
+    /**
+     * The current session key, when a {@link SessionKeyPolicy} is set.
+     */
+    SessionKeys<JweObject.ContentKey> sessionKeys;
+
+    /**
+     * Keys generated ahead of time, when a key pool capacity is set.
+     */
+    KeyPool<JweObject.ContentKey> keyPool;
+
+    /**
+     * Plaintexts of at least this many bytes are compressed ("zip": "DEF") before being encrypted.
+     * 0 (default) disables compression.
+     */
+    int compressionThreshold;
+
+    /**
+     * The maximum size in bytes of decrypted plaintexts once inflated, to guard against decompression bombs.
+     */
+    int maximumInflatedSize = DEFAULT_MAXIMUM_INFLATED_SIZE;
+
+    public JweHeader getJweHeader() {
+        return jweHeader;
+    }
+
+    public String getKeyManagementAlgorithm() {
+        return keyManagementAlgorithm;
+    }
+
+    public SecretKey getContentEncryptionKey() {
+        return contentEncryptionKey;
+    }
+
+    public SecretKey getKeyEncryptionKey() {
+        return keyEncryptionKey;
+    }
+
+    public int getCompressionThreshold() {
+        return compressionThreshold;
+    }
+
+    public int getMaximumInflatedSize() {
+        return maximumInflatedSize;
+    }
+
+    public KeyPool<JweObject.ContentKey> getKeyPool() {
+        return keyPool;
+    }
 }
@@ -1,12 +1,25 @@
 package com.mastercard.developer.encryption;
 
+import com.mastercard.developer.encryption.ecdh.ECDH;
+import com.mastercard.developer.encryption.jwe.JweHeader;
+import com.mastercard.developer.encryption.jwe.JweObject;
+import com.mastercard.developer.json.JsonEngine;
+
+import javax.crypto.SecretKey;
 import java.security.PrivateKey;
 import java.security.PublicKey;
 import java.security.cert.Certificate;
 import java.util.Collections;
+import java.util.concurrent.Executor;
 
 public class JweConfigBuilder extends EncryptionConfigBuilder {
 
+    private SecretKey contentEncryptionKey;
+    private SecretKey keyEncryptionKey;
+    private String keyManagementAlgorithm;
+    private int compressionThreshold;
+    private int maximumInflatedSize = JweConfig.DEFAULT_MAXIMUM_INFLATED_SIZE;
+
     /**
      * Get an instance of the builder.
      */
@@ -29,11 +42,42 @@ public class JweConfigBuilder extends EncryptionConfigBuilder {
         config.encryptionKey = this.encryptionKey;
         config.encryptionKeyFingerprint = this.encryptionKeyFingerprint;
         config.decryptionKey = this.decryptionKey;
+        config.contentEncryptionKey = this.contentEncryptionKey;
+        config.keyEncryptionKey = this.keyEncryptionKey;
+        if (this.contentEncryptionKey != null) {
+            config.keyManagementAlgorithm = JweEncryption.DIRECT_ALGORITHM;
+        } else if (this.keyEncryptionKey != null || this.keyManagementAlgorithm != null) {
+            config.keyManagementAlgorithm = this.keyManagementAlgorithm;
+        } else if (ECDH.isSupportedKey(getPublicKey()) || (getPublicKey() == null && ECDH.isSupportedKey(this.decryptionKey))) {
+            config.keyManagementAlgorithm = JweEncryption.ECDH_ES_ALGORITHM;
+        }
         config.encryptionPaths = this.encryptionPaths.isEmpty() ? Collections.singletonMap("$", "$") : this.encryptionPaths;
         config.decryptionPaths = this.decryptionPaths.isEmpty() ? Collections.singletonMap("$.encryptedData", "$") : this.decryptionPaths;
         config.encryptedValueFieldName = this.encryptedValueFieldName == null ? "encryptedData" : this.encryptedValueFieldName;
         config.scheme = EncryptionConfig.Scheme.JWE;
         config.ivSize = ivSize;
+        config.secretKeyCache = this.secretKeyCache;
+        config.randomSource = this.randomSource;
+        setJsonEngine(config);
+        config.payloadKeyReuse = this.payloadKeyReuse;
+        config.parallelExecutor = this.parallelExecutor;
+        config.parallelThreshold = this.parallelThreshold;
+        config.compressionThreshold = this.compressionThreshold;
+        config.maximumInflatedSize = this.maximumInflatedSize;
+        config.jweHeader = new JweHeader(config.keyManagementAlgorithm, JweEncryption.ENCRYPTION, this.encryptionKeyFingerprint, JweEncryption.CONTENT_TYPE);
+        // Encode the header now rather than for every encrypted value
+        config.jweHeader.getEncoded();
+        setPayloadProcessors(config);
+        // Last, since keys may get generated in the background from now on, reading the configuration
+        config.sessionKeyPolicy = this.sessionKeyPolicy;
+        config.sessionKeys = this.sessionKeyPolicy == null ? null : new SessionKeys<>(this.sessionKeyPolicy, () -> JweObject.ContentKey.generate(config), this.parallelExecutor);
+        config.keyPoolCapacity = this.keyPoolCapacity;
+        if (this.keyPoolCapacity > 0) {
+            config.keyPool = new KeyPool<>(this.keyPoolCapacity, () -> JweObject.ContentKey.generate(config), this.parallelExecutor);
+            if (this.encryptionCertificate != null || this.encryptionKey != null || this.keyEncryptionKey != null) {
+                config.keyPool.refill();
+            }
+        }
         return config;
     }
 
@@ -67,6 +111,38 @@ public class JweConfigBuilder extends EncryptionConfigBuilder {
         return this;
     }
 
+    /**
+     * Use a pre-shared content encryption key (256 bits) with the "dir" key management algorithm, instead of
+     * generating and wrapping a new key for every encrypted value.
+     * See: {@link JweConfig#contentEncryptionKey}.
+     */
+    public JweConfigBuilder withContentEncryptionKey(SecretKey contentEncryptionKey) {
+        this.contentEncryptionKey = contentEncryptionKey;
+        return this;
+    }
+
+    /**
+     * Wrap content encryption keys with a pre-shared key encryption key (256 bits), using the "A256KW" or the
+     * "A256GCMKW" key management algorithm.
+     * See: {@link JweConfig#keyEncryptionKey}.
+     */
+    public JweConfigBuilder withKeyEncryptionKey(SecretKey keyEncryptionKey, String keyManagementAlgorithm) {
+        this.keyEncryptionKey = keyEncryptionKey;
+        this.keyManagementAlgorithm = keyManagementAlgorithm;
+        return this;
+    }
+
+    /**
+     * The key management algorithm to use with the encryption key/certificate: "RSA-OAEP-256" (the default) for RSA
+     * keys, "ECDH-ES" (the default) or "ECDH-ES+A256KW" for EC and X25519 keys. Also the algorithm accepted for
+     * decryption, including with an EC or X25519 decryption key alone.
+     * See: {@link JweConfig#keyManagementAlgorithm}.
+     */
+    public JweConfigBuilder withKeyManagementAlgorithm(String keyManagementAlgorithm) {
+        this.keyManagementAlgorithm = keyManagementAlgorithm;
+        return this;
+    }
+
     /**
      * See: {@link EncryptionConfig#encryptionPaths}.
      */
@@ -106,10 +182,162 @@ public class JweConfigBuilder extends EncryptionConfigBuilder {
         throw new IllegalArgumentException("Supported IV Sizes are either 12 or 16!");
     }
 
+    /**
+     * See: {@link EncryptionConfig#secretKeyCache}.
+     */
+    public JweConfigBuilder withSecretKeyCache(SecretKeyCache secretKeyCache) {
+        this.secretKeyCache = secretKeyCache;
+        return this;
+    }
+
+    /**
+     * See: {@link EncryptionConfig#jsonEngine}.
+     */
+    public JweConfigBuilder withJsonEngine(JsonEngine jsonEngine) {
+        this.jsonEngine = jsonEngine;
+        return this;
+    }
+
+    /**
+     * See: {@link EncryptionConfig#randomSource}.
+     */
+    public JweConfigBuilder withRandomSource(RandomSource randomSource) {
+        this.randomSource = randomSource;
+        return this;
+    }
+
+    /**
+     * See: {@link EncryptionConfig#payloadKeyReuse}.
+     */
+    public JweConfigBuilder withPayloadKeyReuse(boolean payloadKeyReuse) {
+        this.payloadKeyReuse = payloadKeyReuse;
+        return this;
+    }
+
+    /**
+     * See: {@link EncryptionConfig#sessionKeyPolicy}.
+     */
+    public JweConfigBuilder withSessionKeyPolicy(SessionKeyPolicy sessionKeyPolicy) {
+        this.sessionKeyPolicy = sessionKeyPolicy;
+        return this;
+    }
+
+    /**
+     * See: {@link EncryptionConfig#keyPoolCapacity}.
+     */
+    public JweConfigBuilder withKeyPoolCapacity(int keyPoolCapacity) {
+        this.keyPoolCapacity = keyPoolCapacity;
+        return this;
+    }
+
+    /**
+     * See: {@link EncryptionConfig#parallelExecutor}.
+     */
+    public JweConfigBuilder withParallelExecutor(Executor parallelExecutor) {
+        this.parallelExecutor = parallelExecutor;
+        return this;
+    }
+
+    /**
+     * See: {@link EncryptionConfig#parallelThreshold}.
+     */
+    public JweConfigBuilder withParallelThreshold(int parallelThreshold) {
+        this.parallelThreshold = parallelThreshold;
+        return this;
+    }
+
+    /**
+     * See: {@link JweConfig#compressionThreshold}.
+     */
+    public JweConfigBuilder withCompressionThreshold(int compressionThreshold) {
+        this.compressionThreshold = compressionThreshold;
+        return this;
+    }
+
+    /**
+     * See: {@link JweConfig#maximumInflatedSize}.
+     */
+    public JweConfigBuilder withMaximumInflatedSize(int maximumInflatedSize) {
+        this.maximumInflatedSize = maximumInflatedSize;
+        return this;
+    }
+
+    private PublicKey getPublicKey() {
+        return encryptionKey != null ? encryptionKey : encryptionCertificate == null ? null : encryptionCertificate.getPublicKey();
+    }
+
+    private static boolean isAes256Key(SecretKey key) {
+        byte[] encoded = key.getEncoded();
+        return "AES".equalsIgnoreCase(key.getAlgorithm()) && encoded != null && encoded.length == 32;
+    }
+
     private void checkParameterValues() {
-        if (decryptionKey == null && encryptionCertificate == null && encryptionKey == null) {
+        if (decryptionKey == null && encryptionCertificate == null && encryptionKey == null
+                && contentEncryptionKey == null && keyEncryptionKey == null) {
             throw new IllegalArgumentException("You must include at least an encryption key/certificate or a decryption key");
         }
+
+        if (randomSource == null) {
+            throw new IllegalArgumentException("Random source cannot be null!");
+        }
+
+        if (parallelThreshold < 1) {
+            throw new IllegalArgumentException("Parallel threshold must be positive!");
+        }
+
+        if (keyPoolCapacity < 0) {
+            throw new IllegalArgumentException("Key pool capacity cannot be negative!");
+        }
+
+        if (keyPoolCapacity > 0 && sessionKeyPolicy != null) {
+            throw new IllegalArgumentException("A key pool can't be used with a session key policy!");
+        }
+
+        int encryptionKeyCount = (encryptionCertificate != null || encryptionKey != null ? 1 : 0)
+                + (contentEncryptionKey != null ? 1 : 0) + (keyEncryptionKey != null ? 1 : 0);
+        if (encryptionKeyCount > 1) {
+            throw new IllegalArgumentException("Only one of an encryption key/certificate, a content encryption key or a key encryption key can be used!");
+        }
+
+        if (contentEncryptionKey != null && !isAes256Key(contentEncryptionKey)) {
+            throw new IllegalArgumentException("The content encryption key must be a 256-bit AES key!");
+        }
+
+        if (keyEncryptionKey != null) {
+            if (!JweEncryption.AES_KEY_WRAP_ALGORITHM.equals(keyManagementAlgorithm) && !JweEncryption.AES_GCM_KEY_WRAP_ALGORITHM.equals(keyManagementAlgorithm)) {
+                throw new IllegalArgumentException(String.format("Unsupported key management algorithm: %s!", keyManagementAlgorithm));
+            }
+            if (!isAes256Key(keyEncryptionKey)) {
+                throw new IllegalArgumentException("The key encryption key must be a 256-bit AES key!");
+            }
+        }
+
+        PublicKey publicKey = getPublicKey();
+        if (publicKey != null && keyManagementAlgorithm != null) {
+            boolean supported = ECDH.isSupportedKey(publicKey)
+                    ? JweEncryption.ECDH_ES_ALGORITHM.equals(keyManagementAlgorithm) || JweEncryption.ECDH_ES_KEY_WRAP_ALGORITHM.equals(keyManagementAlgorithm)
+                    : JweEncryption.ALGORITHM.equals(keyManagementAlgorithm);
+            if (!supported) {
+                throw new IllegalArgumentException(String.format("Unsupported key management algorithm: %s!", keyManagementAlgorithm));
+            }
+        }
+
+        if (publicKey == null && keyEncryptionKey == null && keyManagementAlgorithm != null) {
+            // Decryption-only configurations with an EC key can accept "ECDH-ES+A256KW" instead of "ECDH-ES"
+            boolean ecdhDecryption = ECDH.isSupportedKey(decryptionKey)
+                    && (JweEncryption.ECDH_ES_ALGORITHM.equals(keyManagementAlgorithm) || JweEncryption.ECDH_ES_KEY_WRAP_ALGORITHM.equals(keyManagementAlgorithm));
+            if (!ecdhDecryption) {
+                throw new IllegalArgumentException("A key management algorithm requires an encryption key/certificate!");
+            }
+        }
+
+        if (compressionThreshold < 0) {
+            throw new IllegalArgumentException("Compression threshold cannot be negative!");
+        }
+
+        if (maximumInflatedSize < 1) {
+            throw new IllegalArgumentException("Maximum inflated size must be positive!");
+        }
     }
 
 }
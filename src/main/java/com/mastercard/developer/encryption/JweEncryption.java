@@ -5,8 +5,13 @@ import com.jayway.jsonpath.JsonPath;
 import com.mastercard.developer.encryption.jwe.JweHeader;
 import com.mastercard.developer.encryption.jwe.JweObject;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.security.GeneralSecurityException;
-import java.util.Map;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
 
 import static com.mastercard.developer.encryption.JsonParser.*;
 import static com.mastercard.developer.utils.EncryptionUtils.sanitizeJson;
@@ -17,131 +22,270 @@ public class JweEncryption {
         // Nothing to do here
     }
 
-    private static final String ALGORITHM = "RSA-OAEP-256";
-    private static final String ENCRYPTION = "A256GCM";
-    private static final String CONTENT_TYPE = "application/json";
+    static final String ALGORITHM = "RSA-OAEP-256";
+    static final String DIRECT_ALGORITHM = "dir";
+    static final String AES_KEY_WRAP_ALGORITHM = "A256KW";
+    static final String AES_GCM_KEY_WRAP_ALGORITHM = "A256GCMKW";
+    static final String ECDH_ES_ALGORITHM = "ECDH-ES";
+    static final String ECDH_ES_KEY_WRAP_ALGORITHM = "ECDH-ES+A256KW";
+    static final String ENCRYPTION = "A256GCM";
+    static final String CONTENT_TYPE = "application/json";
 
     public static String encryptPayload(String payload, JweConfig config) throws EncryptionException {
+        return config.getEncryptor().encrypt(payload);
+    }
+
+    /**
+     * Encrypt a UTF-8 encoded payload, without decoding it to a string first.
+     */
+    public static byte[] encryptPayload(byte[] payload, JweConfig config) throws EncryptionException {
+        return config.getEncryptor().encrypt(payload);
+    }
+
+    public static ByteBuffer encryptPayload(ByteBuffer payload, JweConfig config) throws EncryptionException {
+        return config.getEncryptor().encrypt(payload);
+    }
+
+    static DocumentContext encryptPayload(Supplier<DocumentContext> payload, JweConfig config, JweHeader header,
+                                          PayloadProcessor processor, PayloadKeys keys) throws EncryptionException {
         try {
             // Parse the given payload
-            DocumentContext payloadContext = JsonPath.parse(payload, JsonParser.jsonPathConfig);
+            DocumentContext payloadContext = payload.get();
 
             // Perform encryption
-            for (Map.Entry<String, String> entry : config.getEncryptionPaths().entrySet()) {
-                String jsonPathIn = entry.getKey();
-                String jsonPathOut = entry.getValue();
-                if(!jsonPathIn.contains("[*]")){
-                    payloadContext = encryptPayloadPath(payloadContext, jsonPathIn, jsonPathOut, config);
-                }else {
-                    String getFieldLength = jsonPathIn.split("\\[.*?\\]")[0].concat(".length()");
-                    Integer length = JsonPath.read(payload, getFieldLength);
-                    for (Integer i = 0; i < length; i++) {
-                        String newJsonPathIn = jsonPathIn.replace("*", i.toString());
-                        String newJsonPathOut = jsonPathOut.replace("*", i.toString());
-                        payloadContext = encryptPayloadPath(payloadContext, newJsonPathIn, newJsonPathOut, config);
-                    }
-                }
-            }
-
-            // Return the updated payload
-            return payloadContext.jsonString();
+            return processor.applyPlans(payloadContext, (context, plans) -> encryptPayloadPaths(context, plans, config, header, keys));
         } catch (Exception e) {
             throw new EncryptionException("Payload encryption failed!", e);
         }
     }
 
     public static String decryptPayload(String payload, JweConfig config) throws EncryptionException {
+        return config.getDecryptor().decrypt(payload);
+    }
+
+    /**
+     * Decrypt a UTF-8 encoded payload, without decoding it to a string first.
+     */
+    public static byte[] decryptPayload(byte[] payload, JweConfig config) throws EncryptionException {
+        return config.getDecryptor().decrypt(payload);
+    }
+
+    public static ByteBuffer decryptPayload(ByteBuffer payload, JweConfig config) throws EncryptionException {
+        return config.getDecryptor().decrypt(payload);
+    }
+
+    static DocumentContext decryptPayload(Supplier<DocumentContext> payload, JweConfig config,
+                                          PayloadProcessor processor, PayloadKeys keys) throws EncryptionException {
         try {
             // Parse the given payload
-            DocumentContext payloadContext = JsonPath.parse(payload, JsonParser.jsonPathConfig);
+            DocumentContext payloadContext = payload.get();
 
             // Perform decryption
-            for (Map.Entry<String, String> entry : config.getDecryptionPaths().entrySet()) {
-                String jsonPathIn = entry.getKey();
-                String jsonPathOut = entry.getValue();
-                if(!jsonPathIn.contains("[*]")){
-                    payloadContext = decryptPayloadPath(payloadContext, jsonPathIn, jsonPathOut, config);
-                }else {
-                    String getFieldLength = jsonPathIn.split("\\[.*?\\]")[0].concat(".length()");
-                    Integer length = JsonPath.read(payload, getFieldLength);
-                    for (Integer i = 0; i < length; i++) {
-                        String newJsonPathIn = jsonPathIn.replace("*", i.toString());
-                        String newJsonPathOut = jsonPathOut.replace("*", i.toString());
-                        payloadContext = decryptPayloadPath(payloadContext, newJsonPathIn, newJsonPathOut, config);
-                    }
-                }
+            return processor.applyPlans(payloadContext, (context, plans) -> decryptPayloadPaths(context, plans, config, keys));
+        } catch (Exception e) {
+            throw new EncryptionException("Payload decryption failed!", e);
+        }
+    }
+
+    // Whole payloads ("$" to "$" for encryption, a top-level field to "$" for decryption) are handled as bytes:
+    // the plaintext is encrypted as received and the decrypted plaintext is returned as is. The methods below return
+    // null for the payloads to go through the regular path.
+
+    /**
+     * Whether payloads are encrypted whole ("$" to "$"), in which case they are encrypted without being parsed.
+     */
+    static boolean isWholeBodyEncryption(List<JsonPathPlan> plans, String encryptedValueFieldName) {
+        if (plans.size() != 1 || !plans.get(0).isInRoot() || !plans.get(0).isOutRoot()) {
+            return false;
+        }
+        // The field name is written as is
+        for (int i = 0; i < encryptedValueFieldName.length(); i++) {
+            char c = encryptedValueFieldName.charAt(i);
+            if (c == '"' || c == '\\' || c < ' ') {
+                return false;
             }
+        }
+        return true;
+    }
+
+    /**
+     * The top-level field holding the encrypted value when payloads are decrypted whole (to "$"), in which case
+     * the value is found without parsing the payload. Null otherwise.
+     */
+    static String findWholeBodyDecryptionField(List<JsonPathPlan> plans) {
+        if (plans.size() != 1 || plans.get(0).hasWildcard() || !plans.get(0).isOutRoot()) {
+            return null;
+        }
+        return plans.get(0).getCompiledInPath().getTopLevelPropertyName();
+    }
+
+    static byte[] encryptWholeBody(byte[] payload, int offset, int length, JweConfig config, JweHeader header, PayloadKeys keys) throws EncryptionException {
+        if (!JsonParser.isJsonObjectOrArray(payload, offset, length)) {
+            return null;
+        }
+        try {
+            String encryptedValue = JweObject.encrypt(config, sanitizeJsonBytes(payload, offset, length), header, keys.nextContentKey());
+            return ("{\"" + config.encryptedValueFieldName + "\":\"" + encryptedValue + "\"}").getBytes(StandardCharsets.UTF_8);
+        } catch (Exception e) {
+            throw new EncryptionException("Payload encryption failed!", e);
+        }
+    }
 
-            // Return the updated payload
-            return payloadContext.jsonString();
+    static byte[] decryptWholeBody(byte[] payload, int offset, int length, JweConfig config, String wholeBodyDecryptionField, PayloadKeys keys) throws EncryptionException {
+        String encryptedValue = JsonParser.readTopLevelString(payload, offset, length, wholeBodyDecryptionField);
+        if (encryptedValue == null || encryptedValue.isEmpty()) {
+            return null;
+        }
+        try {
+            JweObject jweObject = JweObject.parse(encryptedValue, config.jsonEngine);
+            return jweObject.decryptBytes(config, keys.unwrapSecretKey(jweObject));
         } catch (Exception e) {
             throw new EncryptionException("Payload decryption failed!", e);
         }
     }
 
-    private static DocumentContext encryptPayloadPath(DocumentContext payloadContext, String jsonPathIn, String jsonPathOut, JweConfig config) throws EncryptionException, GeneralSecurityException {
-        Object inJsonElement = readJsonElement(payloadContext, jsonPathIn);
-        if (inJsonElement == null) {
+    /**
+     * Same as {@link com.mastercard.developer.utils.EncryptionUtils#sanitizeJson(String)}, for UTF-8 encoded JSON.
+     */
+    private static byte[] sanitizeJsonBytes(byte[] json, int offset, int length) {
+        byte[] sanitized = new byte[length];
+        int sanitizedLength = 0;
+        for (int i = offset; i < offset + length; i++) {
+            byte b = json[i];
+            if (b != '\n' && b != '\r' && b != '\t') {
+                sanitized[sanitizedLength++] = b;
+            }
+        }
+        return sanitizedLength == length ? sanitized : Arrays.copyOf(sanitized, sanitizedLength);
+    }
+
+    private static DocumentContext encryptPayloadPaths(DocumentContext payloadContext, List<JsonPathPlan> plans, JweConfig config, JweHeader header, PayloadKeys keys) throws EncryptionException, GeneralSecurityException {
+        if (!ParallelCrypto.isEnabled(config, plans.size())) {
+            for (JsonPathPlan plan : plans) {
+                payloadContext = encryptPayloadPath(payloadContext, plan, config, header, keys);
+            }
+            return payloadContext;
+        }
+
+        // Values are read in order, encrypted concurrently, then written back in order
+        List<String> values = new ArrayList<>(plans.size());
+        for (JsonPathPlan plan : plans) {
+            values.add(readValueToEncrypt(payloadContext, plan, config));
+        }
+        List<String> encryptedValues = ParallelCrypto.map(config, values, value -> encryptValue(value, config, header, keys));
+        for (int i = 0; i < plans.size(); i++) {
+            if (encryptedValues.get(i) != null) {
+                payloadContext = writeEncryptedValue(payloadContext, plans.get(i), config, encryptedValues.get(i));
+            }
+        }
+        return payloadContext;
+    }
+
+    static DocumentContext encryptPayloadPath(DocumentContext payloadContext, JsonPathPlan plan, JweConfig config, JweHeader header, PayloadKeys keys) throws EncryptionException, GeneralSecurityException {
+        String inJsonString = readValueToEncrypt(payloadContext, plan, config);
+        if (inJsonString == null) {
             // Nothing to encrypt
             return payloadContext;
         }
+        return writeEncryptedValue(payloadContext, plan, config, encryptValue(inJsonString, config, header, keys));
+    }
 
-        String inJsonString = sanitizeJson(jsonEngine.toJsonString(inJsonElement));
-        JweHeader myHeader = new JweHeader(ALGORITHM, ENCRYPTION, config.encryptionKeyFingerprint, CONTENT_TYPE);
-        String payload = JweObject.encrypt(config, inJsonString, myHeader);
+    private static String encryptValue(String inJsonString, JweConfig config, JweHeader header, PayloadKeys keys) throws EncryptionException, GeneralSecurityException {
+        return JweObject.encrypt(config, inJsonString.getBytes(StandardCharsets.UTF_8), header, keys.nextContentKey());
+    }
+
+    private static String readValueToEncrypt(DocumentContext payloadContext, JsonPathPlan plan, JweConfig config) {
+        Object inJsonElement = readJsonElement(payloadContext, plan.getCompiledInPath());
+        return inJsonElement == null ? null : sanitizeJson(config.jsonEngine.toJsonString(inJsonElement));
+    }
 
+    private static DocumentContext writeEncryptedValue(DocumentContext payloadContext, JsonPathPlan plan, JweConfig config, String payload) {
         // Delete data in clear
-        if (!"$".equals(jsonPathIn)) {
-            JsonParser.deleteIfExists(payloadContext, jsonPathIn);
+        if (!plan.isInRoot()) {
+            JsonParser.deleteIfExists(payloadContext, plan.getCompiledInPath());
         } else {
             // We can't reuse the same DocumentContext. We have to create a new DocumentContext
             // with the appropriate internal representation (JSON object).
-            payloadContext = JsonPath.parse("{}", JsonParser.jsonPathConfig);
+            payloadContext = JsonPath.parse("{}", config.jsonPathConfig);
         }
 
         // Add encrypted data and encryption fields at the given JSON path
-        checkOrCreateOutObject(payloadContext, jsonPathOut);
-        payloadContext.put(jsonPathOut, config.encryptedValueFieldName, payload);
+        checkOrCreateOutObject(payloadContext, plan, config.jsonEngine);
+        JsonParser.put(payloadContext, plan.getCompiledOutPath(), config.encryptedValueFieldName, payload);
         return payloadContext;
     }
 
-    private static DocumentContext decryptPayloadPath(DocumentContext payloadContext, String jsonPathIn, String jsonPathOut, JweConfig config) throws EncryptionException, GeneralSecurityException {
+    private static DocumentContext decryptPayloadPaths(DocumentContext payloadContext, List<JsonPathPlan> plans, JweConfig config, PayloadKeys keys) throws EncryptionException, GeneralSecurityException {
+        if (!ParallelCrypto.isEnabled(config, plans.size())) {
+            for (JsonPathPlan plan : plans) {
+                payloadContext = decryptPayloadPath(payloadContext, plan, config, keys);
+            }
+            return payloadContext;
+        }
+
+        // Values are read in order, decrypted concurrently, then written back in order
+        List<JweObject> jweObjects = new ArrayList<>(plans.size());
+        for (JsonPathPlan plan : plans) {
+            jweObjects.add(readValueToDecrypt(payloadContext, plan, config));
+        }
+        List<byte[]> decryptedValues = ParallelCrypto.map(config, jweObjects, jweObject -> jweObject.decryptBytes(config, keys.unwrapSecretKey(jweObject)));
+        for (int i = 0; i < plans.size(); i++) {
+            if (decryptedValues.get(i) != null) {
+                payloadContext = writeDecryptedValue(payloadContext, plans.get(i), config, decryptedValues.get(i));
+            }
+        }
+        return payloadContext;
+    }
 
-        Object inJsonObject = readJsonObject(payloadContext, jsonPathIn);
-        if (inJsonObject == null) {
+    static DocumentContext decryptPayloadPath(DocumentContext payloadContext, JsonPathPlan plan, JweConfig config, PayloadKeys keys) throws EncryptionException, GeneralSecurityException {
+        JweObject jweObject = readValueToDecrypt(payloadContext, plan, config);
+        if (jweObject == null) {
             // Nothing to decrypt
             return payloadContext;
         }
+        return writeDecryptedValue(payloadContext, plan, config, jweObject.decryptBytes(config, keys.unwrapSecretKey(jweObject)));
+    }
+
+    private static JweObject readValueToDecrypt(DocumentContext payloadContext, JsonPathPlan plan, JweConfig config) {
+        Object inJsonObject = readJsonElement(payloadContext, plan.getCompiledInPath());
+        if (inJsonObject == null) {
+            return null;
+        }
 
         // Read and remove encrypted data and encryption fields at the given JSON path
         Object encryptedValueJsonElement = readAndDeleteJsonKey(payloadContext, inJsonObject, config.encryptedValueFieldName);
-        if (jsonEngine.isNullOrEmptyJson(encryptedValueJsonElement)) {
-            // Nothing to decrypt
-            return payloadContext;
+        if (config.jsonEngine.isNullOrEmptyJson(encryptedValueJsonElement)) {
+            return null;
         }
 
-        String encryptedValue = jsonEngine.toJsonString(encryptedValueJsonElement).replace("\"", "");
-        JweObject jweObject = JweObject.parse(encryptedValue, jsonEngine);
-        String decryptedValue = jweObject.decrypt(config);
+        String encryptedValue = config.jsonEngine.toJsonString(encryptedValueJsonElement).replace("\"", "");
+        JweObject jweObject = JweObject.parse(encryptedValue, config.jsonEngine);
+        // Headers are parsed here rather than by the threads decrypting
+        jweObject.getHeader();
+        return jweObject;
+    }
 
+    private static DocumentContext writeDecryptedValue(DocumentContext payloadContext, JsonPathPlan plan, JweConfig config, byte[] decryptedValue) {
         // Add decrypted data at the given JSON path
-        if ("$".equals(jsonPathOut)) {
+        if (plan.isOutRoot()) {
             // We can't reuse the same DocumentContext. We have to create a new DocumentContext
             // with the appropriate internal representation (JSON object or JSON array).
-            payloadContext = JsonPath.parse(decryptedValue, JsonParser.jsonPathConfig);
+            payloadContext = JsonParser.parse(decryptedValue, config.jsonPathConfig);
         } else {
-            checkOrCreateOutObject(payloadContext, jsonPathOut);
-            JsonParser.addDecryptedDataToPayload(payloadContext, decryptedValue, jsonPathOut);
+            checkOrCreateOutObject(payloadContext, plan, config.jsonEngine);
+            JsonParser.addDecryptedDataToPayload(payloadContext, new String(decryptedValue, StandardCharsets.UTF_8), plan, config.jsonEngine);
         }
 
         // Remove the input
-        JsonParser.deleteIfExists(payloadContext, jsonPathIn);
+        JsonParser.deleteIfExists(payloadContext, plan.getCompiledInPath());
 
-        //Strip the parent node if empty
-        String jsonPathInStripped = jsonPathIn.replaceAll("." + config.getEncryptedValueFieldName() + "$", "");
-        Object inJsonObjectStripped = readJsonObject(payloadContext, jsonPathIn);
-        if (!jsonPathInStripped.equals("$") && !jsonPathInStripped.contains("[") && inJsonObjectStripped == null) {
-            JsonParser.deleteIfExists(payloadContext, jsonPathInStripped);
+        //Strip the parent node if empty (array items are kept)
+        if (!plan.isArrayItem()) {
+            String jsonPathInStripped = stripEncryptedValueFieldName(plan.getInPath(), config.getEncryptedValueFieldName());
+            Object inJsonObjectStripped = readJsonElement(payloadContext, plan.getCompiledInPath());
+            if (!jsonPathInStripped.equals("$") && !jsonPathInStripped.contains("[") && inJsonObjectStripped == null) {
+                JsonParser.deleteIfExists(payloadContext, jsonPathInStripped);
+            }
         }
 
         return payloadContext;
@@ -152,7 +296,11 @@ public class JweEncryption {
         return object;
     }
 
-    private static Object readJsonObject(DocumentContext context, String jsonPathString) {
-        return readJsonElement(context, jsonPathString);
+    private static String stripEncryptedValueFieldName(String jsonPath, String encryptedValueFieldName) {
+        int suffixStart = jsonPath.length() - encryptedValueFieldName.length() - 1;
+        if (suffixStart >= 0 && jsonPath.endsWith(encryptedValueFieldName)) {
+            return jsonPath.substring(0, suffixStart);
+        }
+        return jsonPath;
     }
 }
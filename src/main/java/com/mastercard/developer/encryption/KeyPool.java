@@ -0,0 +1,123 @@
+package com.mastercard.developer.encryption;
+
+import java.security.GeneralSecurityException;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A bounded pool of ready-to-use, single-use keys (a secret key, its wrapped form and an IV for field level
+ * encryption, a content encryption key and its encrypted form for JWE), generated ahead of time so that
+ * request threads don't have to.
+ * The pool is refilled on the parallel executor of the configuration (or on the common pool) once less than half
+ * full. When empty, keys are generated on the request thread and the starvation count is incremented.
+ * Lock-free and thread safe.
+ */
+public final class KeyPool<K> {
+
+    private final int capacity;
+    private final SessionKeys.KeyGenerator<K> generator;
+    private final Executor executor;
+    private final Queue<K> keys = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final AtomicBoolean refilling = new AtomicBoolean();
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong starvationCount = new AtomicLong();
+    private final AtomicLong failureCount = new AtomicLong();
+
+    KeyPool(int capacity, SessionKeys.KeyGenerator<K> generator, Executor executor) {
+        this.capacity = capacity;
+        this.generator = generator;
+        this.executor = executor != null ? executor : ForkJoinPool.commonPool();
+    }
+
+    /**
+     * Take a key from the pool, or return null when the pool is empty.
+     */
+    K poll() {
+        K key = keys.poll();
+        if (key == null) {
+            starvationCount.incrementAndGet();
+        } else {
+            size.decrementAndGet();
+            hitCount.incrementAndGet();
+        }
+        if (size.get() <= capacity / 2) {
+            refill();
+        }
+        return key;
+    }
+
+    /**
+     * Take a key from the pool, or generate one on the calling thread when the pool is empty.
+     */
+    K take() throws GeneralSecurityException, EncryptionException {
+        K key = poll();
+        return key != null ? key : generator.generate();
+    }
+
+    /**
+     * Start filling the pool in the background, unless already in progress.
+     */
+    void refill() {
+        if (!refilling.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            executor.execute(this::fill);
+        } catch (RejectedExecutionException e) {
+            refilling.set(false);
+        }
+    }
+
+    private void fill() {
+        try {
+            while (size.get() < capacity) {
+                keys.offer(generator.generate());
+                size.incrementAndGet();
+            }
+        } catch (GeneralSecurityException | EncryptionException | RuntimeException e) {
+            // Keys will be generated on request threads until the next refill
+            failureCount.incrementAndGet();
+        } finally {
+            refilling.set(false);
+        }
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * The number of keys ready to be used.
+     */
+    public int size() {
+        return size.get();
+    }
+
+    /**
+     * The number of keys taken from the pool.
+     */
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    /**
+     * The number of keys requested while the pool was empty.
+     */
+    public long getStarvationCount() {
+        return starvationCount.get();
+    }
+
+    /**
+     * The number of background refills stopped by a key generation failure.
+     */
+    public long getFailureCount() {
+        return failureCount.get();
+    }
+}
@@ -0,0 +1,69 @@
+package com.mastercard.developer.encryption;
+
+import java.security.GeneralSecurityException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Runs the cryptographic work for independent JSON elements on the executor of the configuration.
+ * Documents are never touched from other threads: values are read before and written back after, in order.
+ */
+final class ParallelCrypto {
+
+    private ParallelCrypto() {
+        // Nothing to do here
+    }
+
+    interface CryptoFunction<T, R> {
+        R apply(T value) throws GeneralSecurityException, EncryptionException;
+    }
+
+    /**
+     * Whether the given number of elements is worth splitting between threads.
+     */
+    static boolean isEnabled(EncryptionConfig config, int elementCount) {
+        return config.getParallelExecutor() != null && elementCount > 1 && elementCount >= config.getParallelThreshold();
+    }
+
+    /**
+     * Apply the function to each value concurrently, and return the results in the same order as the values.
+     * Null values are mapped to null.
+     */
+    static <T, R> List<R> map(EncryptionConfig config, List<T> values, CryptoFunction<T, R> function) throws GeneralSecurityException, EncryptionException {
+        List<CompletableFuture<R>> futures = new ArrayList<>(values.size());
+        for (T value : values) {
+            futures.add(value == null ? CompletableFuture.completedFuture(null) : CompletableFuture.supplyAsync(() -> {
+                try {
+                    return function.apply(value);
+                } catch (GeneralSecurityException | EncryptionException e) {
+                    throw new CompletionException(e);
+                }
+            }, config.getParallelExecutor()));
+        }
+        List<R> results = new ArrayList<>(values.size());
+        try {
+            for (CompletableFuture<R> future : futures) {
+                results.add(future.join());
+            }
+        } catch (CompletionException e) {
+            futures.forEach(future -> future.cancel(false));
+            Throwable cause = e.getCause();
+            if (cause instanceof GeneralSecurityException) {
+                throw (GeneralSecurityException) cause;
+            }
+            if (cause instanceof EncryptionException) {
+                throw (EncryptionException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+        return results;
+    }
+}
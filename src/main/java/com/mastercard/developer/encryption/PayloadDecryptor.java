@@ -0,0 +1,65 @@
+package com.mastercard.developer.encryption;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Decrypts payloads according to a {@link FieldLevelEncryptionConfig} or a {@link JweConfig}.
+ * Path plans and everything else that only depends on the configuration are computed once, when the instance
+ * is created. Instances are thread safe and are meant to be created once per configuration and shared
+ * (the static methods of {@link FieldLevelEncryption} and {@link JweEncryption} use an instance built with the configuration).
+ */
+public final class PayloadDecryptor {
+
+    private final PayloadProcessor processor;
+
+    public PayloadDecryptor(EncryptionConfig config) {
+        this.processor = PayloadProcessor.forDecryption(config);
+    }
+
+    public EncryptionConfig getConfig() {
+        return processor.getConfig();
+    }
+
+    public String decrypt(String payload) throws EncryptionException {
+        return processor.process(payload, null);
+    }
+
+    /**
+     * @param params The {@link FieldLevelEncryptionParams} to use when they are read from HTTP headers, null otherwise
+     */
+    public String decrypt(String payload, Object params) throws EncryptionException {
+        return processor.process(payload, params);
+    }
+
+    /**
+     * Decrypt a UTF-8 encoded payload, without decoding it to a string first.
+     */
+    public byte[] decrypt(byte[] payload) throws EncryptionException {
+        return processor.process(payload, null);
+    }
+
+    public byte[] decrypt(byte[] payload, Object params) throws EncryptionException {
+        return processor.process(payload, params);
+    }
+
+    public ByteBuffer decrypt(ByteBuffer payload) throws EncryptionException {
+        return processor.process(payload, null);
+    }
+
+    public ByteBuffer decrypt(ByteBuffer payload, Object params) throws EncryptionException {
+        return processor.process(payload, params);
+    }
+
+    /**
+     * Decrypt a UTF-8 encoded payload from a stream. See: {@link StreamingEncryption}.
+     */
+    public void decrypt(InputStream payload, OutputStream decryptedPayload) throws EncryptionException {
+        processor.process(payload, decryptedPayload, null);
+    }
+
+    public void decrypt(InputStream payload, OutputStream decryptedPayload, Object params) throws EncryptionException {
+        processor.process(payload, decryptedPayload, params);
+    }
+}
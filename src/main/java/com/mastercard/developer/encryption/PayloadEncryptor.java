@@ -0,0 +1,65 @@
+package com.mastercard.developer.encryption;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Encrypts payloads according to a {@link FieldLevelEncryptionConfig} or a {@link JweConfig}.
+ * Path plans and everything else that only depends on the configuration are computed once, when the instance
+ * is created. Instances are thread safe and are meant to be created once per configuration and shared
+ * (the static methods of {@link FieldLevelEncryption} and {@link JweEncryption} use an instance built with the configuration).
+ */
+public final class PayloadEncryptor {
+
+    private final PayloadProcessor processor;
+
+    public PayloadEncryptor(EncryptionConfig config) {
+        this.processor = PayloadProcessor.forEncryption(config);
+    }
+
+    public EncryptionConfig getConfig() {
+        return processor.getConfig();
+    }
+
+    public String encrypt(String payload) throws EncryptionException {
+        return processor.process(payload, null);
+    }
+
+    /**
+     * @param params The {@link FieldLevelEncryptionParams} to use when they are written to HTTP headers, null otherwise
+     */
+    public String encrypt(String payload, Object params) throws EncryptionException {
+        return processor.process(payload, params);
+    }
+
+    /**
+     * Encrypt a UTF-8 encoded payload, without decoding it to a string first.
+     */
+    public byte[] encrypt(byte[] payload) throws EncryptionException {
+        return processor.process(payload, null);
+    }
+
+    public byte[] encrypt(byte[] payload, Object params) throws EncryptionException {
+        return processor.process(payload, params);
+    }
+
+    public ByteBuffer encrypt(ByteBuffer payload) throws EncryptionException {
+        return processor.process(payload, null);
+    }
+
+    public ByteBuffer encrypt(ByteBuffer payload, Object params) throws EncryptionException {
+        return processor.process(payload, params);
+    }
+
+    /**
+     * Encrypt a UTF-8 encoded payload from a stream. See: {@link StreamingEncryption}.
+     */
+    public void encrypt(InputStream payload, OutputStream encryptedPayload) throws EncryptionException {
+        processor.process(payload, encryptedPayload, null);
+    }
+
+    public void encrypt(InputStream payload, OutputStream encryptedPayload, Object params) throws EncryptionException {
+        processor.process(payload, encryptedPayload, params);
+    }
+}
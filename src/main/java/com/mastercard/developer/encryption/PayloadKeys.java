@@ -0,0 +1,108 @@
+package com.mastercard.developer.encryption;
+
+import com.mastercard.developer.encryption.jwe.JweObject;
+
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The keys of one payload. When {@link EncryptionConfig#payloadKeyReuse} is set, a single key is generated
+ * and wrapped for all the fields of the payload. When decrypting, a wrapped key found several times in the
+ * payload is unwrapped once.
+ * Thread safe, so that fields can be processed concurrently.
+ */
+final class PayloadKeys {
+
+    private final EncryptionConfig config;
+    private FieldLevelEncryptionParams sharedParams;
+    private JweObject.ContentKey sharedContentKey;
+    private final Map<String, FieldLevelEncryptionParams> decryptionParams = new HashMap<>();
+    private final Map<String, UnwrappedKey> unwrappedKeys = new HashMap<>();
+
+    PayloadKeys(EncryptionConfig config) {
+        this.config = config;
+    }
+
+    /**
+     * Params for encrypting the next field: new params, or the shared key with a new IV.
+     */
+    FieldLevelEncryptionParams nextParams() throws EncryptionException {
+        FieldLevelEncryptionConfig fleConfig = (FieldLevelEncryptionConfig) config;
+        if (!config.payloadKeyReuse) {
+            return FieldLevelEncryptionParams.generate(fleConfig);
+        }
+        synchronized (this) {
+            if (sharedParams == null) {
+                sharedParams = FieldLevelEncryptionParams.generate(fleConfig);
+                return sharedParams;
+            }
+            return sharedParams.withNewIv();
+        }
+    }
+
+    /**
+     * Params for decrypting a field, sharing the secret key of the fields with the same wrapped key.
+     */
+    synchronized FieldLevelEncryptionParams decryptionParams(String ivValue, String encryptedKeyValue, String oaepPaddingDigestAlgorithm) {
+        String cacheKey = oaepPaddingDigestAlgorithm + ':' + encryptedKeyValue;
+        FieldLevelEncryptionParams knownParams = decryptionParams.get(cacheKey);
+        if (knownParams != null) {
+            return knownParams.withIv(ivValue);
+        }
+        FieldLevelEncryptionParams params = new FieldLevelEncryptionParams(ivValue, encryptedKeyValue, oaepPaddingDigestAlgorithm, (FieldLevelEncryptionConfig) config);
+        decryptionParams.put(cacheKey, params);
+        return params;
+    }
+
+    /**
+     * The content encryption key for the next JWE field.
+     */
+    JweObject.ContentKey nextContentKey() throws EncryptionException, GeneralSecurityException {
+        JweConfig jweConfig = (JweConfig) config;
+        if (jweConfig.sessionKeys != null) {
+            return jweConfig.sessionKeys.acquire();
+        }
+        if (!config.payloadKeyReuse) {
+            return newContentKey(jweConfig);
+        }
+        synchronized (this) {
+            if (sharedContentKey == null) {
+                sharedContentKey = newContentKey(jweConfig);
+            }
+            return sharedContentKey;
+        }
+    }
+
+    private static JweObject.ContentKey newContentKey(JweConfig config) throws EncryptionException, GeneralSecurityException {
+        return config.keyPool != null ? config.keyPool.take() : JweObject.ContentKey.generate(config);
+    }
+
+    /**
+     * The content encryption key of a JWE field, unwrapped once per distinct wrapped key.
+     */
+    Key unwrapSecretKey(JweObject jweObject) throws EncryptionException, GeneralSecurityException {
+        UnwrappedKey unwrappedKey;
+        synchronized (this) {
+            unwrappedKey = unwrappedKeys.computeIfAbsent(jweObject.getEncryptedKey(), encryptedKey -> new UnwrappedKey(jweObject));
+        }
+        return unwrappedKey.get((JweConfig) config);
+    }
+
+    private static final class UnwrappedKey {
+        private final JweObject jweObject;
+        private Key key;
+
+        private UnwrappedKey(JweObject jweObject) {
+            this.jweObject = jweObject;
+        }
+
+        private synchronized Key get(JweConfig config) throws EncryptionException, GeneralSecurityException {
+            if (key == null) {
+                key = jweObject.unwrapSecretKey(config);
+            }
+            return key;
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.mastercard.developer.encryption;
+
+import com.jayway.jsonpath.DocumentContext;
+
+import java.util.function.Supplier;
+
+/**
+ * An encryption or a decryption of parsed payloads, bound to a configuration.
+ */
+interface PayloadOperation {
+    DocumentContext apply(Supplier<DocumentContext> payload, PayloadProcessor processor, Object params, PayloadKeys keys) throws EncryptionException;
+}
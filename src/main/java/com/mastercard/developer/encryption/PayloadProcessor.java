@@ -0,0 +1,170 @@
+package com.mastercard.developer.encryption;
+
+import com.jayway.jsonpath.DocumentContext;
+import com.jayway.jsonpath.JsonPath;
+import com.mastercard.developer.encryption.jwe.JweHeader;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.List;
+
+/**
+ * The state and the dispatch shared by {@link PayloadEncryptor} and {@link PayloadDecryptor}: the compiled path
+ * plans, their batches, the streaming layout and the whole payload fast path are all computed once, when the
+ * instance is created. Thread safe.
+ */
+final class PayloadProcessor {
+
+    /**
+     * Encrypts or decrypts the values at the given plans (without wildcard) of a parsed payload.
+     */
+    interface PlansOperation {
+        DocumentContext apply(DocumentContext payloadContext, List<JsonPathPlan> plans) throws GeneralSecurityException, EncryptionException;
+    }
+
+    /**
+     * Encrypts or decrypts a whole UTF-8 encoded payload without parsing it. Returns null for the payloads
+     * to go through the regular path.
+     */
+    interface WholeBodyOperation {
+        byte[] apply(byte[] payload, int offset, int length, PayloadKeys keys) throws EncryptionException;
+    }
+
+    private final EncryptionConfig config;
+    private final boolean encrypt;
+    private final List<JsonPathPlan> plans;
+    private final List<List<JsonPathPlan>> planBatches;
+    // Null when the paths can't be streamed
+    private final StreamingEncryption.Layout streamingLayout;
+    private final PayloadOperation operation;
+    // Null when payloads can't be handled whole
+    private final WholeBodyOperation wholeBodyOperation;
+    private final boolean paramsSupported;
+
+    private PayloadProcessor(EncryptionConfig config, boolean encrypt, List<JsonPathPlan> plans,
+                             PayloadOperation operation, WholeBodyOperation wholeBodyOperation) {
+        this.config = config;
+        this.encrypt = encrypt;
+        this.plans = plans;
+        this.planBatches = JsonPathPlan.batchIndependent(plans);
+        this.streamingLayout = StreamingEncryption.Layout.tryCreate(plans);
+        this.operation = operation;
+        this.wholeBodyOperation = wholeBodyOperation;
+        // Encryption params only exist with field level encryption
+        this.paramsSupported = config.getScheme() != EncryptionConfig.Scheme.JWE;
+    }
+
+    static PayloadProcessor forEncryption(EncryptionConfig config) {
+        List<JsonPathPlan> plans = JsonPathPlan.compile(config.getEncryptionPaths());
+        if (config.getScheme() == EncryptionConfig.Scheme.JWE) {
+            JweConfig jweConfig = (JweConfig) config;
+            JweHeader header = jweConfig.getJweHeader();
+            WholeBodyOperation wholeBodyOperation = JweEncryption.isWholeBodyEncryption(plans, config.getEncryptedValueFieldName())
+                    ? (payload, offset, length, keys) -> JweEncryption.encryptWholeBody(payload, offset, length, jweConfig, header, keys) : null;
+            return new PayloadProcessor(config, true, plans,
+                    (payload, processor, params, keys) -> JweEncryption.encryptPayload(payload, jweConfig, header, processor, keys), wholeBodyOperation);
+        }
+        FieldLevelEncryptionConfig fleConfig = (FieldLevelEncryptionConfig) config;
+        return new PayloadProcessor(config, true, plans,
+                (payload, processor, params, keys) -> FieldLevelEncryption.encryptPayload(payload.get(), fleConfig, (FieldLevelEncryptionParams) params, processor, keys), null);
+    }
+
+    static PayloadProcessor forDecryption(EncryptionConfig config) {
+        List<JsonPathPlan> plans = JsonPathPlan.compile(config.getDecryptionPaths());
+        if (config.getScheme() == EncryptionConfig.Scheme.JWE) {
+            JweConfig jweConfig = (JweConfig) config;
+            String wholeBodyField = JweEncryption.findWholeBodyDecryptionField(plans);
+            WholeBodyOperation wholeBodyOperation = wholeBodyField != null
+                    ? (payload, offset, length, keys) -> JweEncryption.decryptWholeBody(payload, offset, length, jweConfig, wholeBodyField, keys) : null;
+            return new PayloadProcessor(config, false, plans,
+                    (payload, processor, params, keys) -> JweEncryption.decryptPayload(payload, jweConfig, processor, keys), wholeBodyOperation);
+        }
+        FieldLevelEncryptionConfig fleConfig = (FieldLevelEncryptionConfig) config;
+        return new PayloadProcessor(config, false, plans,
+                (payload, processor, params, keys) -> FieldLevelEncryption.decryptPayload(payload.get(), fleConfig, (FieldLevelEncryptionParams) params, processor, keys), null);
+    }
+
+    EncryptionConfig getConfig() {
+        return config;
+    }
+
+    /**
+     * Apply the operation to the plans of a parsed payload: one plan after the other, or one batch of independent
+     * plans at a time when a parallel executor is set (see {@link EncryptionConfig#parallelExecutor}).
+     */
+    DocumentContext applyPlans(DocumentContext payloadContext, PlansOperation plansOperation) throws GeneralSecurityException, EncryptionException {
+        if (config.getParallelExecutor() == null) {
+            for (JsonPathPlan plan : plans) {
+                payloadContext = plansOperation.apply(payloadContext, plan.expand(payloadContext));
+            }
+        } else {
+            // Independent plans are expanded together, so that their values are processed as one batch
+            for (List<JsonPathPlan> batch : planBatches) {
+                payloadContext = plansOperation.apply(payloadContext, JsonPathPlan.expand(batch, payloadContext));
+            }
+        }
+        return payloadContext;
+    }
+
+    // Each payload gets its keys from a single PayloadKeys, whichever path it goes through, so that session keys,
+    // key pools and key reuse apply to whole payloads too
+
+    String process(String payload, Object params) throws EncryptionException {
+        checkParams(params);
+        PayloadKeys keys = new PayloadKeys(config);
+        if (wholeBodyOperation != null) {
+            byte[] payloadBytes = payload.getBytes(StandardCharsets.UTF_8);
+            byte[] result = wholeBodyOperation.apply(payloadBytes, 0, payloadBytes.length, keys);
+            if (result != null) {
+                return new String(result, StandardCharsets.UTF_8);
+            }
+        }
+        return operation.apply(() -> JsonPath.parse(payload, config.jsonPathConfig), this, params, keys).jsonString();
+    }
+
+    byte[] process(byte[] payload, Object params) throws EncryptionException {
+        checkParams(params);
+        PayloadKeys keys = new PayloadKeys(config);
+        if (wholeBodyOperation != null) {
+            byte[] result = wholeBodyOperation.apply(payload, 0, payload.length, keys);
+            if (result != null) {
+                return result;
+            }
+        }
+        return JsonParser.toBytes(operation.apply(() -> JsonParser.parse(payload, config.jsonPathConfig), this, params, keys));
+    }
+
+    ByteBuffer process(ByteBuffer payload, Object params) throws EncryptionException {
+        checkParams(params);
+        PayloadKeys keys = new PayloadKeys(config);
+        if (wholeBodyOperation != null) {
+            byte[] result = payload.hasArray()
+                    ? wholeBodyOperation.apply(payload.array(), payload.arrayOffset() + payload.position(), payload.remaining(), keys)
+                    : wholeBodyOperation.apply(toArray(payload), 0, payload.remaining(), keys);
+            if (result != null) {
+                return ByteBuffer.wrap(result);
+            }
+        }
+        return ByteBuffer.wrap(JsonParser.toBytes(operation.apply(() -> JsonParser.parse(payload, config.jsonPathConfig), this, params, keys)));
+    }
+
+    void process(InputStream input, OutputStream output, Object params) throws EncryptionException {
+        checkParams(params);
+        StreamingEncryption.process(input, output, config, params, encrypt, streamingLayout, plans, new PayloadKeys(config));
+    }
+
+    private void checkParams(Object params) {
+        if (params != null && !paramsSupported) {
+            throw new IllegalArgumentException("Encryption params are only supported with field level encryption!");
+        }
+    }
+
+    private static byte[] toArray(ByteBuffer payload) {
+        byte[] bytes = new byte[payload.remaining()];
+        payload.duplicate().get(bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,101 @@
+package com.mastercard.developer.encryption;
+
+import java.security.SecureRandom;
+import java.util.Arrays;
+
+/**
+ * A long-lived source of random bytes for IVs and content encryption keys.
+ * Generators are created and seeded once, then striped across threads to limit contention.
+ * Each generator can optionally prefetch random bytes in blocks, so that small requests
+ * (IVs, keys) are served from memory.
+ */
+public final class RandomSource {
+
+    private static final class DefaultHolder {
+        private static final RandomSource INSTANCE = new RandomSource(Runtime.getRuntime().availableProcessors(), 0);
+    }
+
+    private final Stripe[] stripes;
+
+    /**
+     * Create a random source.
+     * @param stripeCount The number of generators threads are spread across
+     * @param prefetchSize The number of random bytes each generator fetches at once (0 to disable prefetching)
+     */
+    public RandomSource(int stripeCount, int prefetchSize) {
+        if (stripeCount <= 0) {
+            throw new IllegalArgumentException("Stripe count must be greater than 0!");
+        }
+        if (prefetchSize < 0) {
+            throw new IllegalArgumentException("Prefetch size cannot be negative!");
+        }
+        this.stripes = new Stripe[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            this.stripes[i] = new Stripe(prefetchSize);
+        }
+    }
+
+    /**
+     * The random source used when none is configured.
+     */
+    public static RandomSource getDefault() {
+        return DefaultHolder.INSTANCE;
+    }
+
+    /**
+     * Fill the given array with random bytes.
+     */
+    public void nextBytes(byte[] bytes) {
+        Stripe stripe = stripes[(int) (Thread.currentThread().getId() % stripes.length)];
+        stripe.nextBytes(bytes);
+    }
+
+    /**
+     * Return a new array of <code>length</code> random bytes.
+     */
+    public byte[] nextBytes(int length) {
+        byte[] bytes = new byte[length];
+        nextBytes(bytes);
+        return bytes;
+    }
+
+    int getStripeCount() {
+        return stripes.length;
+    }
+
+    private static final class Stripe {
+        private final SecureRandom secureRandom;
+        private final byte[] buffer;
+        private int position;
+
+        private Stripe(int prefetchSize) {
+            // The platform default (e.g. NativePRNG reading /dev/urandom) never blocks once seeded
+            this.secureRandom = new SecureRandom();
+            this.buffer = new byte[prefetchSize];
+            // Force seeding now rather than on the first request
+            this.secureRandom.nextBytes(this.buffer.length > 0 ? this.buffer : new byte[1]);
+            this.position = 0;
+        }
+
+        private synchronized void nextBytes(byte[] bytes) {
+            if (bytes.length > buffer.length) {
+                // Too large to be served from the prefetched block
+                secureRandom.nextBytes(bytes);
+                return;
+            }
+            int offset = 0;
+            while (offset < bytes.length) {
+                if (position == buffer.length) {
+                    secureRandom.nextBytes(buffer);
+                    position = 0;
+                }
+                int count = Math.min(bytes.length - offset, buffer.length - position);
+                System.arraycopy(buffer, position, bytes, offset, count);
+                // Never hand out the same bytes twice
+                Arrays.fill(buffer, position, position + count, (byte) 0);
+                position += count;
+                offset += count;
+            }
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.mastercard.developer.encryption;
+
+import com.mastercard.developer.encryption.rsa.RSA;
+
+import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.PrivateKey;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A size and time bounded cache of unwrapped secret keys, used to skip the RSA private key operation
+ * when the same wrapped key is received more than once.
+ * Entries are keyed on the SHA-256 digest of the wrapped key bytes and on the identity of the decryption key.
+ * A single instance can safely be shared between threads and configurations.
+ */
+public final class SecretKeyCache {
+
+    private final int maximumSize;
+    private final long timeToLiveNanos;
+    private final Map<CacheKey, CacheEntry> entries;
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final AtomicLong evictionCount = new AtomicLong();
+
+    /**
+     * Create a cache holding at most <code>maximumSize</code> keys, each for at most <code>timeToLive</code>.
+     */
+    public SecretKeyCache(int maximumSize, long timeToLive, TimeUnit unit) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("Cache maximum size must be greater than 0!");
+        }
+        if (timeToLive <= 0) {
+            throw new IllegalArgumentException("Cache time to live must be greater than 0!");
+        }
+        this.maximumSize = maximumSize;
+        this.timeToLiveNanos = unit.toNanos(timeToLive);
+        this.entries = new LinkedHashMap<CacheKey, CacheEntry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<CacheKey, CacheEntry> eldest) {
+                if (size() > SecretKeyCache.this.maximumSize) {
+                    evictionCount.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Return the secret key wrapped in <code>keyBytes</code>, unwrapping it with the given
+     * decryption key only when it isn't already cached.
+     */
+    public Key unwrapSecretKey(PrivateKey decryptionKey, byte[] keyBytes, String oaepDigestAlgorithm) throws EncryptionException {
+        CacheKey cacheKey = new CacheKey(decryptionKey, oaepDigestAlgorithm, sha256Digest(keyBytes));
+        Key secretKey = get(cacheKey);
+        if (secretKey != null) {
+            hitCount.incrementAndGet();
+            return secretKey;
+        }
+        missCount.incrementAndGet();
+        secretKey = RSA.unwrapSecretKey(decryptionKey, keyBytes, oaepDigestAlgorithm);
+        synchronized (entries) {
+            entries.put(cacheKey, new CacheEntry(secretKey, System.nanoTime() + timeToLiveNanos));
+        }
+        return secretKey;
+    }
+
+    private Key get(CacheKey cacheKey) {
+        synchronized (entries) {
+            CacheEntry entry = entries.get(cacheKey);
+            if (entry == null) {
+                return null;
+            }
+            if (entry.expiresAt - System.nanoTime() <= 0) {
+                // Expired
+                entries.remove(cacheKey);
+                evictionCount.incrementAndGet();
+                return null;
+            }
+            return entry.secretKey;
+        }
+    }
+
+    /**
+     * Remove all the cached keys.
+     */
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public int getMaximumSize() {
+        return maximumSize;
+    }
+
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    /**
+     * The number of keys removed because the cache was full or because they expired.
+     */
+    public long getEvictionCount() {
+        return evictionCount.get();
+    }
+
+    private static byte[] sha256Digest(byte[] bytes) throws EncryptionException {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(bytes);
+        } catch (NoSuchAlgorithmException e) {
+            throw new EncryptionException("Failed to compute wrapped key digest!", e);
+        }
+    }
+
+    private static final class CacheKey {
+        private final PrivateKey decryptionKey;
+        private final String oaepDigestAlgorithm;
+        private final byte[] keyDigest;
+        private final int hashCode;
+
+        private CacheKey(PrivateKey decryptionKey, String oaepDigestAlgorithm, byte[] keyDigest) {
+            this.decryptionKey = decryptionKey;
+            this.oaepDigestAlgorithm = oaepDigestAlgorithm;
+            this.keyDigest = keyDigest;
+            this.hashCode = 31 * (31 * System.identityHashCode(decryptionKey) + oaepDigestAlgorithm.hashCode()) + Arrays.hashCode(keyDigest);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof CacheKey)) {
+                return false;
+            }
+            CacheKey other = (CacheKey) o;
+            return decryptionKey == other.decryptionKey
+                    && oaepDigestAlgorithm.equals(other.oaepDigestAlgorithm)
+                    && Arrays.equals(keyDigest, other.keyDigest);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+
+    private static final class CacheEntry {
+        private final Key secretKey;
+        private final long expiresAt;
+
+        private CacheEntry(Key secretKey, long expiresAt) {
+            this.secretKey = secretKey;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.mastercard.developer.encryption;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounds for reusing a generated secret key (and its wrapped form) across requests, so that the RSA public key
+ * operation only happens once per key instead of once per request. Every value is still encrypted with a fresh IV.
+ * Keys are replaced in the background shortly before reaching either bound.
+ * On the receiving side, a {@link SecretKeyCache} skips the RSA private key operation for reused keys.
+ */
+public final class SessionKeyPolicy {
+
+    /**
+     * Random IVs can't be used more than 2^32 times with the same AES-GCM key (NIST SP 800-38D, 8.3).
+     */
+    public static final long MAXIMUM_USAGES_LIMIT = 1L << 32;
+
+    private final long maximumUsages;
+    private final long timeToLiveNanos;
+
+    /**
+     * Create a policy for keys encrypting at most <code>maximumUsages</code> values, each for at most <code>timeToLive</code>.
+     */
+    public SessionKeyPolicy(long maximumUsages, long timeToLive, TimeUnit unit) {
+        if (maximumUsages <= 0 || maximumUsages > MAXIMUM_USAGES_LIMIT) {
+            throw new IllegalArgumentException("Session key maximum usages must be between 1 and 2^32!");
+        }
+        if (timeToLive <= 0) {
+            throw new IllegalArgumentException("Session key time to live must be greater than 0!");
+        }
+        this.maximumUsages = maximumUsages;
+        this.timeToLiveNanos = unit.toNanos(timeToLive);
+    }
+
+    public long getMaximumUsages() {
+        return maximumUsages;
+    }
+
+    public long getTimeToLive(TimeUnit unit) {
+        return unit.convert(timeToLiveNanos, TimeUnit.NANOSECONDS);
+    }
+
+    long getTimeToLiveNanos() {
+        return timeToLiveNanos;
+    }
+}
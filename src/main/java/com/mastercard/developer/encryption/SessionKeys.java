@@ -0,0 +1,92 @@
+package com.mastercard.developer.encryption;
+
+import java.security.GeneralSecurityException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * The current session key of a configuration, replaced according to a {@link SessionKeyPolicy}.
+ * The next key is generated on the parallel executor of the configuration (or on the common pool) once
+ * three quarters of the usages or of the time to live of the current key have been consumed.
+ * Thread safe.
+ */
+final class SessionKeys<K> {
+
+    interface KeyGenerator<K> {
+        K generate() throws GeneralSecurityException, EncryptionException;
+    }
+
+    private final SessionKeyPolicy policy;
+    private final KeyGenerator<K> generator;
+    private final Executor executor;
+    private Session<K> current;
+    private CompletableFuture<Session<K>> next;
+
+    SessionKeys(SessionKeyPolicy policy, KeyGenerator<K> generator, Executor executor) {
+        this.policy = policy;
+        this.generator = generator;
+        this.executor = executor != null ? executor : ForkJoinPool.commonPool();
+    }
+
+    /**
+     * Return the key to use for encrypting one more value.
+     */
+    synchronized K acquire() throws GeneralSecurityException, EncryptionException {
+        if (current == null || current.isOver(policy, System.nanoTime())) {
+            current = takeNext();
+        }
+        current.usages++;
+        if (next == null && current.isAging(policy, System.nanoTime())) {
+            next = CompletableFuture.supplyAsync(() -> {
+                try {
+                    return newSession();
+                } catch (GeneralSecurityException | EncryptionException e) {
+                    throw new CompletionException(e);
+                }
+            }, executor);
+        }
+        return current.key;
+    }
+
+    private Session<K> takeNext() throws GeneralSecurityException, EncryptionException {
+        CompletableFuture<Session<K>> pending = next;
+        next = null;
+        if (pending != null) {
+            try {
+                Session<K> session = pending.join();
+                if (!session.isOver(policy, System.nanoTime())) {
+                    return session;
+                }
+            } catch (CompletionException e) {
+                // Generate the key again below, on this thread
+            }
+        }
+        return newSession();
+    }
+
+    private Session<K> newSession() throws GeneralSecurityException, EncryptionException {
+        return new Session<>(generator.generate(), System.nanoTime());
+    }
+
+    private static final class Session<K> {
+        private final K key;
+        private final long createdAt;
+        private long usages;
+
+        private Session(K key, long createdAt) {
+            this.key = key;
+            this.createdAt = createdAt;
+        }
+
+        private boolean isOver(SessionKeyPolicy policy, long now) {
+            return usages >= policy.getMaximumUsages() || now - createdAt >= policy.getTimeToLiveNanos();
+        }
+
+        private boolean isAging(SessionKeyPolicy policy, long now) {
+            return usages >= policy.getMaximumUsages() - policy.getMaximumUsages() / 4
+                    || now - createdAt >= policy.getTimeToLiveNanos() - policy.getTimeToLiveNanos() / 4;
+        }
+    }
+}
@@ -0,0 +1,626 @@
+package com.mastercard.developer.encryption;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import com.jayway.jsonpath.DocumentContext;
+import com.jayway.jsonpath.JsonPath;
+import com.mastercard.developer.encryption.aes.AESCBC;
+
+import javax.crypto.Cipher;
+import javax.crypto.CipherOutputStream;
+import java.io.BufferedOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.mastercard.developer.utils.StringUtils.isNullOrEmpty;
+
+/**
+ * Performs field level or JWE encryption on payloads read from an {@link InputStream} and written to an
+ * {@link OutputStream}, without building a tree for the whole payload.
+ * Tokens are copied from the input to the output and only the subtrees selected by the configured JSON paths
+ * are buffered, so that memory is bounded by the largest of those subtrees rather than by the payload size.
+ * <p>
+ * Requires com.fasterxml.jackson.core:jackson-core on the classpath. The subtrees are processed exactly like
+ * {@link FieldLevelEncryption} and {@link JweEncryption} do, with the following differences:
+ * <ul>
+ *     <li>Paths are applied in payload order rather than one after the other, so a path can't depend on the output of another path</li>
+ *     <li>When the output path is the root or isn't next to the input path, the smallest subtree holding both paths is buffered
+ *     (the whole payload for root output paths)</li>
+ *     <li>Field level encryption of the root alone doesn't buffer anything: the payload is encrypted and encoded as it's read</li>
+ *     <li>An {@link EncryptionException} is thrown when an output field already appears earlier in its object</li>
+ * </ul>
+ */
+public final class StreamingEncryption {
+
+    private StreamingEncryption() {
+        // Nothing to do here
+    }
+
+    // The Jackson classes are only loaded on first use
+    private static final class JsonFactoryHolder {
+        private static final JsonFactory INSTANCE = new JsonFactory()
+                .disable(com.fasterxml.jackson.core.JsonParser.Feature.AUTO_CLOSE_SOURCE)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+
+    private static final Object ANY_INDEX = new Object();
+    private static final String BUFFER_FIELD_NAME = "p";
+
+    /**
+     * Whether streaming encryption can be used (i.e. Jackson is on the classpath).
+     */
+    public static boolean isAvailable() {
+        try {
+            Class.forName("com.fasterxml.jackson.core.JsonFactory");
+            return true;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+
+    public static void encryptPayload(InputStream payload, OutputStream encryptedPayload, EncryptionConfig config) throws EncryptionException {
+        encryptPayload(payload, encryptedPayload, config, null);
+    }
+
+    public static void encryptPayload(InputStream payload, OutputStream encryptedPayload, EncryptionConfig config, Object params) throws EncryptionException {
+        config.getEncryptor().encrypt(payload, encryptedPayload, params);
+    }
+
+    public static void decryptPayload(InputStream encryptedPayload, OutputStream payload, EncryptionConfig config) throws EncryptionException {
+        decryptPayload(encryptedPayload, payload, config, null);
+    }
+
+    public static void decryptPayload(InputStream encryptedPayload, OutputStream payload, EncryptionConfig config, Object params) throws EncryptionException {
+        config.getDecryptor().decrypt(encryptedPayload, payload, params);
+    }
+
+    /**
+     * @param layout The layout of the plans, null when they can't be streamed
+     */
+    static void process(InputStream input, OutputStream output, EncryptionConfig config, Object params, boolean encrypt,
+                        Layout layout, List<JsonPathPlan> plans, PayloadKeys keys) throws EncryptionException {
+        try {
+            // Throws the appropriate exception when the paths aren't supported
+            Layout walkerLayout = layout != null ? layout : new Layout(plans);
+            new Walker(config, params, encrypt, walkerLayout, keys).run(input, output);
+        } catch (IOException | GeneralSecurityException e) {
+            throw new EncryptionException(encrypt ? "Payload encryption failed!" : "Payload decryption failed!", e);
+        }
+    }
+
+    /**
+     * Where the configured paths are in the payload, and which subtrees must be buffered.
+     * Layouts only depend on the configured paths, so they are computed once per encryptor or decryptor.
+     */
+    static final class Layout {
+        private final List<Target> targets = new ArrayList<>();
+        private final boolean wholePayload;
+        // When the payload is the only input and the output is an object path, the output object steps
+        private final List<Object> wholePayloadOut;
+
+        private Layout(List<JsonPathPlan> plans) {
+            boolean bufferRoot = false;
+            for (JsonPathPlan plan : plans) {
+                Target target = new Target(plan);
+                targets.add(target);
+                bufferRoot |= target.buffer.isEmpty();
+            }
+            this.wholePayload = bufferRoot;
+            Target first = targets.isEmpty() ? null : targets.get(0);
+            boolean singleRootInput = targets.size() == 1 && first.in.isEmpty()
+                    && first.out.stream().allMatch(String.class::isInstance);
+            this.wholePayloadOut = singleRootInput ? first.out : null;
+        }
+
+        /**
+         * The layout of the given plans, or null when their paths aren't supported for streaming.
+         */
+        static Layout tryCreate(List<JsonPathPlan> plans) {
+            try {
+                return new Layout(plans);
+            } catch (IllegalArgumentException e) {
+                // Reported when (and if) streaming is used
+                return null;
+            }
+        }
+    }
+
+    /**
+     * A configured path, with the node to be buffered for it.
+     */
+    private static final class Target {
+        private final JsonPathPlan plan;
+        private final List<Object> in;
+        private final List<Object> out;
+        private final List<Object> buffer;
+        private final Map<Integer, JsonPathPlan> relativePlans = new ConcurrentHashMap<>();
+
+        private Target(JsonPathPlan plan) {
+            this.plan = plan;
+            this.in = parseSteps(plan.getInPath());
+            this.out = parseSteps(plan.getOutPath());
+            this.buffer = findBufferedNode(in, out);
+        }
+
+        private static List<Object> findBufferedNode(List<Object> in, List<Object> out) {
+            if (in.isEmpty() || out.isEmpty()) {
+                // Root paths can replace the whole payload
+                return Collections.emptyList();
+            }
+            if (out.equals(parent(in)) && last(in) instanceof String) {
+                // Output fields are merged into the object holding the input
+                return in;
+            }
+            List<Object> outParent = parent(out);
+            if (last(out) instanceof String && in.size() > outParent.size() && in.subList(0, outParent.size()).equals(outParent)
+                    && in.get(outParent.size()) instanceof String) {
+                // The output is written next to the field holding the input
+                return in.subList(0, outParent.size() + 1);
+            }
+            // Buffer the smallest subtree holding both the input and the output
+            List<Object> common = commonPrefix(in, out);
+            return common.size() == in.size() || common.size() == out.size() ? parent(common) : common;
+        }
+
+        /**
+         * The plan for this path, relative to a document only holding the node buffered at the given depth, under its parent.
+         */
+        private JsonPathPlan getRelativePlan(int depth) {
+            return relativePlans.computeIfAbsent(depth, d -> JsonPathPlan.of(
+                    toRelativePath(in, d, dotNotation(plan.getInPath())), toRelativePath(out, d, dotNotation(plan.getOutPath()))));
+        }
+
+        // Relative paths keep the notation of the configured paths, so that path based rules (e.g. stripping empty JWE parents) behave the same
+        private static boolean dotNotation(String jsonPath) {
+            return jsonPath.indexOf('[') == -1;
+        }
+
+        private String toRelativePath(List<Object> steps, int depth, boolean dotNotation) {
+            StringBuilder path = new StringBuilder("$.").append(BUFFER_FIELD_NAME);
+            for (int i = depth - 1; i < steps.size(); i++) {
+                Object step = steps.get(i);
+                if (i == depth - 1 && !(buffer.get(i) instanceof String)) {
+                    // The buffered array item is the only item of its array
+                    path.append("[0]");
+                } else if (step instanceof String && dotNotation) {
+                    path.append('.').append(step);
+                } else if (step instanceof String) {
+                    path.append("['").append(((String) step).replace("'", "\\'")).append("']");
+                } else if (step == ANY_INDEX) {
+                    path.append("[*]");
+                } else {
+                    path.append('[').append(step).append(']');
+                }
+            }
+            return path.toString();
+        }
+    }
+
+    /**
+     * Parse a JSON path into property names, array indexes and wildcards.
+     */
+    private static List<Object> parseSteps(String jsonPath) {
+        String path = JsonPath.compile(jsonPath).getPath(); // For instance "$['a'][*]['b'][0]"
+        List<Object> steps = new ArrayList<>();
+        int position = 1;
+        while (position < path.length()) {
+            if (path.startsWith("['", position)) {
+                int end = path.indexOf("']", position + 2);
+                if (end == -1) {
+                    throw unsupportedPath(jsonPath);
+                }
+                steps.add(path.substring(position + 2, end));
+                position = end + 2;
+            } else if (path.startsWith("[*]", position)) {
+                steps.add(ANY_INDEX);
+                position += 3;
+            } else if (path.charAt(position) == '[') {
+                int end = path.indexOf(']', position);
+                try {
+                    steps.add(Integer.valueOf(path.substring(position + 1, end)));
+                } catch (RuntimeException e) {
+                    throw unsupportedPath(jsonPath);
+                }
+                position = end + 1;
+            } else {
+                throw unsupportedPath(jsonPath);
+            }
+        }
+        return Collections.unmodifiableList(steps);
+    }
+
+    private static IllegalArgumentException unsupportedPath(String jsonPath) {
+        return new IllegalArgumentException(String.format("JSON path not supported for streaming: '%s'!", jsonPath));
+    }
+
+    private static Object last(List<Object> steps) {
+        return steps.get(steps.size() - 1);
+    }
+
+    private static List<Object> parent(List<Object> steps) {
+        return steps.isEmpty() ? steps : steps.subList(0, steps.size() - 1);
+    }
+
+    private static List<Object> commonPrefix(List<Object> steps1, List<Object> steps2) {
+        int length = 0;
+        while (length < steps1.size() && length < steps2.size() && steps1.get(length).equals(steps2.get(length))) {
+            length++;
+        }
+        return steps1.subList(0, length);
+    }
+
+    /**
+     * Whether the first steps of the pattern match the given concrete path (property names and array indexes).
+     */
+    private static boolean matchesPrefix(List<Object> pattern, List<Object> path) {
+        if (pattern.size() < path.size()) {
+            return false;
+        }
+        for (int i = 0; i < path.size(); i++) {
+            Object step = pattern.get(i);
+            Object pathStep = path.get(i);
+            boolean matches = step == ANY_INDEX ? pathStep instanceof Integer : step.equals(pathStep);
+            if (!matches) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Copies tokens from the input to the output, processing the buffered subtrees on the way.
+     */
+    private static final class Walker {
+        private final EncryptionConfig config;
+        private final Object params;
+        private final boolean encrypt;
+        private final Layout layout;
+        private final PayloadKeys keys;
+        private final List<Object> path = new ArrayList<>();
+        private com.fasterxml.jackson.core.JsonParser parser;
+        private JsonGenerator generator;
+
+        private Walker(EncryptionConfig config, Object params, boolean encrypt, Layout layout, PayloadKeys keys) {
+            this.config = config;
+            this.params = params;
+            this.encrypt = encrypt;
+            this.layout = layout;
+            this.keys = keys;
+        }
+
+        private void run(InputStream input, OutputStream output) throws IOException, GeneralSecurityException, EncryptionException {
+            JsonFactory jsonFactory = JsonFactoryHolder.INSTANCE;
+            try (com.fasterxml.jackson.core.JsonParser jsonParser = jsonFactory.createParser(input);
+                 JsonGenerator jsonGenerator = jsonFactory.createGenerator(output, JsonEncoding.UTF8)) {
+                this.parser = jsonParser;
+                this.generator = jsonGenerator;
+                if (parser.nextToken() == null) {
+                    throw new IllegalArgumentException("Empty payload!");
+                }
+                if (layout.wholePayloadOut != null && encrypt && config.getScheme() == EncryptionConfig.Scheme.LEGACY) {
+                    encryptWholePayload(output);
+                } else if (layout.wholePayload) {
+                    processWholePayload();
+                } else {
+                    copyValue();
+                }
+            }
+        }
+
+        private void processWholePayload() throws IOException, EncryptionException {
+            String payload = readCurrentValue();
+            String result;
+            if (config.getScheme() == EncryptionConfig.Scheme.JWE) {
+                result = encrypt ? JweEncryption.encryptPayload(payload, (JweConfig) config) : JweEncryption.decryptPayload(payload, (JweConfig) config);
+            } else {
+                FieldLevelEncryptionConfig fleConfig = (FieldLevelEncryptionConfig) config;
+                result = encrypt ? FieldLevelEncryption.encryptPayload(payload, fleConfig, params) : FieldLevelEncryption.decryptPayload(payload, fleConfig, params);
+            }
+            generator.writeRawValue(result);
+        }
+
+        /**
+         * Field level encryption of the whole payload: the payload goes through the cipher and the encoder
+         * straight into the output, so that neither the cipher text nor its encoded value are held in memory.
+         */
+        private void encryptWholePayload(OutputStream output) throws IOException, GeneralSecurityException, EncryptionException {
+            FieldLevelEncryptionConfig fleConfig = (FieldLevelEncryptionConfig) config;
+            FieldLevelEncryptionParams fleParams = params != null ? (FieldLevelEncryptionParams) params : keys.nextParams();
+            OutputStream envelope = new BufferedOutputStream(new NonClosingOutputStream(output));
+            for (Object step : layout.wholePayloadOut) {
+                envelope.write('{');
+                writeJsonString(envelope, (String) step);
+                envelope.write(':');
+            }
+            envelope.write('{');
+            writeJsonString(envelope, fleConfig.encryptedValueFieldName);
+            envelope.write(':');
+            envelope.write('"');
+
+            OutputStream encoder = fleConfig.fieldValueEncoding == FieldLevelEncryptionConfig.FieldValueEncoding.HEX
+                    ? new HexOutputStream(envelope)
+                    : Base64.getEncoder().wrap(new NonClosingOutputStream(envelope));
+            Cipher cipher = AESCBC.newCipher(fleParams.getSecretKey(), fleParams.getIvSpec(), Cipher.ENCRYPT_MODE);
+            try (OutputStream cipherStream = new CipherOutputStream(encoder, cipher);
+                 JsonGenerator payloadGenerator = JsonFactoryHolder.INSTANCE.createGenerator(cipherStream, JsonEncoding.UTF8)) {
+                payloadGenerator.copyCurrentStructure(parser);
+            }
+
+            envelope.write('"');
+            writeField(envelope, fleConfig.ivFieldName, fleParams.getIvValue());
+            writeField(envelope, fleConfig.encryptedKeyFieldName, fleParams.getEncryptedKeyValue());
+            writeField(envelope, fleConfig.encryptionCertificateFingerprintFieldName, fleConfig.encryptionCertificateFingerprint);
+            writeField(envelope, fleConfig.encryptionKeyFingerprintFieldName, fleConfig.encryptionKeyFingerprint);
+            writeField(envelope, fleConfig.oaepPaddingDigestAlgorithmFieldName, fleParams.getOaepPaddingDigestAlgorithmValue());
+            for (int i = 0; i <= layout.wholePayloadOut.size(); i++) {
+                envelope.write('}');
+            }
+            envelope.flush();
+        }
+
+        private static void writeField(OutputStream output, String name, String value) throws IOException {
+            if (isNullOrEmpty(name)) {
+                return;
+            }
+            output.write(',');
+            writeJsonString(output, name);
+            output.write(':');
+            if (value == null) {
+                output.write("null".getBytes(StandardCharsets.US_ASCII));
+            } else {
+                writeJsonString(output, value);
+            }
+        }
+
+        private static void writeJsonString(OutputStream output, String value) throws IOException {
+            output.write('"');
+            output.write(JsonStringEncoder.getInstance().quoteAsUTF8(value));
+            output.write('"');
+        }
+
+        private void copyValue() throws IOException, GeneralSecurityException, EncryptionException {
+            if (!hasTargetBelow()) {
+                generator.copyCurrentStructure(parser);
+                return;
+            }
+            JsonToken token = parser.currentToken();
+            if (token == JsonToken.START_OBJECT) {
+                copyObject();
+            } else if (token == JsonToken.START_ARRAY) {
+                copyArray();
+            } else {
+                generator.copyCurrentEvent(parser);
+            }
+        }
+
+        private void copyObject() throws IOException, GeneralSecurityException, EncryptionException {
+            generator.writeStartObject();
+            // Output fields can clash with the fields of the objects they are written to
+            Set<String> inputKeys = hasTargetChild() ? new HashSet<>() : null;
+            Set<String> outputKeys = inputKeys == null ? null : new HashSet<>();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String key = parser.getCurrentName();
+                parser.nextToken();
+                path.add(key);
+                if (outputKeys != null && outputKeys.contains(key)) {
+                    // Overwritten by an output field
+                    parser.skipChildren();
+                } else if (isBuffered()) {
+                    processBufferedValue(inputKeys, outputKeys);
+                } else {
+                    if (inputKeys != null) {
+                        inputKeys.add(key);
+                    }
+                    generator.writeFieldName(key);
+                    copyValue();
+                }
+                path.remove(path.size() - 1);
+            }
+            generator.writeEndObject();
+        }
+
+        private void copyArray() throws IOException, GeneralSecurityException, EncryptionException {
+            generator.writeStartArray();
+            int index = 0;
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                path.add(index++);
+                if (isBuffered()) {
+                    processBufferedValue(null, null);
+                } else {
+                    copyValue();
+                }
+                path.remove(path.size() - 1);
+            }
+            generator.writeEndArray();
+        }
+
+        private boolean isBuffered() {
+            for (Target target : layout.targets) {
+                if (target.buffer.size() == path.size() && matchesPrefix(target.buffer, path)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private boolean hasTargetBelow() {
+            for (Target target : layout.targets) {
+                if (target.buffer.size() > path.size() && matchesPrefix(target.buffer, path)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private boolean hasTargetChild() {
+            for (Target target : layout.targets) {
+                if (target.buffer.size() == path.size() + 1 && matchesPrefix(target.buffer, path)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Buffer the current value in a document where it's the only child of its parent, apply the
+         * paths found in this document, then write the content of the parent in place of the value.
+         */
+        private void processBufferedValue(Set<String> inputKeys, Set<String> outputKeys) throws IOException, GeneralSecurityException, EncryptionException {
+            Object step = path.get(path.size() - 1);
+            boolean inObject = step instanceof String;
+
+            StringWriter writer = new StringWriter();
+            try (JsonGenerator bufferGenerator = JsonFactoryHolder.INSTANCE.createGenerator(writer)) {
+                bufferGenerator.writeStartObject();
+                bufferGenerator.writeFieldName(BUFFER_FIELD_NAME);
+                if (inObject) {
+                    bufferGenerator.writeStartObject();
+                    bufferGenerator.writeFieldName((String) step);
+                    bufferGenerator.copyCurrentStructure(parser);
+                    bufferGenerator.writeEndObject();
+                } else {
+                    bufferGenerator.writeStartArray();
+                    bufferGenerator.copyCurrentStructure(parser);
+                    bufferGenerator.writeEndArray();
+                }
+                bufferGenerator.writeEndObject();
+            }
+
+            DocumentContext context = JsonPath.parse(writer.toString(), config.jsonPathConfig);
+            for (Target target : layout.targets) {
+                if (matchesPrefix(target.buffer, path)) {
+                    JsonPathPlan plan = target.getRelativePlan(path.size());
+                    for (JsonPathPlan definitePlan : plan.expand(context)) {
+                        context = processPath(context, definitePlan);
+                    }
+                }
+            }
+            writeBufferedResult(context.jsonString(), inObject, inputKeys, outputKeys);
+        }
+
+        private DocumentContext processPath(DocumentContext context, JsonPathPlan plan) throws GeneralSecurityException, EncryptionException {
+            if (config.getScheme() == EncryptionConfig.Scheme.JWE) {
+                JweConfig jweConfig = (JweConfig) config;
+                return encrypt ? JweEncryption.encryptPayloadPath(context, plan, jweConfig, jweConfig.getJweHeader(), keys) : JweEncryption.decryptPayloadPath(context, plan, jweConfig, keys);
+            }
+            FieldLevelEncryptionConfig fleConfig = (FieldLevelEncryptionConfig) config;
+            FieldLevelEncryptionParams fleParams = (FieldLevelEncryptionParams) params;
+            return encrypt ? FieldLevelEncryption.encryptPayloadPath(context, plan, fleConfig, fleParams, keys) : FieldLevelEncryption.decryptPayloadPath(context, plan, fleConfig, fleParams, keys);
+        }
+
+        private void writeBufferedResult(String result, boolean inObject, Set<String> inputKeys, Set<String> outputKeys) throws IOException, EncryptionException {
+            try (com.fasterxml.jackson.core.JsonParser resultParser = JsonFactoryHolder.INSTANCE.createParser(result)) {
+                resultParser.nextToken(); // START_OBJECT
+                while (resultParser.nextToken() == JsonToken.FIELD_NAME) {
+                    resultParser.nextToken();
+                    if (!BUFFER_FIELD_NAME.equals(resultParser.getCurrentName())) {
+                        resultParser.skipChildren();
+                        continue;
+                    }
+                    JsonToken expectedToken = inObject ? JsonToken.START_OBJECT : JsonToken.START_ARRAY;
+                    if (resultParser.currentToken() != expectedToken) {
+                        throw new EncryptionException(String.format("Can't replace the parent of '%s' when streaming!", path));
+                    }
+                    while (resultParser.nextToken() != JsonToken.END_OBJECT && resultParser.currentToken() != JsonToken.END_ARRAY) {
+                        if (inObject) {
+                            String key = resultParser.getCurrentName();
+                            checkOutputKey(key, inputKeys, outputKeys);
+                            generator.writeFieldName(key);
+                            resultParser.nextToken();
+                        }
+                        generator.copyCurrentStructure(resultParser);
+                    }
+                }
+            }
+        }
+
+        private void checkOutputKey(String key, Set<String> inputKeys, Set<String> outputKeys) throws EncryptionException {
+            if (inputKeys == null) {
+                return;
+            }
+            if (inputKeys.contains(key) || !outputKeys.add(key)) {
+                throw new EncryptionException(String.format("Field '%s' already written when streaming '%s'!", key, path));
+            }
+        }
+
+        private String readCurrentValue() throws IOException {
+            StringWriter writer = new StringWriter();
+            try (JsonGenerator bufferGenerator = JsonFactoryHolder.INSTANCE.createGenerator(writer)) {
+                bufferGenerator.copyCurrentStructure(parser);
+            }
+            return writer.toString();
+        }
+    }
+
+    /**
+     * Lets an encoder be closed (to write its final bytes) without closing the stream it writes to.
+     */
+    private static final class NonClosingOutputStream extends FilterOutputStream {
+        private NonClosingOutputStream(OutputStream output) {
+            super(output);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            out.write(bytes, offset, length);
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+    }
+
+    /**
+     * Lowercase hex encoding, as {@link com.mastercard.developer.utils.EncodingUtils#encodeBytes} does.
+     */
+    private static final class HexOutputStream extends FilterOutputStream {
+        private static final byte[] DIGITS = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+        private final byte[] buffer = new byte[4096];
+
+        private HexOutputStream(OutputStream output) {
+            super(output);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            int end = offset + length;
+            while (offset < end) {
+                int count = Math.min(end - offset, buffer.length / 2);
+                for (int i = 0; i < count; i++) {
+                    int b = bytes[offset + i] & 0xff;
+                    buffer[2 * i] = DIGITS[b >>> 4];
+                    buffer[2 * i + 1] = DIGITS[b & 0xf];
+                }
+                out.write(buffer, 0, 2 * count);
+                offset += count;
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+    }
+}
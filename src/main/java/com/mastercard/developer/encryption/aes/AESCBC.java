@@ -17,19 +17,40 @@ public class AESCBC {
 
     private static final String CYPHER = "AES/CBC/PKCS5Padding";
 
+    // Cipher instances aren't thread safe and are costly to look up, so each thread reuses its own
+    private static final ThreadLocal<Cipher> CIPHERS = new ThreadLocal<>();
+
     @java.lang.SuppressWarnings("squid:S3329")
     public static byte[] decrypt(Key secretKey, JweObject object) throws GeneralSecurityException {
         // First 16 bytes are the MAC key, so we only use the second 16 bytes
         SecretKeySpec aesKey = new SecretKeySpec(secretKey.getEncoded(), 16, 16, "AES");
-        byte[] cipherText = EncodingUtils.base64Decode(object.getCipherText());
-        byte[] iv = EncodingUtils.base64Decode(object.getIv());
+        byte[] cipherText = EncodingUtils.base64UrlDecode(object.getCipherText());
+        byte[] iv = EncodingUtils.base64UrlDecode(object.getIv());
 
         return cipher(aesKey, new IvParameterSpec(iv), cipherText, Cipher.DECRYPT_MODE);
     }
 
     public static byte[] cipher(Key key, AlgorithmParameterSpec iv, byte[] bytes, int mode) throws GeneralSecurityException {
-        Cipher cipher = Cipher.getInstance(CYPHER);
+        Cipher cipher = getCipher();
         cipher.init(mode, key, iv);
         return cipher.doFinal(bytes);
     }
+
+    /**
+     * A cipher of its own, for callers encrypting or decrypting in several steps.
+     */
+    public static Cipher newCipher(Key key, AlgorithmParameterSpec iv, int mode) throws GeneralSecurityException {
+        Cipher cipher = Cipher.getInstance(CYPHER);
+        cipher.init(mode, key, iv);
+        return cipher;
+    }
+
+    private static Cipher getCipher() throws GeneralSecurityException {
+        Cipher cipher = CIPHERS.get();
+        if (cipher == null) {
+            cipher = Cipher.getInstance(CYPHER);
+            CIPHERS.set(cipher);
+        }
+        return cipher;
+    }
 }
@@ -1,12 +1,11 @@
 package com.mastercard.developer.encryption.aes;
 
 import com.mastercard.developer.encryption.EncryptionException;
+import com.mastercard.developer.encryption.RandomSource;
 import com.mastercard.developer.utils.ByteUtils;
 
 import javax.crypto.spec.IvParameterSpec;
 import javax.crypto.spec.SecretKeySpec;
-import java.security.GeneralSecurityException;
-import java.security.SecureRandom;
 
 public class AESEncryption {
 
@@ -15,20 +14,23 @@ public class AESEncryption {
     }
 
     public static IvParameterSpec generateIv(Integer ivSize) throws EncryptionException {
+        return generateIv(ivSize, RandomSource.getDefault());
+    }
+
+    public static IvParameterSpec generateIv(Integer ivSize, RandomSource randomSource) throws EncryptionException {
         try {
-            SecureRandom secureRandom = SecureRandom.getInstance("SHA1PRNG");
-            byte[] ivBytes = new byte[ivSize];
-            secureRandom.nextBytes(ivBytes);
-            return new IvParameterSpec(ivBytes);
-        } catch (GeneralSecurityException e) {
+            return new IvParameterSpec(randomSource.nextBytes(ivSize));
+        } catch (RuntimeException e) {
             throw new EncryptionException("Failed to generate an IV value!", e);
         }
     }
 
     public static SecretKeySpec generateCek(int bitLength) {
-        SecureRandom random = new SecureRandom();
-        byte[] cekMaterial = new byte[ByteUtils.byteLength(bitLength)];
-        random.nextBytes(cekMaterial);
+        return generateCek(bitLength, RandomSource.getDefault());
+    }
+
+    public static SecretKeySpec generateCek(int bitLength, RandomSource randomSource) {
+        byte[] cekMaterial = randomSource.nextBytes(ByteUtils.byteLength(bitLength));
         return new SecretKeySpec(cekMaterial, "AES");
     }
 }
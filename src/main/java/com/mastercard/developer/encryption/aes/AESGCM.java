@@ -1,7 +1,6 @@
 package com.mastercard.developer.encryption.aes;
 
 import com.mastercard.developer.encryption.jwe.JweObject;
-import com.mastercard.developer.utils.ByteUtils;
 import com.mastercard.developer.utils.EncodingUtils;
 
 import javax.crypto.Cipher;
@@ -18,17 +17,41 @@ public class AESGCM {
 
     private static final String CYPHER = "AES/GCM/NoPadding";
 
+    // Cipher instances aren't thread safe and are costly to look up, so each thread reuses its own
+    private static final ThreadLocal<Cipher> CIPHERS = new ThreadLocal<>();
+
     public static byte[] decrypt(Key cek, JweObject object) throws GeneralSecurityException {
         byte[] aad = object.getRawHeader().getBytes(StandardCharsets.US_ASCII);
-        GCMParameterSpec gcmSpec = new GCMParameterSpec(128, EncodingUtils.base64Decode(object.getIv()));
-        byte[] bytes = ByteUtils.concat(EncodingUtils.base64Decode(object.getCipherText()), EncodingUtils.base64Decode(object.getAuthTag()));
+        GCMParameterSpec gcmSpec = new GCMParameterSpec(128, EncodingUtils.base64UrlDecode(object.getIv()));
+        // Cipher text and tag are decoded next to each other, as expected by the cipher
+        byte[] bytes = object.getCipherTextAndAuthTagBytes();
         return cipher(cek, gcmSpec, bytes, aad, Cipher.DECRYPT_MODE);
     }
 
+    /**
+     * Return a cipher ready to decrypt a cipher text fed in chunks. Plain text must not be released before
+     * {@link Cipher#doFinal(byte[])} has checked the authentication tag.
+     */
+    public static Cipher initDecryptCipher(Key cek, byte[] iv, byte[] aad) throws GeneralSecurityException {
+        Cipher cipher = getCipher();
+        cipher.init(Cipher.DECRYPT_MODE, cek, new GCMParameterSpec(128, iv));
+        cipher.updateAAD(aad);
+        return cipher;
+    }
+
     public static byte[] cipher(Key key, GCMParameterSpec gcpSpec, byte[] bytes, byte[] aad, int mode) throws GeneralSecurityException {
-        Cipher cipher = Cipher.getInstance(CYPHER);
+        Cipher cipher = getCipher();
         cipher.init(mode, key, gcpSpec);
         cipher.updateAAD(aad);
         return cipher.doFinal(bytes);
     }
+
+    private static Cipher getCipher() throws GeneralSecurityException {
+        Cipher cipher = CIPHERS.get();
+        if (cipher == null) {
+            cipher = Cipher.getInstance(CYPHER);
+            CIPHERS.set(cipher);
+        }
+        return cipher;
+    }
 }
@@ -0,0 +1,52 @@
+package com.mastercard.developer.encryption.aes;
+
+import com.mastercard.developer.encryption.EncryptionException;
+
+import javax.crypto.Cipher;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+
+/**
+ * AES key wrap (RFC 3394), used by the "A128KW", "A192KW" and "A256KW" JWE key management algorithms.
+ */
+public class AESKW {
+
+    private AESKW() {
+        // Nothing to do here
+    }
+
+    private static final String CYPHER = "AESWrap";
+    private static final String SYMMETRIC_KEY_TYPE = "AES";
+
+    // Cipher instances aren't thread safe and are costly to look up, so each thread reuses its own
+    private static final ThreadLocal<Cipher> CIPHERS = new ThreadLocal<>();
+
+    public static byte[] wrapSecretKey(Key keyEncryptionKey, Key key) throws EncryptionException {
+        try {
+            Cipher cipher = getCipher();
+            cipher.init(Cipher.WRAP_MODE, keyEncryptionKey);
+            return cipher.wrap(key);
+        } catch (GeneralSecurityException e) {
+            throw new EncryptionException("Failed to wrap secret key!", e);
+        }
+    }
+
+    public static Key unwrapSecretKey(Key keyEncryptionKey, byte[] keyBytes) throws EncryptionException {
+        try {
+            Cipher cipher = getCipher();
+            cipher.init(Cipher.UNWRAP_MODE, keyEncryptionKey);
+            return cipher.unwrap(keyBytes, SYMMETRIC_KEY_TYPE, Cipher.SECRET_KEY);
+        } catch (GeneralSecurityException e) {
+            throw new EncryptionException("Failed to unwrap secret key!", e);
+        }
+    }
+
+    private static Cipher getCipher() throws GeneralSecurityException {
+        Cipher cipher = CIPHERS.get();
+        if (cipher == null) {
+            cipher = Cipher.getInstance(CYPHER);
+            CIPHERS.set(cipher);
+        }
+        return cipher;
+    }
+}
@@ -0,0 +1,244 @@
+package com.mastercard.developer.encryption.ecdh;
+
+import com.mastercard.developer.encryption.EncryptionException;
+import com.mastercard.developer.utils.EncodingUtils;
+
+import javax.crypto.KeyAgreement;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.AlgorithmParameters;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.MessageDigest;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.interfaces.ECKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.spec.ECFieldFp;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.ECParameterSpec;
+import java.security.spec.ECPoint;
+import java.security.spec.ECPublicKeySpec;
+import java.security.spec.EllipticCurve;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Elliptic Curve Diffie-Hellman key agreement with ephemeral keys, and Concat KDF key derivation,
+ * as used by the "ECDH-ES" JWE key management algorithms (RFC 7518 section 4.6).
+ * Supports the P-256, P-384 and P-521 curves, and X25519 (with Java 11 or later).
+ */
+public class ECDH {
+
+    private ECDH() {
+        // Nothing to do here
+    }
+
+    // SubjectPublicKeyInfo prefix of X25519 public keys (OID 1.3.101.110), followed by the 32 key bytes
+    private static final byte[] X25519_PUBLIC_KEY_PREFIX = { 0x30, 0x2a, 0x30, 0x05, 0x06, 0x03, 0x2b, 0x65, 0x6e, 0x03, 0x21, 0x00 };
+    private static final String X25519 = "X25519";
+
+    // JWK curve names of the supported NIST curves, with their domain parameters
+    private static final Map<String, ECParameterSpec> CURVES = new LinkedHashMap<>();
+
+    static {
+        CURVES.put("P-256", namedCurve("secp256r1"));
+        CURVES.put("P-384", namedCurve("secp384r1"));
+        CURVES.put("P-521", namedCurve("secp521r1"));
+    }
+
+    /**
+     * Whether ECDH key agreement can be performed with the given key.
+     */
+    public static boolean isSupportedKey(Key key) {
+        return key instanceof ECKey || isX25519Key(key);
+    }
+
+    /**
+     * Generate an ephemeral key pair on the curve of the given public key.
+     */
+    public static KeyPair generateEphemeralKeyPair(PublicKey publicKey) throws GeneralSecurityException {
+        if (publicKey instanceof ECPublicKey) {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+            generator.initialize(((ECPublicKey) publicKey).getParams());
+            return generator.generateKeyPair();
+        }
+        return KeyPairGenerator.getInstance(X25519).generateKeyPair();
+    }
+
+    /**
+     * Compute the shared secret Z.
+     */
+    public static byte[] agree(PrivateKey privateKey, PublicKey publicKey) throws GeneralSecurityException {
+        KeyAgreement keyAgreement = KeyAgreement.getInstance(privateKey instanceof ECKey ? "ECDH" : "XDH");
+        keyAgreement.init(privateKey);
+        keyAgreement.doPhase(publicKey, true);
+        return keyAgreement.generateSecret();
+    }
+
+    /**
+     * Concat KDF (NIST SP 800-56A section 5.8.1) with SHA-256, as specified by RFC 7518 section 4.6.2.
+     *
+     * @param algorithmId The "enc" header for direct key agreement, the "alg" header for key agreement with key wrapping
+     * @param keyLength The length of the derived key, in bits
+     */
+    public static byte[] deriveKey(byte[] sharedSecret, String algorithmId, byte[] partyUInfo, byte[] partyVInfo, int keyLength) throws GeneralSecurityException {
+        byte[] algorithmIdBytes = algorithmId.getBytes(StandardCharsets.US_ASCII);
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        int keyByteLength = keyLength / 8;
+        byte[] derivedKey = new byte[keyByteLength];
+        for (int counter = 1, offset = 0; offset < keyByteLength; counter++) {
+            digest.update(ByteBuffer.allocate(4).putInt(counter).array());
+            digest.update(sharedSecret);
+            updateWithLength(digest, algorithmIdBytes);
+            updateWithLength(digest, partyUInfo);
+            updateWithLength(digest, partyVInfo);
+            digest.update(ByteBuffer.allocate(4).putInt(keyLength).array());
+            byte[] hash = digest.digest();
+            int length = Math.min(hash.length, keyByteLength - offset);
+            System.arraycopy(hash, 0, derivedKey, offset, length);
+            offset += length;
+        }
+        return derivedKey;
+    }
+
+    private static void updateWithLength(MessageDigest digest, byte[] bytes) {
+        digest.update(ByteBuffer.allocate(4).putInt(bytes.length).array());
+        digest.update(bytes);
+    }
+
+    /**
+     * The JSON Web Key members of a public key ("kty", "crv", "x" and, for EC keys, "y").
+     */
+    public static Map<String, String> toJwk(PublicKey publicKey) throws EncryptionException {
+        Map<String, String> jwk = new LinkedHashMap<>();
+        if (publicKey instanceof ECPublicKey) {
+            ECPublicKey ecPublicKey = (ECPublicKey) publicKey;
+            int fieldSize = ecPublicKey.getParams().getCurve().getField().getFieldSize();
+            int coordinateLength = (fieldSize + 7) / 8;
+            jwk.put("kty", "EC");
+            jwk.put("crv", curveName(ecPublicKey.getParams()));
+            jwk.put("x", EncodingUtils.base64UrlEncode(toUnsignedBytes(ecPublicKey.getW().getAffineX(), coordinateLength)));
+            jwk.put("y", EncodingUtils.base64UrlEncode(toUnsignedBytes(ecPublicKey.getW().getAffineY(), coordinateLength)));
+        } else if (isX25519Key(publicKey)) {
+            byte[] encoded = publicKey.getEncoded();
+            jwk.put("kty", "OKP");
+            jwk.put("crv", X25519);
+            jwk.put("x", EncodingUtils.base64UrlEncode(Arrays.copyOfRange(encoded, X25519_PUBLIC_KEY_PREFIX.length, encoded.length)));
+        } else {
+            throw new EncryptionException(String.format("Unsupported key type: %s!", publicKey.getAlgorithm()));
+        }
+        return jwk;
+    }
+
+    /**
+     * Read a public key from its JSON Web Key members. The key must be on the curve of the given private key.
+     */
+    public static PublicKey fromJwk(Map<String, String> jwk, PrivateKey privateKey) throws GeneralSecurityException, EncryptionException {
+        String curveName = jwk.get("crv");
+        if (privateKey instanceof ECKey) {
+            ECParameterSpec params = ((ECKey) privateKey).getParams();
+            if (!"EC".equals(jwk.get("kty")) || !curveName(params).equals(curveName)
+                    || jwk.get("x") == null || jwk.get("y") == null) {
+                throw new EncryptionException("The ephemeral public key doesn't match the decryption key!");
+            }
+            ECPoint point = new ECPoint(new BigInteger(1, EncodingUtils.base64UrlDecode(jwk.get("x"))),
+                    new BigInteger(1, EncodingUtils.base64UrlDecode(jwk.get("y"))));
+            if (!isOnCurve(point, params.getCurve())) {
+                // Guards against invalid curve attacks
+                throw new EncryptionException("The ephemeral public key isn't on the curve of the decryption key!");
+            }
+            return KeyFactory.getInstance("EC").generatePublic(new ECPublicKeySpec(point, params));
+        }
+        if (!"OKP".equals(jwk.get("kty")) || !X25519.equals(curveName) || jwk.get("x") == null) {
+            throw new EncryptionException("The ephemeral public key doesn't match the decryption key!");
+        }
+        byte[] x = EncodingUtils.base64UrlDecode(jwk.get("x"));
+        byte[] encoded = Arrays.copyOf(X25519_PUBLIC_KEY_PREFIX, X25519_PUBLIC_KEY_PREFIX.length + x.length);
+        System.arraycopy(x, 0, encoded, X25519_PUBLIC_KEY_PREFIX.length, x.length);
+        return KeyFactory.getInstance(X25519).generatePublic(new X509EncodedKeySpec(encoded));
+    }
+
+    private static boolean isX25519Key(Key key) {
+        if (key == null || !("XDH".equals(key.getAlgorithm()) || X25519.equals(key.getAlgorithm()))) {
+            return false;
+        }
+        // Public keys: SubjectPublicKeyInfo, private keys: PKCS#8, both with the X25519 OID
+        byte[] encoded = key.getEncoded();
+        byte[] oid = { 0x06, 0x03, 0x2b, 0x65, 0x6e };
+        for (int i = 0; encoded != null && i + oid.length <= encoded.length && i < 16; i++) {
+            if (Arrays.equals(Arrays.copyOfRange(encoded, i, i + oid.length), oid)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static ECParameterSpec namedCurve(String name) {
+        try {
+            AlgorithmParameters parameters = AlgorithmParameters.getInstance("EC");
+            parameters.init(new ECGenParameterSpec(name));
+            return parameters.getParameterSpec(ECParameterSpec.class);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(String.format("Curve %s not available!", name), e);
+        }
+    }
+
+    /**
+     * The JWK name of a NIST curve. Curves are compared on all their domain parameters, since other curves
+     * (brainpoolP256r1, secp256k1...) have the same field sizes.
+     */
+    private static String curveName(ECParameterSpec params) throws EncryptionException {
+        for (Map.Entry<String, ECParameterSpec> curve : CURVES.entrySet()) {
+            if (isSameCurve(curve.getValue(), params)) {
+                return curve.getKey();
+            }
+        }
+        throw new EncryptionException("Unsupported curve, only P-256, P-384 and P-521 are supported!");
+    }
+
+    private static boolean isSameCurve(ECParameterSpec expected, ECParameterSpec actual) {
+        EllipticCurve expectedCurve = expected.getCurve();
+        EllipticCurve actualCurve = actual.getCurve();
+        return actualCurve.getField() instanceof ECFieldFp
+                && ((ECFieldFp) expectedCurve.getField()).getP().equals(((ECFieldFp) actualCurve.getField()).getP())
+                && expectedCurve.getA().equals(actualCurve.getA())
+                && expectedCurve.getB().equals(actualCurve.getB())
+                && expected.getGenerator().equals(actual.getGenerator())
+                && expected.getOrder().equals(actual.getOrder())
+                && expected.getCofactor() == actual.getCofactor();
+    }
+
+    private static boolean isOnCurve(ECPoint point, EllipticCurve curve) {
+        BigInteger p = ((ECFieldFp) curve.getField()).getP();
+        BigInteger x = point.getAffineX();
+        BigInteger y = point.getAffineY();
+        if (x.signum() < 0 || x.compareTo(p) >= 0 || y.signum() < 0 || y.compareTo(p) >= 0) {
+            return false;
+        }
+        BigInteger left = y.multiply(y).mod(p);
+        BigInteger right = x.pow(3).add(curve.getA().multiply(x)).add(curve.getB()).mod(p);
+        return left.equals(right);
+    }
+
+    private static byte[] toUnsignedBytes(BigInteger value, int length) {
+        byte[] bytes = value.toByteArray();
+        if (bytes.length == length) {
+            return bytes;
+        }
+        byte[] result = new byte[length];
+        if (bytes.length > length) {
+            // Leading sign byte
+            System.arraycopy(bytes, bytes.length - length, result, 0, length);
+        } else {
+            System.arraycopy(bytes, 0, result, length - bytes.length, bytes.length);
+        }
+        return result;
+    }
+}
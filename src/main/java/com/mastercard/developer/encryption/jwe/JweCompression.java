@@ -0,0 +1,65 @@
+package com.mastercard.developer.encryption.jwe;
+
+import com.mastercard.developer.encryption.EncryptionException;
+
+import java.io.ByteArrayOutputStream;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Plaintext compression with the "DEF" algorithm (raw DEFLATE, RFC 1951), see RFC 7516 section 4.1.3.
+ */
+final class JweCompression {
+
+    static final String DEFLATE = "DEF";
+
+    private static final int BUFFER_SIZE = 8 * 1024;
+
+    private JweCompression() {
+        // Nothing to do here
+    }
+
+    static byte[] deflate(byte[] bytes) {
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        try {
+            deflater.setInput(bytes);
+            deflater.finish();
+            ByteArrayOutputStream output = new ByteArrayOutputStream(Math.max(bytes.length / 4, 64));
+            byte[] buffer = new byte[BUFFER_SIZE];
+            while (!deflater.finished()) {
+                output.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return output.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    /**
+     * Inflate the given bytes, failing as soon as more than the given number of bytes would be produced.
+     */
+    static byte[] inflate(byte[] bytes, int maximumInflatedSize) throws EncryptionException {
+        Inflater inflater = new Inflater(true);
+        try {
+            inflater.setInput(bytes);
+            ByteArrayOutputStream output = new ByteArrayOutputStream(Math.min(bytes.length * 4, maximumInflatedSize));
+            byte[] buffer = new byte[BUFFER_SIZE];
+            while (!inflater.finished()) {
+                int length = inflater.inflate(buffer);
+                if (length == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new EncryptionException("Failed to inflate the decrypted payload!", new DataFormatException("Truncated input"));
+                }
+                if (output.size() + length > maximumInflatedSize) {
+                    throw new EncryptionException(String.format("The inflated payload exceeds the maximum size (%d bytes)!", maximumInflatedSize));
+                }
+                output.write(buffer, 0, length);
+            }
+            return output.toByteArray();
+        } catch (DataFormatException e) {
+            throw new EncryptionException("Failed to inflate the decrypted payload!", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
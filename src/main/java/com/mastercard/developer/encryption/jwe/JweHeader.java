@@ -4,17 +4,50 @@ import com.jayway.jsonpath.spi.json.JsonProvider;
 import com.mastercard.developer.json.JsonEngine;
 import com.mastercard.developer.utils.EncodingUtils;
 
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 public final class JweHeader {
     private final String enc;
     private final String kid;
     private final String alg;
     private final String cty;
+    private final String zip;
+    // Key wrapping IV and authentication tag ("A128GCMKW", "A192GCMKW" and "A256GCMKW" algorithms)
+    private final String iv;
+    private final String tag;
+    // Ephemeral public key (JSON Web Key members) and agreement PartyUInfo/PartyVInfo ("ECDH-ES" algorithms)
+    private final Map<String, String> epk;
+    private final String apu;
+    private final String apv;
+    private volatile String encoded;
+    private volatile byte[] aad;
+    private volatile JweHeader deflated;
 
     public JweHeader(String alg, String enc, String kid, String cty) {
+        this(alg, enc, kid, cty, null);
+    }
+
+    /**
+     * @param zip The compression algorithm applied to the plaintext before encryption ("DEF"), or null
+     */
+    public JweHeader(String alg, String enc, String kid, String cty, String zip) {
+        this(alg, enc, kid, cty, zip, null, null, null, null, null);
+    }
+
+    private JweHeader(String alg, String enc, String kid, String cty, String zip, String iv, String tag,
+                      Map<String, String> epk, String apu, String apv) {
         this.alg = alg;
         this.enc = enc;
         this.kid = kid;
         this.cty = cty;
+        this.zip = zip;
+        this.iv = iv;
+        this.tag = tag;
+        this.epk = epk;
+        this.apu = apu;
+        this.apv = apv;
     }
 
     String toJson() {
@@ -33,21 +66,108 @@ public final class JweHeader {
         if(this.alg != null) {
             engine.addProperty(obj, "alg", this.alg);
         }
+        if(this.zip != null) {
+            engine.addProperty(obj, "zip", this.zip);
+        }
+        if(this.iv != null) {
+            engine.addProperty(obj, "iv", this.iv);
+        }
+        if(this.tag != null) {
+            engine.addProperty(obj, "tag", this.tag);
+        }
+        if(this.epk != null) {
+            Object epkObj = engine.parse("{}");
+            for (Map.Entry<String, String> member : this.epk.entrySet()) {
+                engine.addProperty(epkObj, member.getKey(), member.getValue());
+            }
+            engine.addProperty(obj, "epk", epkObj);
+        }
+        if(this.apu != null) {
+            engine.addProperty(obj, "apu", this.apu);
+        }
+        if(this.apv != null) {
+            engine.addProperty(obj, "apv", this.apv);
+        }
         return engine.toJsonString(obj);
     }
 
+    /**
+     * The BASE64URL encoded JSON header, computed once and then reused.
+     */
+    public String getEncoded() {
+        String result = encoded;
+        if (result == null) {
+            result = EncodingUtils.base64UrlEncode(toJson().getBytes(StandardCharsets.UTF_8));
+            encoded = result;
+        }
+        return result;
+    }
+
+    /**
+     * The additional authenticated data for this header (ASCII bytes of the encoded header). Must not be modified.
+     */
+    byte[] getAad() {
+        byte[] result = aad;
+        if (result == null) {
+            result = getEncoded().getBytes(StandardCharsets.US_ASCII);
+            aad = result;
+        }
+        return result;
+    }
+
+    /**
+     * This header with "zip": "DEF", computed once and then reused.
+     */
+    JweHeader withDeflate() {
+        if (JweCompression.DEFLATE.equals(zip)) {
+            return this;
+        }
+        JweHeader result = deflated;
+        if (result == null) {
+            result = new JweHeader(alg, enc, kid, cty, JweCompression.DEFLATE, iv, tag, epk, apu, apv);
+            deflated = result;
+        }
+        return result;
+    }
+
+    /**
+     * This header with the given key wrapping IV and authentication tag, and the given ephemeral public key.
+     */
+    JweHeader withKeyParameters(String iv, String tag, Map<String, String> epk) {
+        return new JweHeader(alg, enc, kid, cty, zip, iv, tag, epk, apu, apv);
+    }
+
     static JweHeader parseJweHeader(String encodedHeader, JsonEngine jsonEngine) {
-        Object headerObj = jsonEngine.parse(new String(EncodingUtils.base64Decode(encodedHeader)));
+        Object headerObj = jsonEngine.parse(new String(EncodingUtils.base64UrlDecode(encodedHeader)));
         JsonProvider jsonProvider = jsonEngine.getJsonProvider();
         String alg = jsonProvider.getMapValue(headerObj, "alg").toString();
         String enc = jsonProvider.getMapValue(headerObj, "enc").toString();
-        String kid = jsonProvider.getMapValue(headerObj, "kid").toString();
-        Object cty = jsonProvider.getMapValue(headerObj, "cty");
-        return new JweHeader(alg, enc, kid, cty != null ? cty.toString() : null);
+        Map<String, String> epk = null;
+        Object epkObj = jsonProvider.getMapValue(headerObj, "epk");
+        if (epkObj != null && epkObj != JsonProvider.UNDEFINED && jsonProvider.isMap(epkObj)) {
+            epk = new LinkedHashMap<>();
+            for (String member : jsonProvider.getPropertyKeys(epkObj)) {
+                epk.put(member, readOptional(jsonProvider, epkObj, member));
+            }
+        }
+        return new JweHeader(alg, enc, readOptional(jsonProvider, headerObj, "kid"), readOptional(jsonProvider, headerObj, "cty"),
+                readOptional(jsonProvider, headerObj, "zip"), readOptional(jsonProvider, headerObj, "iv"), readOptional(jsonProvider, headerObj, "tag"),
+                epk, readOptional(jsonProvider, headerObj, "apu"), readOptional(jsonProvider, headerObj, "apv"));
+    }
+
+    private static String readOptional(JsonProvider jsonProvider, Object headerObj, String name) {
+        Object value = jsonProvider.getMapValue(headerObj, name);
+        return value != null && value != JsonProvider.UNDEFINED ? jsonProvider.unwrap(value).toString() : null;
     }
 
     String getEnc() { return enc; }
     String getAlg() { return alg; }
     String getKid() { return kid; }
     String getCty() { return cty; }
+    String getZip() { return zip; }
+    String getIv() { return iv; }
+    String getTag() { return tag; }
+    Map<String, String> getEpk() { return epk; }
+    String getApu() { return apu; }
+    String getApv() { return apv; }
 }
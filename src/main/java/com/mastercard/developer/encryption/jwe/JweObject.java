@@ -2,9 +2,12 @@ package com.mastercard.developer.encryption.jwe;
 
 import com.mastercard.developer.encryption.EncryptionException;
 import com.mastercard.developer.encryption.JweConfig;
+import com.mastercard.developer.encryption.SecretKeyCache;
 import com.mastercard.developer.encryption.aes.AESCBC;
 import com.mastercard.developer.encryption.aes.AESEncryption;
 import com.mastercard.developer.encryption.aes.AESGCM;
+import com.mastercard.developer.encryption.aes.AESKW;
+import com.mastercard.developer.encryption.ecdh.ECDH;
 import com.mastercard.developer.encryption.rsa.RSA;
 import com.mastercard.developer.json.JsonEngine;
 import com.mastercard.developer.utils.ByteUtils;
@@ -13,40 +16,90 @@ import com.mastercard.developer.utils.EncodingUtils;
 import javax.crypto.Cipher;
 import javax.crypto.spec.GCMParameterSpec;
 import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
 import java.security.GeneralSecurityException;
 import java.security.Key;
+import java.security.KeyPair;
+import java.security.PrivateKey;
+import java.security.PublicKey;
 import java.util.Arrays;
-import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 public class JweObject {
-    private final JweHeader header;
-    private final String rawHeader;
-    private final String encryptedKey;
-    private final String iv;
-    private final String cipherText;
-    private final String authTag;
+    private final String serialized;
+    private final int encryptedKeyStart;
+    private final int ivStart;
+    private final int cipherTextStart;
+    private final int authTagStart;
+    private final JsonEngine jsonEngine;
+    private volatile JweHeader header;
 
     private static final String A128CBC_HS256 = "A128CBC-HS256";
+    private static final String DIRECT = "dir";
+    private static final List<String> AES_KEY_WRAP_ALGORITHMS = Arrays.asList("A128KW", "A192KW", "A256KW");
+    private static final List<String> AES_GCM_KEY_WRAP_ALGORITHMS = Arrays.asList("A128GCMKW", "A192GCMKW", "A256GCMKW");
+    private static final String ECDH_ES = "ECDH-ES";
+    private static final List<String> ECDH_ES_KEY_WRAP_ALGORITHMS = Arrays.asList("ECDH-ES+A128KW", "ECDH-ES+A192KW", "ECDH-ES+A256KW");
+    private static final int KEY_WRAP_IV_SIZE = 12;
+    private static final int AUTH_TAG_LENGTH = 128;
     private static final List<String> AES_GCM_ENCRYPTION_METHODS = Arrays.asList("A128GCM", "A192GCM", "A256GCM");
 
-    private JweObject(JweHeader header, String rawHeader, String encryptedKey, String iv, String cipherText, String authTag) {
-        this.header = header;
-        this.rawHeader = rawHeader;
-        this.encryptedKey = encryptedKey;
-        this.iv = iv;
-        this.cipherText = cipherText;
-        this.authTag = authTag;
+    // Servers keep sending the same few headers, so parsed headers are kept in a small LRU cache
+    private static final int HEADER_CACHE_SIZE = 64;
+    private static final Map<String, JweHeader> HEADER_CACHE = Collections.synchronizedMap(new LinkedHashMap<String, JweHeader>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, JweHeader> eldest) {
+            return size() > HEADER_CACHE_SIZE;
+        }
+    });
+
+    private JweObject(String serialized, int encryptedKeyStart, int ivStart, int cipherTextStart, int authTagStart, JsonEngine jsonEngine) {
+        this.serialized = serialized;
+        this.encryptedKeyStart = encryptedKeyStart;
+        this.ivStart = ivStart;
+        this.cipherTextStart = cipherTextStart;
+        this.authTagStart = authTagStart;
+        this.jsonEngine = jsonEngine;
     }
 
     public String decrypt(JweConfig config) throws EncryptionException, GeneralSecurityException {
-        Key cek = RSA.unwrapSecretKey(config.getDecryptionKey(), Base64.getUrlDecoder().decode(this.getEncryptedKey()), "SHA-256");
-        String encryptionMethod = this.header.getEnc();
+        return new String(decryptBytes(config), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Decrypt the payload without decoding it to a string.
+     */
+    public byte[] decryptBytes(JweConfig config) throws EncryptionException, GeneralSecurityException {
+        return decryptBytes(config, unwrapSecretKey(config));
+    }
+
+    /**
+     * Decrypt the payload with a content encryption key already unwrapped with {@link #unwrapSecretKey(JweConfig)}.
+     * Compressed payloads are inflated up to {@link JweConfig#DEFAULT_MAXIMUM_INFLATED_SIZE} bytes.
+     */
+    public byte[] decryptBytes(Key cek) throws EncryptionException, GeneralSecurityException {
+        return decryptBytes(cek, JweConfig.DEFAULT_MAXIMUM_INFLATED_SIZE);
+    }
+
+    /**
+     * Decrypt the payload with a content encryption key already unwrapped with {@link #unwrapSecretKey(JweConfig)}.
+     * Compressed payloads are inflated up to {@link JweConfig#getMaximumInflatedSize()} bytes.
+     */
+    public byte[] decryptBytes(JweConfig config, Key cek) throws EncryptionException, GeneralSecurityException {
+        return decryptBytes(cek, config.getMaximumInflatedSize());
+    }
+
+    private byte[] decryptBytes(Key cek, int maximumInflatedSize) throws EncryptionException, GeneralSecurityException {
+        String encryptionMethod = this.getHeader().getEnc();
 
         byte[] plainText;
 
-        if (AES_GCM_ENCRYPTION_METHODS.contains(encryptionMethod)) {
+        if (isGcm(encryptionMethod)) {
             plainText = AESGCM.decrypt(cek, this);
         } else if (encryptionMethod.equals(A128CBC_HS256)) {
             plainText = AESCBC.decrypt(cek, this);
@@ -54,32 +107,169 @@ public class JweObject {
             throw new EncryptionException(String.format("Encryption method %s not supported", encryptionMethod));
         }
 
-        return new String(plainText);
+        String compressionAlgorithm = this.getHeader().getZip();
+        if (compressionAlgorithm == null) {
+            return plainText;
+        }
+        if (!JweCompression.DEFLATE.equals(compressionAlgorithm)) {
+            throw new EncryptionException(String.format("Compression algorithm %s not supported", compressionAlgorithm));
+        }
+        return JweCompression.inflate(plainText, maximumInflatedSize);
+    }
+
+    /**
+     * Decrypt the payload into the given stream.
+     */
+    public void decrypt(JweConfig config, OutputStream output) throws EncryptionException, GeneralSecurityException, IOException {
+        output.write(decryptBytes(config));
+    }
+
+    /**
+     * Unwrap the content encryption key of this object.
+     */
+    public Key unwrapSecretKey(JweConfig config) throws EncryptionException, GeneralSecurityException {
+        return unwrapSecretKey(config, this.getHeader(), this.getEncryptedKey());
+    }
+
+    /**
+     * Unwrap a content encryption key according to the key management algorithm of the given header, which must be
+     * the algorithm of the configuration (see {@link JweConfig#getKeyManagementAlgorithm()}).
+     */
+    static Key unwrapSecretKey(JweConfig config, JweHeader header, String encryptedKey) throws EncryptionException, GeneralSecurityException {
+        String algorithm = header.getAlg();
+        if (algorithm == null || !algorithm.equals(config.getKeyManagementAlgorithm())) {
+            // The header is controlled by the sender, don't let it pick a weaker algorithm or another key
+            throw new EncryptionException(String.format("Key management algorithm %s not allowed, expected %s!", algorithm, config.getKeyManagementAlgorithm()));
+        }
+        if ((DIRECT.equals(algorithm) || ECDH_ES.equals(algorithm)) && encryptedKey != null && !encryptedKey.isEmpty()) {
+            throw new EncryptionException(String.format("Unexpected encrypted key for the %s algorithm!", algorithm));
+        }
+        if (DIRECT.equals(algorithm)) {
+            return requireKey(config.getContentEncryptionKey(), algorithm);
+        }
+        if (AES_KEY_WRAP_ALGORITHMS.contains(algorithm)) {
+            return AESKW.unwrapSecretKey(requireKey(config.getKeyEncryptionKey(), algorithm), EncodingUtils.base64UrlDecode(encryptedKey));
+        }
+        if (AES_GCM_KEY_WRAP_ALGORITHMS.contains(algorithm)) {
+            if (header.getIv() == null || header.getTag() == null) {
+                throw new EncryptionException(String.format("Missing iv or tag header for the %s algorithm!", algorithm));
+            }
+            byte[] encryptedKeyBytes = EncodingUtils.base64UrlDecode(encryptedKey);
+            byte[] tagBytes = EncodingUtils.base64UrlDecode(header.getTag());
+            byte[] cipherOutput = Arrays.copyOf(encryptedKeyBytes, encryptedKeyBytes.length + tagBytes.length);
+            System.arraycopy(tagBytes, 0, cipherOutput, encryptedKeyBytes.length, tagBytes.length);
+            GCMParameterSpec gcmSpec = new GCMParameterSpec(AUTH_TAG_LENGTH, EncodingUtils.base64UrlDecode(header.getIv()));
+            byte[] cek = AESGCM.cipher(requireKey(config.getKeyEncryptionKey(), algorithm), gcmSpec, cipherOutput, new byte[0], Cipher.DECRYPT_MODE);
+            return new SecretKeySpec(cek, "AES");
+        }
+        if (ECDH_ES.equals(algorithm)) {
+            return new SecretKeySpec(deriveAgreedKey(config, header, header.getEnc(), keyLength(header.getEnc())), "AES");
+        }
+        if (ECDH_ES_KEY_WRAP_ALGORITHMS.contains(algorithm)) {
+            // "ECDH-ES+A256KW" -> 256
+            int keyLength = Integer.parseInt(algorithm.substring(algorithm.length() - 5, algorithm.length() - 2));
+            SecretKeySpec keyEncryptionKey = new SecretKeySpec(deriveAgreedKey(config, header, algorithm, keyLength), "AES");
+            return AESKW.unwrapSecretKey(keyEncryptionKey, EncodingUtils.base64UrlDecode(encryptedKey));
+        }
+        byte[] encryptedKeyBytes = EncodingUtils.base64UrlDecode(encryptedKey);
+        SecretKeyCache secretKeyCache = config.getSecretKeyCache();
+        return secretKeyCache != null
+                ? secretKeyCache.unwrapSecretKey(config.getDecryptionKey(), encryptedKeyBytes, "SHA-256")
+                : RSA.unwrapSecretKey(config.getDecryptionKey(), encryptedKeyBytes, "SHA-256");
+    }
+
+    private static byte[] deriveAgreedKey(JweConfig config, JweHeader header, String algorithmId, int keyLength) throws EncryptionException, GeneralSecurityException {
+        PrivateKey decryptionKey = config.getDecryptionKey();
+        if (!ECDH.isSupportedKey(decryptionKey)) {
+            throw new EncryptionException(String.format("No EC key configured for the %s algorithm!", header.getAlg()));
+        }
+        if (header.getEpk() == null) {
+            throw new EncryptionException(String.format("Missing epk header for the %s algorithm!", header.getAlg()));
+        }
+        PublicKey ephemeralPublicKey = ECDH.fromJwk(header.getEpk(), decryptionKey);
+        return ECDH.deriveKey(ECDH.agree(decryptionKey, ephemeralPublicKey), algorithmId,
+                decodeOptional(header.getApu()), decodeOptional(header.getApv()), keyLength);
+    }
+
+    private static byte[] decodeOptional(String value) {
+        return value == null ? new byte[0] : EncodingUtils.base64UrlDecode(value);
+    }
+
+    private static int keyLength(String encryptionMethod) throws EncryptionException {
+        if (isGcm(encryptionMethod)) {
+            // "A256GCM" -> 256
+            return Integer.parseInt(encryptionMethod.substring(1, 4));
+        }
+        if (A128CBC_HS256.equals(encryptionMethod)) {
+            return 256;
+        }
+        throw new EncryptionException(String.format("Encryption method %s not supported", encryptionMethod));
+    }
+
+    private static <K extends Key> K requireKey(K key, String algorithm) throws EncryptionException {
+        if (key == null) {
+            throw new EncryptionException(String.format("No key configured for the %s algorithm!", algorithm));
+        }
+        return key;
+    }
+
+    static boolean isGcm(String encryptionMethod) {
+        return AES_GCM_ENCRYPTION_METHODS.contains(encryptionMethod);
+    }
+
+    public static String encrypt(JweConfig config, String payload) throws EncryptionException, GeneralSecurityException {
+        return encrypt(config, payload, config.getJweHeader());
     }
 
     public static String encrypt(JweConfig config, String payload, JweHeader header) throws EncryptionException, GeneralSecurityException {
-        SecretKeySpec cek = AESEncryption.generateCek(256);
-        byte[] encryptedSecretKeyBytes = RSA.wrapSecretKey(config.getEncryptionKey(), cek, "SHA-256");
-        String encryptedKey = EncodingUtils.base64UrlEncode(encryptedSecretKeyBytes);
+        return encrypt(config, payload.getBytes(StandardCharsets.UTF_8), header);
+    }
 
-        byte[] iv = AESEncryption.generateIv(config.getIVSize()).getIV();
-        byte[] payloadBytes = payload.getBytes();
-        GCMParameterSpec gcmSpec = new GCMParameterSpec(128, iv);
+    /**
+     * Encrypt UTF-8 encoded bytes.
+     */
+    public static String encrypt(JweConfig config, byte[] payloadBytes) throws EncryptionException, GeneralSecurityException {
+        return encrypt(config, payloadBytes, config.getJweHeader());
+    }
+
+    public static String encrypt(JweConfig config, byte[] payloadBytes, JweHeader header) throws EncryptionException, GeneralSecurityException {
+        return encrypt(config, payloadBytes, header, ContentKey.generate(config));
+    }
+
+    /**
+     * Encrypt with the given content encryption key. A fresh IV is generated for every call, so a key can
+     * encrypt several values. Payloads of at least {@link JweConfig#getCompressionThreshold()} bytes (or any payload
+     * when the header has "zip": "DEF") are compressed first.
+     */
+    public static String encrypt(JweConfig config, byte[] payloadBytes, JweHeader header, ContentKey contentKey) throws EncryptionException, GeneralSecurityException {
+        int compressionThreshold = config.getCompressionThreshold();
+        if (compressionThreshold > 0 && payloadBytes.length >= compressionThreshold) {
+            header = header.withDeflate();
+        }
+        if (JweCompression.DEFLATE.equals(header.getZip())) {
+            payloadBytes = JweCompression.deflate(payloadBytes);
+        }
+        header = contentKey.applyTo(header);
 
-        String headerString = header.toJson();
-        String encodedHeader = EncodingUtils.base64UrlEncode(headerString.getBytes());
+        SecretKeySpec cek = contentKey.cek;
+        String encryptedKey = contentKey.encryptedKey;
+
+        byte[] iv = AESEncryption.generateIv(config.getIVSize(), config.getRandomSource()).getIV();
+        GCMParameterSpec gcmSpec = new GCMParameterSpec(128, iv);
 
-        byte[] aad = encodedHeader.getBytes(StandardCharsets.US_ASCII);
+        String encodedHeader = header.getEncoded();
+        byte[] aad = header.getAad();
 
         SecretKeySpec aesKey = new SecretKeySpec(cek.getEncoded(), "AES");
 
         byte[] cipherOutput = AESGCM.cipher(aesKey, gcmSpec, payloadBytes, aad, Cipher.ENCRYPT_MODE);
 
+        // The cipher text and the authentication tag are encoded in place
         int tagPos = cipherOutput.length - ByteUtils.byteLength(128);
-        byte[] cipherText = ByteUtils.subArray(cipherOutput, 0, tagPos);
-        byte[] authTag = ByteUtils.subArray(cipherOutput, tagPos, ByteUtils.byteLength(128));
+        String cipherText = EncodingUtils.base64UrlEncode(cipherOutput, 0, tagPos);
+        String authTag = EncodingUtils.base64UrlEncode(cipherOutput, tagPos, ByteUtils.byteLength(128));
 
-        return serialize(encodedHeader, encryptedKey, EncodingUtils.base64UrlEncode(iv), EncodingUtils.base64UrlEncode(cipherText), EncodingUtils.base64UrlEncode(authTag));
+        return serialize(encodedHeader, encryptedKey, EncodingUtils.base64UrlEncode(iv), cipherText, authTag);
     }
 
     private static String serialize(String header, String encryptedKey, String iv, String cipherText, String authTag) {
@@ -94,40 +284,153 @@ public class JweObject {
     }
 
     public static JweObject parse(String encryptedPayload, JsonEngine jsonEngine) {
-        String[] payloadParts = encryptedPayload.trim()
-                .split("\\.");
-
-        String rawHeader = payloadParts[0];
-        String encryptedKey = payloadParts[1];
-        String iv = payloadParts[2];
-        String cipherText = payloadParts[3];
-        String authTag = payloadParts[4];
-        JweHeader header = JweHeader.parseJweHeader(rawHeader, jsonEngine);
+        String serialized = encryptedPayload.trim();
+        int encryptedKeyStart = nextSegment(serialized, 0);
+        int ivStart = nextSegment(serialized, encryptedKeyStart);
+        int cipherTextStart = nextSegment(serialized, ivStart);
+        int authTagStart = nextSegment(serialized, cipherTextStart);
+        if (encryptedKeyStart == 1 || serialized.indexOf('.', authTagStart) != -1) {
+            throw new IllegalArgumentException("Invalid JWE compact serialization!");
+        }
+        return new JweObject(serialized, encryptedKeyStart, ivStart, cipherTextStart, authTagStart, jsonEngine);
+    }
 
-        return new JweObject(header, rawHeader, encryptedKey, iv, cipherText, authTag);
+    /**
+     * Return the start offset of the segment following the one starting at <code>from</code>.
+     */
+    private static int nextSegment(String serialized, int from) {
+        int dot = serialized.indexOf('.', from);
+        if (dot == -1) {
+            throw new IllegalArgumentException("Invalid JWE compact serialization!");
+        }
+        return dot + 1;
     }
 
     public JweHeader getHeader() {
-        return header;
+        JweHeader result = header;
+        if (result == null) {
+            String rawHeader = getRawHeader();
+            result = HEADER_CACHE.get(rawHeader);
+            if (result == null) {
+                result = JweHeader.parseJweHeader(rawHeader, jsonEngine);
+                HEADER_CACHE.put(rawHeader, result);
+            }
+            header = result;
+        }
+        return result;
     }
 
     public String getRawHeader() {
-        return rawHeader;
+        return serialized.substring(0, encryptedKeyStart - 1);
     }
 
-    private String getEncryptedKey() {
-        return encryptedKey;
+    public String getEncryptedKey() {
+        return serialized.substring(encryptedKeyStart, ivStart - 1);
     }
 
     public String getIv() {
-        return iv;
+        return serialized.substring(ivStart, cipherTextStart - 1);
     }
 
     public String getCipherText() {
-        return cipherText;
+        return serialized.substring(cipherTextStart, authTagStart - 1);
     }
 
     public String getAuthTag() {
-        return authTag;
+        return serialized.substring(authTagStart);
+    }
+
+    /**
+     * The decoded cipher text immediately followed by the decoded authentication tag, in a single array.
+     */
+    public byte[] getCipherTextAndAuthTagBytes() {
+        int cipherTextEnd = authTagStart - 1;
+        int cipherTextLength = EncodingUtils.base64UrlDecodedLength(serialized, cipherTextStart, cipherTextEnd);
+        byte[] bytes = new byte[cipherTextLength + EncodingUtils.base64UrlDecodedLength(serialized, authTagStart, serialized.length())];
+        EncodingUtils.base64UrlDecode(serialized, cipherTextStart, cipherTextEnd, bytes, 0);
+        EncodingUtils.base64UrlDecode(serialized, authTagStart, serialized.length(), bytes, cipherTextLength);
+        return bytes;
+    }
+
+    /**
+     * A content encryption key, with its wrapped value.
+     */
+    public static final class ContentKey {
+        private final SecretKeySpec cek;
+        private final String encryptedKey;
+        // Set with the AES GCM key wrap algorithms only
+        private final String keyWrapIv;
+        private final String keyWrapTag;
+        // Set with the ECDH-ES algorithms only
+        private final Map<String, String> ephemeralPublicKey;
+        // The last header completed with the key parameters: { header, completed header }
+        private volatile JweHeader[] completedHeader;
+
+        private ContentKey(SecretKeySpec cek, String encryptedKey) {
+            this(cek, encryptedKey, null, null, null);
+        }
+
+        private ContentKey(SecretKeySpec cek, String encryptedKey, String keyWrapIv, String keyWrapTag, Map<String, String> ephemeralPublicKey) {
+            this.cek = cek;
+            this.encryptedKey = encryptedKey;
+            this.keyWrapIv = keyWrapIv;
+            this.keyWrapTag = keyWrapTag;
+            this.ephemeralPublicKey = ephemeralPublicKey;
+        }
+
+        /**
+         * Generate a content encryption key and wrap it according to the key management algorithm of the
+         * configuration (or, for the "dir" algorithm, return the configured content encryption key).
+         */
+        public static ContentKey generate(JweConfig config) throws EncryptionException, GeneralSecurityException {
+            String algorithm = config.getKeyManagementAlgorithm();
+            if (DIRECT.equals(algorithm)) {
+                return new ContentKey(new SecretKeySpec(config.getContentEncryptionKey().getEncoded(), "AES"), "");
+            }
+            SecretKeySpec cek = AESEncryption.generateCek(256, config.getRandomSource());
+            if (AES_KEY_WRAP_ALGORITHMS.contains(algorithm)) {
+                byte[] encryptedSecretKeyBytes = AESKW.wrapSecretKey(config.getKeyEncryptionKey(), cek);
+                return new ContentKey(cek, EncodingUtils.base64UrlEncode(encryptedSecretKeyBytes));
+            }
+            if (AES_GCM_KEY_WRAP_ALGORITHMS.contains(algorithm)) {
+                byte[] iv = AESEncryption.generateIv(KEY_WRAP_IV_SIZE, config.getRandomSource()).getIV();
+                byte[] cipherOutput = AESGCM.cipher(config.getKeyEncryptionKey(), new GCMParameterSpec(AUTH_TAG_LENGTH, iv), cek.getEncoded(), new byte[0], Cipher.ENCRYPT_MODE);
+                int tagPos = cipherOutput.length - ByteUtils.byteLength(AUTH_TAG_LENGTH);
+                return new ContentKey(cek, EncodingUtils.base64UrlEncode(cipherOutput, 0, tagPos), EncodingUtils.base64UrlEncode(iv),
+                        EncodingUtils.base64UrlEncode(cipherOutput, tagPos, ByteUtils.byteLength(AUTH_TAG_LENGTH)), null);
+            }
+            if (ECDH_ES.equals(algorithm) || ECDH_ES_KEY_WRAP_ALGORITHMS.contains(algorithm)) {
+                PublicKey encryptionKey = config.getEncryptionKey();
+                KeyPair ephemeralKeyPair = ECDH.generateEphemeralKeyPair(encryptionKey);
+                byte[] sharedSecret = ECDH.agree(ephemeralKeyPair.getPrivate(), encryptionKey);
+                Map<String, String> ephemeralPublicKey = ECDH.toJwk(ephemeralKeyPair.getPublic());
+                if (ECDH_ES.equals(algorithm)) {
+                    // The agreed key is the content encryption key (content is always encrypted with A256GCM)
+                    byte[] agreedKey = ECDH.deriveKey(sharedSecret, config.getJweHeader().getEnc(), new byte[0], new byte[0], 256);
+                    return new ContentKey(new SecretKeySpec(agreedKey, "AES"), "", null, null, ephemeralPublicKey);
+                }
+                byte[] keyEncryptionKey = ECDH.deriveKey(sharedSecret, algorithm, new byte[0], new byte[0], 256);
+                byte[] encryptedSecretKeyBytes = AESKW.wrapSecretKey(new SecretKeySpec(keyEncryptionKey, "AES"), cek);
+                return new ContentKey(cek, EncodingUtils.base64UrlEncode(encryptedSecretKeyBytes), null, null, ephemeralPublicKey);
+            }
+            byte[] encryptedSecretKeyBytes = RSA.wrapSecretKey(config.getEncryptionKey(), cek, "SHA-256");
+            return new ContentKey(cek, EncodingUtils.base64UrlEncode(encryptedSecretKeyBytes));
+        }
+
+        /**
+         * The given header, completed with the parameters this key was wrapped with (if any).
+         */
+        JweHeader applyTo(JweHeader header) {
+            if (keyWrapIv == null && ephemeralPublicKey == null) {
+                return header;
+            }
+            JweHeader[] completed = completedHeader;
+            if (completed != null && completed[0] == header) {
+                return completed[1];
+            }
+            JweHeader result = header.withKeyParameters(keyWrapIv, keyWrapTag, ephemeralPublicKey);
+            completedHeader = new JweHeader[] { header, result };
+            return result;
+        }
     }
 }
@@ -0,0 +1,181 @@
+package com.mastercard.developer.encryption.jwe;
+
+import com.mastercard.developer.encryption.EncryptionException;
+import com.mastercard.developer.encryption.JweConfig;
+import com.mastercard.developer.encryption.aes.AESGCM;
+import com.mastercard.developer.json.JsonEngine;
+import com.mastercard.developer.utils.EncodingUtils;
+
+import javax.crypto.Cipher;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.util.Base64;
+
+/**
+ * Decrypt a JWE compact serialization read from a stream, without holding the encoded value as a whole in memory.
+ * <p>
+ * Only the encoded input is streamed: plain text can't be released before the authentication tag has been checked,
+ * so the JDK AES-GCM cipher holds the decoded cipher text until the end of the value, then returns the whole plain
+ * text. Nothing is written before the tag has been verified. Values using other encryption methods are read
+ * and decrypted in memory.
+ */
+public final class JweStreamDecryption {
+
+    private static final int BUFFER_SIZE = 8 * 1024;
+    private static final int MAX_SEGMENT_LENGTH = 64 * 1024;
+
+    private JweStreamDecryption() {
+        // Nothing to do here
+    }
+
+    public static void decrypt(InputStream jwe, WritableByteChannel output, JweConfig config, JsonEngine jsonEngine) throws EncryptionException, GeneralSecurityException, IOException {
+        decrypt(jwe, Channels.newOutputStream(output), config, jsonEngine);
+    }
+
+    public static void decrypt(InputStream jwe, OutputStream output, JweConfig config, JsonEngine jsonEngine) throws EncryptionException, GeneralSecurityException, IOException {
+        SegmentReader reader = new SegmentReader(jwe);
+        String rawHeader = reader.readSegment(false).trim();
+        String encryptedKey = reader.readSegment(false);
+        String iv = reader.readSegment(false);
+        JweHeader header = JweHeader.parseJweHeader(rawHeader, jsonEngine);
+        if (!JweObject.isGcm(header.getEnc())) {
+            String serialized = rawHeader + '.' + encryptedKey + '.' + iv + '.' + reader.readRemaining();
+            output.write(JweObject.parse(serialized, jsonEngine).decryptBytes(config));
+            output.flush();
+            return;
+        }
+        String compressionAlgorithm = header.getZip();
+        if (compressionAlgorithm != null && !JweCompression.DEFLATE.equals(compressionAlgorithm)) {
+            throw new EncryptionException(String.format("Compression algorithm %s not supported", compressionAlgorithm));
+        }
+
+        // Decode the cipher text one chunk at a time, straight into the cipher
+        Key cek = JweObject.unwrapSecretKey(config, header, encryptedKey);
+        Cipher cipher = AESGCM.initDecryptCipher(cek, EncodingUtils.base64UrlDecode(iv),
+                rawHeader.getBytes(StandardCharsets.US_ASCII));
+        byte[] buffer = new byte[BUFFER_SIZE];
+        // Plain text returned before the tag is checked (never with the JDK cipher, which returns it on doFinal)
+        ByteArrayOutputStream heldBack = new ByteArrayOutputStream(0);
+        reader.nextSegment();
+        InputStream decoder = Base64.getUrlDecoder().wrap(reader);
+        for (int length; (length = decoder.read(buffer)) != -1; ) {
+            byte[] plainText = cipher.update(buffer, 0, length);
+            if (plainText != null) {
+                heldBack.write(plainText);
+            }
+        }
+        if (!reader.isSegmentEnd()) {
+            throw new IllegalArgumentException("Invalid JWE compact serialization!");
+        }
+        byte[] plainText = cipher.doFinal(EncodingUtils.base64UrlDecode(reader.readSegment(true).trim()));
+        if (heldBack.size() > 0) {
+            heldBack.write(plainText);
+            plainText = heldBack.toByteArray();
+        }
+        output.write(compressionAlgorithm == null ? plainText : JweCompression.inflate(plainText, config.getMaximumInflatedSize()));
+        output.flush();
+    }
+
+    /**
+     * Reads the '.'-separated segments of a compact serialization. Reading stops at the end of each segment
+     * until {@link #nextSegment()} gets called.
+     */
+    private static final class SegmentReader extends InputStream {
+        private final InputStream input;
+        private final byte[] buffer = new byte[BUFFER_SIZE];
+        private int position;
+        private int limit;
+        private boolean segmentEnd;
+
+        SegmentReader(InputStream input) {
+            this.input = input;
+        }
+
+        /**
+         * Whether the current segment ended with a '.' (rather than with the end of the stream).
+         */
+        boolean isSegmentEnd() {
+            return segmentEnd;
+        }
+
+        void nextSegment() {
+            segmentEnd = false;
+        }
+
+        String readSegment(boolean last) throws IOException {
+            nextSegment();
+            ByteArrayOutputStream segment = new ByteArrayOutputStream();
+            byte[] chunk = new byte[BUFFER_SIZE];
+            for (int length; (length = read(chunk)) != -1; ) {
+                segment.write(chunk, 0, length);
+                if (segment.size() > MAX_SEGMENT_LENGTH) {
+                    throw new IllegalArgumentException("JWE segment too large!");
+                }
+            }
+            if (segmentEnd == last) {
+                throw new IllegalArgumentException("Invalid JWE compact serialization!");
+            }
+            return new String(segment.toByteArray(), StandardCharsets.US_ASCII);
+        }
+
+        String readRemaining() throws IOException {
+            StringBuilder remaining = new StringBuilder();
+            byte[] chunk = new byte[BUFFER_SIZE];
+            do {
+                nextSegment();
+                for (int length; (length = read(chunk)) != -1; ) {
+                    remaining.append(new String(chunk, 0, length, StandardCharsets.US_ASCII));
+                }
+                if (segmentEnd) {
+                    remaining.append('.');
+                }
+            } while (segmentEnd);
+            return remaining.toString();
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] single = new byte[1];
+            return read(single, 0, 1) == -1 ? -1 : single[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) throws IOException {
+            if (segmentEnd || !fill()) {
+                return -1;
+            }
+            int count = Math.min(length, limit - position);
+            for (int i = 0; i < count; i++) {
+                if (buffer[position + i] == '.') {
+                    System.arraycopy(buffer, position, bytes, offset, i);
+                    position += i + 1;
+                    segmentEnd = true;
+                    return i == 0 ? -1 : i;
+                }
+            }
+            System.arraycopy(buffer, position, bytes, offset, count);
+            position += count;
+            return count;
+        }
+
+        private boolean fill() throws IOException {
+            if (position < limit) {
+                return true;
+            }
+            int count;
+            do {
+                count = input.read(buffer);
+            } while (count == 0);
+            position = 0;
+            limit = Math.max(count, 0);
+            return count > 0;
+        }
+    }
+}
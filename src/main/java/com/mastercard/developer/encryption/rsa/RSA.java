@@ -10,6 +10,9 @@ import java.security.Key;
 import java.security.PrivateKey;
 import java.security.PublicKey;
 import java.security.spec.MGF1ParameterSpec;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class RSA {
 
@@ -20,12 +23,17 @@ public class RSA {
     private static final String ASYMMETRIC_CYPHER = "RSA/ECB/OAEPWith{ALG}AndMGF1Padding";
     private static final String SYMMETRIC_KEY_TYPE = "AES";
 
+    // OAEP parameters are immutable, so they are built once per digest algorithm
+    private static final Map<String, OaepParameters> OAEP_PARAMETERS = new ConcurrentHashMap<>();
+
+    // Cipher instances aren't thread safe and are costly to look up, so each thread reuses its own (one per digest algorithm)
+    private static final ThreadLocal<Map<String, Cipher>> CIPHERS = ThreadLocal.withInitial(HashMap::new);
+
     public static byte[] wrapSecretKey(PublicKey publicKey, Key privateKey, String oaepDigestAlgorithm) throws EncryptionException {
         try {
-            MGF1ParameterSpec mgf1ParameterSpec = new MGF1ParameterSpec(oaepDigestAlgorithm);
-            String asymmetricCipher = ASYMMETRIC_CYPHER.replace("{ALG}", mgf1ParameterSpec.getDigestAlgorithm());
-            Cipher cipher = Cipher.getInstance(asymmetricCipher);
-            cipher.init(Cipher.WRAP_MODE, publicKey, getOaepParameterSpec(mgf1ParameterSpec));
+            OaepParameters oaepParameters = getOaepParameters(oaepDigestAlgorithm);
+            Cipher cipher = getCipher(oaepParameters);
+            cipher.init(Cipher.WRAP_MODE, publicKey, oaepParameters.parameterSpec);
             return cipher.wrap(privateKey);
         } catch (GeneralSecurityException e) {
             throw new EncryptionException("Failed to wrap secret key!", e);
@@ -37,17 +45,37 @@ public class RSA {
             oaepDigestAlgorithm = oaepDigestAlgorithm.replace("SHA", "SHA-");
         }
         try {
-            MGF1ParameterSpec mgf1ParameterSpec = new MGF1ParameterSpec(oaepDigestAlgorithm);
-            String asymmetricCipher = ASYMMETRIC_CYPHER.replace("{ALG}", mgf1ParameterSpec.getDigestAlgorithm());
-            Cipher cipher = Cipher.getInstance(asymmetricCipher);
-            cipher.init(Cipher.UNWRAP_MODE, decryptionKey, getOaepParameterSpec(mgf1ParameterSpec));
+            OaepParameters oaepParameters = getOaepParameters(oaepDigestAlgorithm);
+            Cipher cipher = getCipher(oaepParameters);
+            cipher.init(Cipher.UNWRAP_MODE, decryptionKey, oaepParameters.parameterSpec);
             return cipher.unwrap(keyBytes, SYMMETRIC_KEY_TYPE, Cipher.SECRET_KEY);
         } catch (GeneralSecurityException e) {
             throw new EncryptionException("Failed to unwrap secret key!", e);
         }
     }
 
-    private static OAEPParameterSpec getOaepParameterSpec(MGF1ParameterSpec mgf1ParameterSpec) {
-        return new OAEPParameterSpec(mgf1ParameterSpec.getDigestAlgorithm(), "MGF1", mgf1ParameterSpec, PSource.PSpecified.DEFAULT);
+    private static OaepParameters getOaepParameters(String oaepDigestAlgorithm) {
+        return OAEP_PARAMETERS.computeIfAbsent(oaepDigestAlgorithm, OaepParameters::new);
+    }
+
+    private static Cipher getCipher(OaepParameters oaepParameters) throws GeneralSecurityException {
+        Map<String, Cipher> ciphers = CIPHERS.get();
+        Cipher cipher = ciphers.get(oaepParameters.transformation);
+        if (cipher == null) {
+            cipher = Cipher.getInstance(oaepParameters.transformation);
+            ciphers.put(oaepParameters.transformation, cipher);
+        }
+        return cipher;
+    }
+
+    private static final class OaepParameters {
+        private final String transformation;
+        private final OAEPParameterSpec parameterSpec;
+
+        private OaepParameters(String oaepDigestAlgorithm) {
+            MGF1ParameterSpec mgf1ParameterSpec = new MGF1ParameterSpec(oaepDigestAlgorithm);
+            this.transformation = ASYMMETRIC_CYPHER.replace("{ALG}", mgf1ParameterSpec.getDigestAlgorithm());
+            this.parameterSpec = new OAEPParameterSpec(mgf1ParameterSpec.getDigestAlgorithm(), "MGF1", mgf1ParameterSpec, PSource.PSpecified.DEFAULT);
+        }
     }
 }
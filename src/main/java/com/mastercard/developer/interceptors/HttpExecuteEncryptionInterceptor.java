@@ -9,14 +9,15 @@ import com.google.api.client.http.HttpResponse;
 import com.google.api.client.http.HttpResponseInterceptor;
 import com.mastercard.developer.encryption.EncryptionConfig;
 import com.mastercard.developer.encryption.EncryptionException;
+import com.mastercard.developer.encryption.PayloadDecryptor;
+import com.mastercard.developer.encryption.PayloadEncryptor;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.lang.reflect.Field;
 import java.nio.charset.StandardCharsets;
 
-import static com.mastercard.developer.utils.StringUtils.isNullOrEmpty;
-
 /**
  * A Google Client API interceptor for encrypting/decrypting parts of HTTP payloads.
  * See also:
@@ -25,10 +26,72 @@ import static com.mastercard.developer.utils.StringUtils.isNullOrEmpty;
  */
 public abstract class HttpExecuteEncryptionInterceptor implements HttpExecuteInterceptor, HttpResponseInterceptor {
 
+    // Null when the interceptor was created without a configuration
+    private final PayloadEncryptor encryptor;
+    // Whether byte[] payloads get encrypted directly, without going through the String hook
+    private final boolean encryptsBytes;
+    private final PayloadDecryptor decryptor;
+    // Whether byte[] payloads get decrypted directly, without going through the String hook
+    private final boolean decryptsBytes;
+
+    protected HttpExecuteEncryptionInterceptor() {
+        this.encryptor = null;
+        this.encryptsBytes = false;
+        this.decryptor = null;
+        this.decryptsBytes = false;
+    }
+
+    protected HttpExecuteEncryptionInterceptor(EncryptionConfig config) {
+        this.encryptor = new PayloadEncryptor(config);
+        this.encryptsBytes = InterceptorHooks.isLibraryHook(getClass(), "encryptPayload", HttpHeaders.class, String.class);
+        this.decryptor = new PayloadDecryptor(config);
+        this.decryptsBytes = InterceptorHooks.isLibraryHook(getClass(), "decryptPayload", HttpHeaders.class, String.class);
+    }
+
+    protected PayloadEncryptor getEncryptor() {
+        return encryptor;
+    }
+
+    boolean encryptsBytes() {
+        return encryptsBytes;
+    }
+
+    protected PayloadDecryptor getDecryptor() {
+        return decryptor;
+    }
+
+    boolean decryptsBytes() {
+        return decryptsBytes;
+    }
+
     protected abstract String encryptPayload(HttpHeaders headers, String requestPayload) throws EncryptionException;
 
+    /**
+     * Encrypt a UTF-8 encoded request payload. Encrypts the bytes directly when the interceptor was created
+     * with a configuration and {@link #encryptPayload(HttpHeaders, String)} isn't overridden by an application subclass,
+     * calls it otherwise.
+     */
+    protected byte[] encryptPayload(HttpHeaders headers, byte[] requestPayload) throws EncryptionException {
+        if (encryptsBytes) {
+            return encryptor.encrypt(requestPayload);
+        }
+        return encryptPayload(headers, new String(requestPayload, StandardCharsets.UTF_8)).getBytes(StandardCharsets.UTF_8);
+    }
+
     protected abstract String decryptPayload(HttpHeaders headers, String responsePayload) throws EncryptionException;
 
+    /**
+     * Decrypt a UTF-8 encoded response payload. Decrypts the bytes directly when the interceptor was created
+     * with a configuration and {@link #decryptPayload(HttpHeaders, String)} isn't overridden by an application subclass,
+     * calls it otherwise.
+     */
+    protected byte[] decryptPayload(HttpHeaders headers, byte[] responsePayload) throws EncryptionException {
+        if (decryptsBytes) {
+            return decryptor.decrypt(responsePayload);
+        }
+        return decryptPayload(headers, new String(responsePayload, StandardCharsets.UTF_8)).getBytes(StandardCharsets.UTF_8);
+    }
+
     public static HttpExecuteEncryptionInterceptor from(EncryptionConfig config) {
         return config.getScheme().equals(EncryptionConfig.Scheme.JWE) ? new HttpExecuteJweInterceptor(config) : new HttpExecuteFieldLevelEncryptionInterceptor(config) {
         };
@@ -47,13 +110,13 @@ public abstract class HttpExecuteEncryptionInterceptor implements HttpExecuteInt
             // Read request payload
             ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
             content.writeTo(outputStream);
-            String requestPayload = outputStream.toString(StandardCharsets.UTF_8.name());
+            byte[] requestPayload = outputStream.toByteArray();
 
             // Encrypt fields & update headers
             HttpHeaders headers = request.getHeaders();
-            String encryptedPayload = encryptPayload(headers, requestPayload);
+            byte[] encryptedPayload = encryptPayload(headers, requestPayload);
 
-            HttpContent encryptedContent = new ByteArrayContent("application/json; charset=" + StandardCharsets.UTF_8.name(), encryptedPayload.getBytes());
+            HttpContent encryptedContent = new ByteArrayContent("application/json; charset=" + StandardCharsets.UTF_8.name(), encryptedPayload);
             headers.setContentLength(encryptedContent.getLength());
             request.setContent(encryptedContent);
 
@@ -67,17 +130,17 @@ public abstract class HttpExecuteEncryptionInterceptor implements HttpExecuteInt
     public void interceptResponse(HttpResponse response) throws IOException {
         try {
             // Read response payload
-            String responsePayload = response.parseAsString();
-            if (isNullOrEmpty(responsePayload)) {
+            byte[] responsePayload = readContent(response);
+            if (responsePayload.length == 0) {
                 // Nothing to encrypt
                 return;
             }
 
             // Decrypt fields & update headers
             HttpHeaders headers = response.getHeaders();
-            String decryptedPayload = decryptPayload(headers, responsePayload);
+            byte[] decryptedPayload = decryptPayload(headers, responsePayload);
 
-            ByteArrayContent decryptedContent = new ByteArrayContent("application/json; charset=" + StandardCharsets.UTF_8.name(), decryptedPayload.getBytes());
+            ByteArrayContent decryptedContent = new ByteArrayContent("application/json; charset=" + StandardCharsets.UTF_8.name(), decryptedPayload);
             headers.setContentLength(decryptedContent.getLength());
 
             // The HttpResponse public interface prevent from updating the response payload:
@@ -93,6 +156,12 @@ public abstract class HttpExecuteEncryptionInterceptor implements HttpExecuteInt
         }
     }
 
+    private static byte[] readContent(HttpResponse response) throws IOException {
+        try (InputStream content = response.getContent()) {
+            return content == null ? new byte[0] : content.readAllBytes();
+        }
+    }
+
     static void removeHeader(HttpHeaders headers, String name) {
         if (name == null) {
             // Do nothing
@@ -14,43 +14,67 @@ public class HttpExecuteFieldLevelEncryptionInterceptor extends HttpExecuteEncry
     private final FieldLevelEncryptionConfig config;
 
     public HttpExecuteFieldLevelEncryptionInterceptor(EncryptionConfig config) {
+        super(config);
         this.config = (FieldLevelEncryptionConfig) config;
     }
 
     @Override
     protected String encryptPayload(HttpHeaders headers, String requestPayload) throws EncryptionException {
-        if (config.useHttpHeaders()) {
-            // Generate encryption params and add them as HTTP headers
-            FieldLevelEncryptionParams params = FieldLevelEncryptionParams.generate(config);
-            updateHeader(headers, config.getIvHeaderName(), params.getIvValue());
-            updateHeader(headers, config.getEncryptedKeyHeaderName(), params.getEncryptedKeyValue());
-            updateHeader(headers, config.getEncryptionCertificateFingerprintHeaderName(), config.getEncryptionCertificateFingerprint());
-            updateHeader(headers, config.getEncryptionKeyFingerprintHeaderName(), config.getEncryptionKeyFingerprint());
-            updateHeader(headers, config.getOaepPaddingDigestAlgorithmHeaderName(), params.getOaepPaddingDigestAlgorithmValue());
-            return FieldLevelEncryption.encryptPayload(requestPayload, config, params);
-        } else {
+        return getEncryptor().encrypt(requestPayload, encryptionParams(headers));
+    }
+
+    @Override
+    protected byte[] encryptPayload(HttpHeaders headers, byte[] requestPayload) throws EncryptionException {
+        if (!encryptsBytes()) {
+            // The String hook is overridden
+            return super.encryptPayload(headers, requestPayload);
+        }
+        return getEncryptor().encrypt(requestPayload, encryptionParams(headers));
+    }
+
+    private FieldLevelEncryptionParams encryptionParams(HttpHeaders headers) throws EncryptionException {
+        if (!config.useHttpHeaders()) {
             // Encryption params will be stored in the payload
-            return FieldLevelEncryption.encryptPayload(requestPayload, config);
+            return null;
         }
+        // Generate encryption params and add them as HTTP headers
+        FieldLevelEncryptionParams params = FieldLevelEncryptionParams.generate(config);
+        updateHeader(headers, config.getIvHeaderName(), params.getIvValue());
+        updateHeader(headers, config.getEncryptedKeyHeaderName(), params.getEncryptedKeyValue());
+        updateHeader(headers, config.getEncryptionCertificateFingerprintHeaderName(), config.getEncryptionCertificateFingerprint());
+        updateHeader(headers, config.getEncryptionKeyFingerprintHeaderName(), config.getEncryptionKeyFingerprint());
+        updateHeader(headers, config.getOaepPaddingDigestAlgorithmHeaderName(), params.getOaepPaddingDigestAlgorithmValue());
+        return params;
     }
 
     @Override
     protected String decryptPayload(HttpHeaders headers, String responsePayload) throws EncryptionException {
-        if (config.useHttpHeaders()) {
-            // Read encryption params from HTTP headers and delete headers
-            String ivValue = headers.getFirstHeaderStringValue(config.getIvHeaderName());
-            String oaepPaddingDigestAlgorithmValue = headers.getFirstHeaderStringValue(config.getOaepPaddingDigestAlgorithmHeaderName());
-            String encryptedKeyValue = headers.getFirstHeaderStringValue(config.getEncryptedKeyHeaderName());
-            removeHeader(headers, config.getIvHeaderName());
-            removeHeader(headers, config.getEncryptedKeyHeaderName());
-            removeHeader(headers, config.getOaepPaddingDigestAlgorithmHeaderName());
-            removeHeader(headers, config.getEncryptionCertificateFingerprintHeaderName());
-            removeHeader(headers, config.getEncryptionKeyFingerprintHeaderName());
-            FieldLevelEncryptionParams params = new FieldLevelEncryptionParams(ivValue, encryptedKeyValue, oaepPaddingDigestAlgorithmValue, config);
-            return FieldLevelEncryption.decryptPayload(responsePayload, config, params);
-        } else {
+        return getDecryptor().decrypt(responsePayload, decryptionParams(headers));
+    }
+
+    @Override
+    protected byte[] decryptPayload(HttpHeaders headers, byte[] responsePayload) throws EncryptionException {
+        if (!decryptsBytes()) {
+            // The String hook is overridden
+            return super.decryptPayload(headers, responsePayload);
+        }
+        return getDecryptor().decrypt(responsePayload, decryptionParams(headers));
+    }
+
+    private FieldLevelEncryptionParams decryptionParams(HttpHeaders headers) throws EncryptionException {
+        if (!config.useHttpHeaders()) {
             // Encryption params are stored in the payload
-            return FieldLevelEncryption.decryptPayload(responsePayload, config);
+            return null;
         }
+        // Read encryption params from HTTP headers and delete headers
+        String ivValue = headers.getFirstHeaderStringValue(config.getIvHeaderName());
+        String oaepPaddingDigestAlgorithmValue = headers.getFirstHeaderStringValue(config.getOaepPaddingDigestAlgorithmHeaderName());
+        String encryptedKeyValue = headers.getFirstHeaderStringValue(config.getEncryptedKeyHeaderName());
+        removeHeader(headers, config.getIvHeaderName());
+        removeHeader(headers, config.getEncryptedKeyHeaderName());
+        removeHeader(headers, config.getOaepPaddingDigestAlgorithmHeaderName());
+        removeHeader(headers, config.getEncryptionCertificateFingerprintHeaderName());
+        removeHeader(headers, config.getEncryptionKeyFingerprintHeaderName());
+        return new FieldLevelEncryptionParams(ivValue, encryptedKeyValue, oaepPaddingDigestAlgorithmValue, config);
     }
 }
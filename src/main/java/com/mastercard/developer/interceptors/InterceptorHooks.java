@@ -0,0 +1,50 @@
+package com.mastercard.developer.interceptors;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Helpers for the payload hooks of the interceptors.
+ */
+final class InterceptorHooks {
+
+    // Simple names rather than classes, since the HTTP client libraries are optional dependencies
+    private static final Set<String> LIBRARY_CLASS_NAMES = new HashSet<>(Arrays.asList(
+            "HttpExecuteEncryptionInterceptor",
+            "HttpExecuteFieldLevelEncryptionInterceptor",
+            "HttpExecuteJweInterceptor",
+            "OkHttpEncryptionInterceptor",
+            "OkHttpFieldLevelEncryptionInterceptor",
+            "OkHttpJweInterceptor",
+            "OkHttp2EncryptionInterceptor",
+            "OkHttp2FieldLevelEncryptionInterceptor",
+            "OkHttp2JweInterceptor",
+            "OpenFeignEncoderExecutor",
+            "OpenFeignFieldLevelEncryptionEncoder",
+            "OpenFeignJweEncoder",
+            "OpenFeignDecoderExecutor",
+            "OpenFeignFieldLevelEncryptionDecoder",
+            "OpenFeignJweDecoder"));
+
+    private InterceptorHooks() {
+        // Nothing to do here
+    }
+
+    /**
+     * Whether the implementation of the given method used by instances of the given class is the one of this
+     * library, that is to say not overridden by an application subclass.
+     */
+    static boolean isLibraryHook(Class<?> type, String name, Class<?>... parameterTypes) {
+        for (Class<?> declaringType = type; declaringType != null; declaringType = declaringType.getSuperclass()) {
+            try {
+                declaringType.getDeclaredMethod(name, parameterTypes);
+                return InterceptorHooks.class.getPackage().equals(declaringType.getPackage())
+                        && LIBRARY_CLASS_NAMES.contains(declaringType.getSimpleName());
+            } catch (NoSuchMethodException e) {
+                // Look in the superclass
+            }
+        }
+        return false;
+    }
+}
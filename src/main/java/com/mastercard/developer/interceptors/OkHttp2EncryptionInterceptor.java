@@ -2,6 +2,8 @@ package com.mastercard.developer.interceptors;
 
 import com.mastercard.developer.encryption.EncryptionConfig;
 import com.mastercard.developer.encryption.EncryptionException;
+import com.mastercard.developer.encryption.PayloadDecryptor;
+import com.mastercard.developer.encryption.PayloadEncryptor;
 import okhttp3.Request;
 import okhttp3.RequestBody;
 import okhttp3.Response;
@@ -9,14 +11,76 @@ import okhttp3.ResponseBody;
 import okhttp3.Interceptor;
 import okio.Buffer;
 import java.io.IOException;
-import static com.mastercard.developer.utils.StringUtils.isNullOrEmpty;
+import java.nio.charset.StandardCharsets;
 
 public abstract class OkHttp2EncryptionInterceptor implements Interceptor {
 
+    // Null when the interceptor was created without a configuration
+    private final PayloadEncryptor encryptor;
+    // Whether byte[] payloads get encrypted directly, without going through the String hook
+    private final boolean encryptsBytes;
+    private final PayloadDecryptor decryptor;
+    // Whether byte[] payloads get decrypted directly, without going through the String hook
+    private final boolean decryptsBytes;
+
+    protected OkHttp2EncryptionInterceptor() {
+        this.encryptor = null;
+        this.encryptsBytes = false;
+        this.decryptor = null;
+        this.decryptsBytes = false;
+    }
+
+    protected OkHttp2EncryptionInterceptor(EncryptionConfig config) {
+        this.encryptor = new PayloadEncryptor(config);
+        this.encryptsBytes = InterceptorHooks.isLibraryHook(getClass(), "encryptPayload", Request.class, Request.Builder.class, String.class);
+        this.decryptor = new PayloadDecryptor(config);
+        this.decryptsBytes = InterceptorHooks.isLibraryHook(getClass(), "decryptPayload", Response.class, Response.Builder.class, String.class);
+    }
+
+    protected PayloadEncryptor getEncryptor() {
+        return encryptor;
+    }
+
+    boolean encryptsBytes() {
+        return encryptsBytes;
+    }
+
+    protected PayloadDecryptor getDecryptor() {
+        return decryptor;
+    }
+
+    boolean decryptsBytes() {
+        return decryptsBytes;
+    }
+
     protected abstract String encryptPayload(Request request, Request.Builder newBuilder, String requestPayload) throws EncryptionException;
 
+    /**
+     * Encrypt a UTF-8 encoded request payload. Encrypts the bytes directly when the interceptor was created
+     * with a configuration and {@link #encryptPayload(Request, Request.Builder, String)} isn't overridden by an application subclass,
+     * calls it otherwise.
+     */
+    protected byte[] encryptPayload(Request request, Request.Builder newBuilder, byte[] requestPayload) throws EncryptionException {
+        if (encryptsBytes) {
+            return encryptor.encrypt(requestPayload);
+        }
+        return encryptPayload(request, newBuilder, new String(requestPayload, StandardCharsets.UTF_8)).getBytes(StandardCharsets.UTF_8);
+    }
+
     protected abstract String decryptPayload(Response response, Response.Builder newBuilder, String responsePayload) throws EncryptionException;
 
+    /**
+     * Decrypt a UTF-8 encoded response payload. Decrypts the bytes directly when the interceptor was created
+     * with a configuration and {@link #decryptPayload(Response, Response.Builder, String)} isn't overridden by an application subclass,
+     * calls it otherwise.
+     */
+    protected byte[] decryptPayload(Response response, Response.Builder newBuilder, byte[] responsePayload) throws EncryptionException {
+        if (decryptsBytes) {
+            return decryptor.decrypt(responsePayload);
+        }
+        return decryptPayload(response, newBuilder, new String(responsePayload, StandardCharsets.UTF_8)).getBytes(StandardCharsets.UTF_8);
+    }
+
     public static OkHttp2EncryptionInterceptor from(EncryptionConfig config) {
         return config.getScheme().equals(EncryptionConfig.Scheme.JWE) ? new OkHttp2JweInterceptor(config) : new OkHttp2FieldLevelEncryptionInterceptor(config);
     }
@@ -38,17 +102,17 @@ public abstract class OkHttp2EncryptionInterceptor implements Interceptor {
             }
 
             // Read request payload
-            String requestPayload;
+            byte[] requestPayload;
             try (Buffer buffer = new Buffer()) {
                 request.body().writeTo(buffer);
-                requestPayload = buffer.readUtf8();
+                requestPayload = buffer.readByteArray();
             }
 
             // Encrypt fields & update headers
             Request.Builder requestBuilder = request.newBuilder();
-            String encryptedPayload = encryptPayload(request, requestBuilder, requestPayload);
+            byte[] encryptedPayload = encryptPayload(request, requestBuilder, requestPayload);
 
-            RequestBody encryptedBody = RequestBody.create(encryptedPayload.getBytes(), requestBody.contentType());
+            RequestBody encryptedBody = RequestBody.create(encryptedPayload, requestBody.contentType());
             return requestBuilder
                     .method(request.method(), encryptedBody)
                     .header("Content-Length", String.valueOf(encryptedBody.contentLength()))
@@ -69,17 +133,17 @@ public abstract class OkHttp2EncryptionInterceptor implements Interceptor {
             }
 
             // Read response payload
-            String responsePayload = responseBody.string();
-            if (isNullOrEmpty(responsePayload)) {
+            byte[] responsePayload = responseBody.bytes();
+            if (responsePayload.length == 0) {
                 // Nothing to decrypt
                 return response;
             }
 
             // Decrypt fields & update headers
             Response.Builder responseBuilder = response.newBuilder();
-            String decryptedPayload = decryptPayload(response, responseBuilder, responsePayload);
+            byte[] decryptedPayload = decryptPayload(response, responseBuilder, responsePayload);
 
-            try (ResponseBody decryptedBody = ResponseBody.create(decryptedPayload.getBytes(), responseBody.contentType())) {
+            try (ResponseBody decryptedBody = ResponseBody.create(decryptedPayload, responseBody.contentType())) {
                 return responseBuilder
                         .body(decryptedBody)
                         .header("Content-Length", String.valueOf(decryptedBody.contentLength()))
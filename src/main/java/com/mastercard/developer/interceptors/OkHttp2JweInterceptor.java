@@ -2,8 +2,6 @@ package com.mastercard.developer.interceptors;
 
 import com.mastercard.developer.encryption.EncryptionConfig;
 import com.mastercard.developer.encryption.EncryptionException;
-import com.mastercard.developer.encryption.JweConfig;
-import com.mastercard.developer.encryption.JweEncryption;
 import okhttp3.Request;
 import okhttp3.Response;
 
@@ -13,19 +11,17 @@ import okhttp3.Response;
  */
 public class OkHttp2JweInterceptor extends OkHttp2EncryptionInterceptor {
 
-    private final JweConfig config;
-
     public OkHttp2JweInterceptor(EncryptionConfig config) {
-        this.config = (JweConfig) config;
+        super(config);
     }
 
     @Override
     protected String encryptPayload(Request request, Request.Builder requestBuilder, String requestPayload) throws EncryptionException {
-        return JweEncryption.encryptPayload(requestPayload, config);
+        return getEncryptor().encrypt(requestPayload);
     }
 
     @Override
     protected String decryptPayload(Response response, Response.Builder responseBuilder, String responsePayload) throws EncryptionException {
-        return JweEncryption.decryptPayload(responsePayload, config);
+        return getDecryptor().decrypt(responsePayload);
     }
 }
@@ -5,18 +5,79 @@ import okhttp3.*;
 import okio.Buffer;
 
 import java.io.IOException;
-
-import static com.mastercard.developer.utils.StringUtils.isNullOrEmpty;
+import java.nio.charset.StandardCharsets;
 
 public abstract class OkHttpEncryptionInterceptor implements Interceptor {
 
     public static OkHttpEncryptionInterceptor from(EncryptionConfig config) {
         return config.getScheme().equals(EncryptionConfig.Scheme.JWE) ? new OkHttpJweInterceptor(config) : new OkHttpFieldLevelEncryptionInterceptor(config);
     }
+    // Null when the interceptor was created without a configuration
+    private final PayloadEncryptor encryptor;
+    // Whether byte[] payloads get encrypted directly, without going through the String hook
+    private final boolean encryptsBytes;
+    private final PayloadDecryptor decryptor;
+    // Whether byte[] payloads get decrypted directly, without going through the String hook
+    private final boolean decryptsBytes;
+
+    protected OkHttpEncryptionInterceptor() {
+        this.encryptor = null;
+        this.encryptsBytes = false;
+        this.decryptor = null;
+        this.decryptsBytes = false;
+    }
+
+    protected OkHttpEncryptionInterceptor(EncryptionConfig config) {
+        this.encryptor = new PayloadEncryptor(config);
+        this.encryptsBytes = InterceptorHooks.isLibraryHook(getClass(), "encryptPayload", Request.class, Request.Builder.class, String.class);
+        this.decryptor = new PayloadDecryptor(config);
+        this.decryptsBytes = InterceptorHooks.isLibraryHook(getClass(), "decryptPayload", Response.class, Response.Builder.class, String.class);
+    }
+
+    protected PayloadEncryptor getEncryptor() {
+        return encryptor;
+    }
+
+    boolean encryptsBytes() {
+        return encryptsBytes;
+    }
+
+    protected PayloadDecryptor getDecryptor() {
+        return decryptor;
+    }
+
+    boolean decryptsBytes() {
+        return decryptsBytes;
+    }
+
     protected abstract String encryptPayload(Request request, Request.Builder newBuilder, String requestPayload) throws EncryptionException;
 
+    /**
+     * Encrypt a UTF-8 encoded request payload. Encrypts the bytes directly when the interceptor was created
+     * with a configuration and {@link #encryptPayload(Request, Request.Builder, String)} isn't overridden by an application subclass,
+     * calls it otherwise.
+     */
+    protected byte[] encryptPayload(Request request, Request.Builder newBuilder, byte[] requestPayload) throws EncryptionException {
+        if (encryptsBytes) {
+            return encryptor.encrypt(requestPayload);
+        }
+        return encryptPayload(request, newBuilder, new String(requestPayload, StandardCharsets.UTF_8)).getBytes(StandardCharsets.UTF_8);
+    }
+
     protected abstract String decryptPayload(Response response, Response.Builder newBuilder, String responsePayload) throws EncryptionException;
 
+    /**
+     * Decrypt a UTF-8 encoded response payload. Decrypts the bytes directly when the interceptor was created
+     * with a configuration and {@link #decryptPayload(Response, Response.Builder, String)} isn't overridden by an application subclass,
+     * calls it otherwise.
+     */
+    protected byte[] decryptPayload(Response response, Response.Builder newBuilder, byte[] responsePayload) throws EncryptionException {
+        if (decryptsBytes) {
+            return decryptor.decrypt(responsePayload);
+        }
+        return decryptPayload(response, newBuilder, new String(responsePayload, StandardCharsets.UTF_8)).getBytes(StandardCharsets.UTF_8);
+    }
+
     @Override
     public Response intercept(Chain chain) throws IOException {
         Request encryptedRequest = handleRequest(chain.request());
@@ -35,15 +96,15 @@ public abstract class OkHttpEncryptionInterceptor implements Interceptor {
             }
 
             // Read request payload
-            String requestPayload;
+            byte[] requestPayload;
             try (Buffer buffer = new Buffer()) {
                 request.body().writeTo(buffer);
-                requestPayload = buffer.readUtf8();
+                requestPayload = buffer.readByteArray();
             }
 
             // Encrypt fields & update headers
             Request.Builder requestBuilder = request.newBuilder();
-            String encryptedPayload = encryptPayload(request, requestBuilder, requestPayload);
+            byte[] encryptedPayload = encryptPayload(request, requestBuilder, requestPayload);
 
             RequestBody encryptedBody = RequestBody.create(requestBody.contentType(), encryptedPayload);
             return requestBuilder
@@ -67,15 +128,15 @@ public abstract class OkHttpEncryptionInterceptor implements Interceptor {
             }
 
             // Read response payload
-            String responsePayload = responseBody.string();
-            if (isNullOrEmpty(responsePayload)) {
+            byte[] responsePayload = responseBody.bytes();
+            if (responsePayload.length == 0) {
                 // Nothing to decrypt
                 return response;
             }
 
             // Decrypt fields & update headers
             Response.Builder responseBuilder = response.newBuilder();
-            String decryptedPayload = decryptPayload(response, responseBuilder, responsePayload);
+            byte[] decryptedPayload = decryptPayload(response, responseBuilder, responsePayload);
 
             try (ResponseBody decryptedBody = ResponseBody.create(responseBody.contentType(), decryptedPayload)) {
                 return responseBuilder
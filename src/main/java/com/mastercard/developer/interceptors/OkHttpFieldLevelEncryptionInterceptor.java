@@ -13,43 +13,67 @@ public class OkHttpFieldLevelEncryptionInterceptor extends OkHttpEncryptionInter
     private final FieldLevelEncryptionConfig config;
 
     public OkHttpFieldLevelEncryptionInterceptor(EncryptionConfig config) {
+        super(config);
         this.config = (FieldLevelEncryptionConfig) config;
     }
 
     @Override
     protected String encryptPayload(Request request, Request.Builder requestBuilder, String requestPayload) throws EncryptionException {
-        if (config.useHttpHeaders()) {
-            // Generate encryption params and add them as HTTP headers
-            FieldLevelEncryptionParams params = FieldLevelEncryptionParams.generate(config);
-            updateHeader(requestBuilder, config.getIvHeaderName(), params.getIvValue());
-            updateHeader(requestBuilder, config.getEncryptedKeyHeaderName(), params.getEncryptedKeyValue());
-            updateHeader(requestBuilder, config.getEncryptionCertificateFingerprintHeaderName(), config.getEncryptionCertificateFingerprint());
-            updateHeader(requestBuilder, config.getEncryptionKeyFingerprintHeaderName(), config.getEncryptionKeyFingerprint());
-            updateHeader(requestBuilder, config.getOaepPaddingDigestAlgorithmHeaderName(), params.getOaepPaddingDigestAlgorithmValue());
-            return FieldLevelEncryption.encryptPayload(requestPayload, config, params);
-        } else {
+        return getEncryptor().encrypt(requestPayload, encryptionParams(requestBuilder));
+    }
+
+    @Override
+    protected byte[] encryptPayload(Request request, Request.Builder requestBuilder, byte[] requestPayload) throws EncryptionException {
+        if (!encryptsBytes()) {
+            // The String hook is overridden
+            return super.encryptPayload(request, requestBuilder, requestPayload);
+        }
+        return getEncryptor().encrypt(requestPayload, encryptionParams(requestBuilder));
+    }
+
+    private FieldLevelEncryptionParams encryptionParams(Request.Builder requestBuilder) throws EncryptionException {
+        if (!config.useHttpHeaders()) {
             // Encryption params will be stored in the payload
-            return FieldLevelEncryption.encryptPayload(requestPayload, config);
+            return null;
         }
+        // Generate encryption params and add them as HTTP headers
+        FieldLevelEncryptionParams params = FieldLevelEncryptionParams.generate(config);
+        updateHeader(requestBuilder, config.getIvHeaderName(), params.getIvValue());
+        updateHeader(requestBuilder, config.getEncryptedKeyHeaderName(), params.getEncryptedKeyValue());
+        updateHeader(requestBuilder, config.getEncryptionCertificateFingerprintHeaderName(), config.getEncryptionCertificateFingerprint());
+        updateHeader(requestBuilder, config.getEncryptionKeyFingerprintHeaderName(), config.getEncryptionKeyFingerprint());
+        updateHeader(requestBuilder, config.getOaepPaddingDigestAlgorithmHeaderName(), params.getOaepPaddingDigestAlgorithmValue());
+        return params;
     }
 
     @Override
     protected String decryptPayload(Response response, Response.Builder responseBuilder, String responsePayload) throws EncryptionException {
-        if (config.useHttpHeaders()) {
-            // Read encryption params from HTTP headers and delete headers
-            String ivValue = response.header(config.getIvHeaderName(), null);
-            String oaepPaddingDigestAlgorithmValue = response.header(config.getOaepPaddingDigestAlgorithmHeaderName(), null);
-            String encryptedKeyValue = response.header(config.getEncryptedKeyHeaderName(), null);
-            removeHeader(responseBuilder, config.getIvHeaderName());
-            removeHeader(responseBuilder, config.getEncryptedKeyHeaderName());
-            removeHeader(responseBuilder, config.getOaepPaddingDigestAlgorithmHeaderName());
-            removeHeader(responseBuilder, config.getEncryptionCertificateFingerprintHeaderName());
-            removeHeader(responseBuilder, config.getEncryptionKeyFingerprintHeaderName());
-            FieldLevelEncryptionParams params = new FieldLevelEncryptionParams(ivValue, encryptedKeyValue, oaepPaddingDigestAlgorithmValue, config);
-            return FieldLevelEncryption.decryptPayload(responsePayload, config, params);
-        } else {
+        return getDecryptor().decrypt(responsePayload, decryptionParams(response, responseBuilder));
+    }
+
+    @Override
+    protected byte[] decryptPayload(Response response, Response.Builder responseBuilder, byte[] responsePayload) throws EncryptionException {
+        if (!decryptsBytes()) {
+            // The String hook is overridden
+            return super.decryptPayload(response, responseBuilder, responsePayload);
+        }
+        return getDecryptor().decrypt(responsePayload, decryptionParams(response, responseBuilder));
+    }
+
+    private FieldLevelEncryptionParams decryptionParams(Response response, Response.Builder responseBuilder) throws EncryptionException {
+        if (!config.useHttpHeaders()) {
             // Encryption params are stored in the payload
-            return FieldLevelEncryption.decryptPayload(responsePayload, config);
+            return null;
         }
+        // Read encryption params from HTTP headers and delete headers
+        String ivValue = response.header(config.getIvHeaderName(), null);
+        String oaepPaddingDigestAlgorithmValue = response.header(config.getOaepPaddingDigestAlgorithmHeaderName(), null);
+        String encryptedKeyValue = response.header(config.getEncryptedKeyHeaderName(), null);
+        removeHeader(responseBuilder, config.getIvHeaderName());
+        removeHeader(responseBuilder, config.getEncryptedKeyHeaderName());
+        removeHeader(responseBuilder, config.getOaepPaddingDigestAlgorithmHeaderName());
+        removeHeader(responseBuilder, config.getEncryptionCertificateFingerprintHeaderName());
+        removeHeader(responseBuilder, config.getEncryptionKeyFingerprintHeaderName());
+        return new FieldLevelEncryptionParams(ivValue, encryptedKeyValue, oaepPaddingDigestAlgorithmValue, config);
     }
 }
@@ -2,6 +2,7 @@ package com.mastercard.developer.interceptors;
 
 import com.mastercard.developer.encryption.EncryptionConfig;
 import com.mastercard.developer.encryption.EncryptionException;
+import com.mastercard.developer.encryption.PayloadDecryptor;
 import feign.Response;
 import feign.Util;
 import feign.codec.DecodeException;
@@ -24,13 +25,45 @@ public abstract class OpenFeignDecoderExecutor implements Decoder {
     }
 
     private final Decoder delegate;
+    // Null when the decoder was created without a configuration
+    private final PayloadDecryptor decryptor;
+    // Whether byte[] payloads get decrypted directly, without going through the String hook
+    private final boolean decryptsBytes;
 
     OpenFeignDecoderExecutor(Decoder delegate) {
         this.delegate = delegate;
+        this.decryptor = null;
+        this.decryptsBytes = false;
+    }
+
+    OpenFeignDecoderExecutor(EncryptionConfig config, Decoder delegate) {
+        this.delegate = delegate;
+        this.decryptor = new PayloadDecryptor(config);
+        this.decryptsBytes = InterceptorHooks.isLibraryHook(getClass(), "decryptPayload", Response.class, String.class);
+    }
+
+    protected PayloadDecryptor getDecryptor() {
+        return decryptor;
+    }
+
+    boolean decryptsBytes() {
+        return decryptsBytes;
     }
 
     protected abstract String decryptPayload(Response response, String responsePayload) throws EncryptionException;
 
+    /**
+     * Decrypt a UTF-8 encoded response payload. Decrypts the bytes directly when the decoder was created
+     * with a configuration and {@link #decryptPayload(Response, String)} isn't overridden by an application subclass,
+     * calls it otherwise.
+     */
+    protected byte[] decryptPayload(Response response, byte[] responsePayload) throws EncryptionException {
+        if (decryptsBytes) {
+            return decryptor.decrypt(responsePayload);
+        }
+        return decryptPayload(response, new String(responsePayload, StandardCharsets.UTF_8)).getBytes(StandardCharsets.UTF_8);
+    }
+
     @Override
     public Object decode(Response response, Type type) throws IOException {
         try {
@@ -42,15 +75,15 @@ public abstract class OpenFeignDecoderExecutor implements Decoder {
             }
 
             // Read response payload
-            String responsePayload = Util.toString(body.asReader(StandardCharsets.UTF_8));
+            byte[] responsePayload = Util.toByteArray(body.asInputStream());
 
             // Decrypt fields & update headers
-            String decryptedPayload = decryptPayload(response, responsePayload);
+            byte[] decryptedPayload = decryptPayload(response, responsePayload);
             response = removeHeaders(response);
 
-            response = updateHeader(response, "Content-Length", String.valueOf(decryptedPayload.length()));
+            response = updateHeader(response, "Content-Length", String.valueOf(decryptedPayload.length));
             response = response.toBuilder()
-                    .body(decryptedPayload, StandardCharsets.UTF_8)
+                    .body(decryptedPayload)
                     .build();
         } catch (EncryptionException e) {
             throw new DecodeException(response.status(), "Failed to intercept and decrypt response!", response.request(), e);
@@ -2,6 +2,7 @@ package com.mastercard.developer.interceptors;
 
 import com.mastercard.developer.encryption.EncryptionConfig;
 import com.mastercard.developer.encryption.EncryptionException;
+import com.mastercard.developer.encryption.PayloadEncryptor;
 import feign.RequestTemplate;
 import feign.codec.EncodeException;
 import feign.codec.Encoder;
@@ -22,13 +23,45 @@ public abstract class OpenFeignEncoderExecutor implements Encoder {
     }
 
     private final Encoder delegate;
+    // Null when the encoder was created without a configuration
+    private final PayloadEncryptor encryptor;
+    // Whether byte[] payloads get encrypted directly, without going through the String hook
+    private final boolean encryptsBytes;
 
     OpenFeignEncoderExecutor(Encoder delegate) {
         this.delegate = delegate;
+        this.encryptor = null;
+        this.encryptsBytes = false;
+    }
+
+    OpenFeignEncoderExecutor(EncryptionConfig config, Encoder delegate) {
+        this.delegate = delegate;
+        this.encryptor = new PayloadEncryptor(config);
+        this.encryptsBytes = InterceptorHooks.isLibraryHook(getClass(), "encryptPayload", RequestTemplate.class, String.class);
+    }
+
+    protected PayloadEncryptor getEncryptor() {
+        return encryptor;
+    }
+
+    boolean encryptsBytes() {
+        return encryptsBytes;
     }
 
     protected abstract String encryptPayload(RequestTemplate requestTemplate, String requestPayload) throws EncryptionException;
 
+    /**
+     * Encrypt a UTF-8 encoded request payload. Encrypts the bytes directly when the encoder was created
+     * with a configuration and {@link #encryptPayload(RequestTemplate, String)} isn't overridden by an application subclass,
+     * calls it otherwise.
+     */
+    protected byte[] encryptPayload(RequestTemplate requestTemplate, byte[] requestPayload) throws EncryptionException {
+        if (encryptsBytes) {
+            return encryptor.encrypt(requestPayload);
+        }
+        return encryptPayload(requestTemplate, new String(requestPayload, StandardCharsets.UTF_8)).getBytes(StandardCharsets.UTF_8);
+    }
+
     @Override
     public void encode(Object object, Type type, RequestTemplate requestTemplate) {
         // Call the regular encoder
@@ -42,14 +75,11 @@ public abstract class OpenFeignEncoderExecutor implements Encoder {
                 return;
             }
 
-            // Read request payload
-            String payload = new String(bodyBytes, StandardCharsets.UTF_8);
-
             // Encrypt fields & update headers
-            String encryptedPayload = encryptPayload(requestTemplate, payload);
+            byte[] encryptedPayload = encryptPayload(requestTemplate, bodyBytes);
 
-            requestTemplate.body(encryptedPayload);
-            updateHeader(requestTemplate, "Content-Length", String.valueOf(encryptedPayload.length()));
+            requestTemplate.body(encryptedPayload, StandardCharsets.UTF_8);
+            updateHeader(requestTemplate, "Content-Length", String.valueOf(encryptedPayload.length));
 
         } catch (EncryptionException e) {
             throw new EncodeException("Failed to intercept and encrypt request!", e);
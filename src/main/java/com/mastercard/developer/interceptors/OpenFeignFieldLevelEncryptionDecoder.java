@@ -15,23 +15,34 @@ public class OpenFeignFieldLevelEncryptionDecoder extends OpenFeignDecoderExecut
     private final FieldLevelEncryptionConfig config;
 
     public OpenFeignFieldLevelEncryptionDecoder(EncryptionConfig config, Decoder delegate) {
-        super(delegate);
+        super(config, delegate);
         this.config = (FieldLevelEncryptionConfig) config;
     }
 
     @Override
     protected String decryptPayload(Response response, String responsePayload) throws EncryptionException {
-        if (config.useHttpHeaders()) {
-            // Read encryption params from HTTP headers and delete headers
-            String ivValue = readHeader(response, config.getIvHeaderName());
-            String oaepPaddingDigestAlgorithmValue = readHeader(response, config.getOaepPaddingDigestAlgorithmHeaderName());
-            String encryptedKeyValue = readHeader(response, config.getEncryptedKeyHeaderName());
-            FieldLevelEncryptionParams params = new FieldLevelEncryptionParams(ivValue, encryptedKeyValue, oaepPaddingDigestAlgorithmValue, config);
-            return FieldLevelEncryption.decryptPayload(responsePayload, config, params);
-        } else {
+        return getDecryptor().decrypt(responsePayload, decryptionParams(response));
+    }
+
+    @Override
+    protected byte[] decryptPayload(Response response, byte[] responsePayload) throws EncryptionException {
+        if (!decryptsBytes()) {
+            // The String hook is overridden
+            return super.decryptPayload(response, responsePayload);
+        }
+        return getDecryptor().decrypt(responsePayload, decryptionParams(response));
+    }
+
+    private FieldLevelEncryptionParams decryptionParams(Response response) throws EncryptionException {
+        if (!config.useHttpHeaders()) {
             // Encryption params are stored in the payload
-            return FieldLevelEncryption.decryptPayload(responsePayload, config);
+            return null;
         }
+        // Read encryption params from HTTP headers and delete headers
+        String ivValue = readHeader(response, config.getIvHeaderName());
+        String oaepPaddingDigestAlgorithmValue = readHeader(response, config.getOaepPaddingDigestAlgorithmHeaderName());
+        String encryptedKeyValue = readHeader(response, config.getEncryptedKeyHeaderName());
+        return new FieldLevelEncryptionParams(ivValue, encryptedKeyValue, oaepPaddingDigestAlgorithmValue, config);
     }
 
     @Override
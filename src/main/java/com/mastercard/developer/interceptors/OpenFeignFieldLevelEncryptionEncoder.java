@@ -14,24 +14,36 @@ public class OpenFeignFieldLevelEncryptionEncoder extends OpenFeignEncoderExecut
     private final FieldLevelEncryptionConfig config;
 
     public OpenFeignFieldLevelEncryptionEncoder(EncryptionConfig config, Encoder delegate) {
-        super(delegate);
+        super(config, delegate);
         this.config = (FieldLevelEncryptionConfig) config;
     }
 
     @Override
     protected String encryptPayload(RequestTemplate requestTemplate, String requestPayload) throws EncryptionException {
-        if (config.useHttpHeaders()) {
-            // Generate encryption params and add them as HTTP headers
-            FieldLevelEncryptionParams params = FieldLevelEncryptionParams.generate(config);
-            updateHeader(requestTemplate, config.getIvHeaderName(), params.getIvValue());
-            updateHeader(requestTemplate, config.getEncryptedKeyHeaderName(), params.getEncryptedKeyValue());
-            updateHeader(requestTemplate, config.getEncryptionCertificateFingerprintHeaderName(), config.getEncryptionCertificateFingerprint());
-            updateHeader(requestTemplate, config.getEncryptionKeyFingerprintHeaderName(), config.getEncryptionKeyFingerprint());
-            updateHeader(requestTemplate, config.getOaepPaddingDigestAlgorithmHeaderName(), params.getOaepPaddingDigestAlgorithmValue());
-            return FieldLevelEncryption.encryptPayload(requestPayload, config, params);
-        } else {
+        return getEncryptor().encrypt(requestPayload, encryptionParams(requestTemplate));
+    }
+
+    @Override
+    protected byte[] encryptPayload(RequestTemplate requestTemplate, byte[] requestPayload) throws EncryptionException {
+        if (!encryptsBytes()) {
+            // The String hook is overridden
+            return super.encryptPayload(requestTemplate, requestPayload);
+        }
+        return getEncryptor().encrypt(requestPayload, encryptionParams(requestTemplate));
+    }
+
+    private FieldLevelEncryptionParams encryptionParams(RequestTemplate requestTemplate) throws EncryptionException {
+        if (!config.useHttpHeaders()) {
             // Encryption params will be stored in the payload
-            return FieldLevelEncryption.encryptPayload(requestPayload, config);
+            return null;
         }
+        // Generate encryption params and add them as HTTP headers
+        FieldLevelEncryptionParams params = FieldLevelEncryptionParams.generate(config);
+        updateHeader(requestTemplate, config.getIvHeaderName(), params.getIvValue());
+        updateHeader(requestTemplate, config.getEncryptedKeyHeaderName(), params.getEncryptedKeyValue());
+        updateHeader(requestTemplate, config.getEncryptionCertificateFingerprintHeaderName(), config.getEncryptionCertificateFingerprint());
+        updateHeader(requestTemplate, config.getEncryptionKeyFingerprintHeaderName(), config.getEncryptionKeyFingerprint());
+        updateHeader(requestTemplate, config.getOaepPaddingDigestAlgorithmHeaderName(), params.getOaepPaddingDigestAlgorithmValue());
+        return params;
     }
 }
@@ -2,6 +2,8 @@ package com.mastercard.developer.utils;
 
 import com.mastercard.developer.encryption.FieldLevelEncryptionConfig;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.Base64;
 
 public class EncodingUtils {
@@ -46,15 +48,94 @@ public class EncodingUtils {
         return bytes;
     }
 
+    /**
+     * Decode a BASE64 or a BASE64URL value, the alphabet being detected in a single scan.
+     */
     public static byte[] base64Decode(String value) {
         if (null == value) {
             throw new IllegalArgumentException("Can't base64 decode a null value!");
         }
-        try {
-            return Base64.getDecoder().decode(value);
-        } catch (Exception ex) {
-            return Base64.getUrlDecoder().decode(value);
+        return isBase64Url(value) ? Base64.getUrlDecoder().decode(value) : Base64.getDecoder().decode(value);
+    }
+
+    /**
+     * Decode a BASE64URL value (with or without padding), as per https://datatracker.ietf.org/doc/html/rfc7515#appendix-C
+     */
+    public static byte[] base64UrlDecode(String value) {
+        if (null == value) {
+            throw new IllegalArgumentException("Can't base64 decode a null value!");
+        }
+        return Base64.getUrlDecoder().decode(value);
+    }
+
+    /**
+     * The number of bytes the BASE64URL characters of <code>value</code> between <code>start</code> and <code>end</code> decode to.
+     */
+    public static int base64UrlDecodedLength(String value, int start, int end) {
+        int length = unpaddedEnd(value, start, end) - start;
+        if (length % 4 == 1) {
+            throw new IllegalArgumentException("Invalid base64 length!");
+        }
+        return length / 4 * 3 + (length % 4 == 0 ? 0 : length % 4 - 1);
+    }
+
+    /**
+     * Decode the BASE64URL characters of <code>value</code> between <code>start</code> and <code>end</code>
+     * into <code>dst</code> at <code>offset</code>, without extracting them first. Returns the number of bytes written.
+     */
+    public static int base64UrlDecode(String value, int start, int end, byte[] dst, int offset) {
+        int length = base64UrlDecodedLength(value, start, end);
+        if (offset + length > dst.length) {
+            throw new IllegalArgumentException("Output array too small!");
+        }
+        int position = offset;
+        int bits = 0;
+        int bitCount = 0;
+        for (int i = start, unpaddedEnd = unpaddedEnd(value, start, end); i < unpaddedEnd; i++) {
+            bits = (bits << 6) | base64UrlValue(value.charAt(i));
+            bitCount += 6;
+            if (bitCount >= 8) {
+                bitCount -= 8;
+                dst[position++] = (byte) (bits >> bitCount);
+            }
+        }
+        return position - offset;
+    }
+
+    private static int unpaddedEnd(String value, int start, int end) {
+        while (end > start && value.charAt(end - 1) == '=') {
+            end--;
+        }
+        return end;
+    }
+
+    private static int base64UrlValue(char c) {
+        if (c >= 'A' && c <= 'Z') {
+            return c - 'A';
+        }
+        if (c >= 'a' && c <= 'z') {
+            return c - 'a' + 26;
+        }
+        if (c >= '0' && c <= '9') {
+            return c - '0' + 52;
         }
+        if (c == '-') {
+            return 62;
+        }
+        if (c == '_') {
+            return 63;
+        }
+        throw new IllegalArgumentException(String.format("Illegal base64 character %x", (int) c));
+    }
+
+    private static boolean isBase64Url(String value) {
+        for (int i = 0, length = value.length(); i < length; i++) {
+            char c = value.charAt(i);
+            if (c == '-' || c == '_') {
+                return true;
+            }
+        }
+        return false;
     }
 
     static String base64Encode(byte[] bytes) {
@@ -70,4 +151,12 @@ public class EncodingUtils {
     public static String base64UrlEncode(byte[] bytes) {
         return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
     }
+
+    /**
+     * BASE64URL encode <code>length</code> bytes starting at <code>offset</code>, without copying them first.
+     */
+    public static String base64UrlEncode(byte[] bytes, int offset, int length) {
+        ByteBuffer encoded = Base64.getUrlEncoder().withoutPadding().encode(ByteBuffer.wrap(bytes, offset, length));
+        return new String(encoded.array(), 0, encoded.limit(), StandardCharsets.US_ASCII);
+    }
 }
@@ -0,0 +1,98 @@
+package com.mastercard.developer.encryption;
+
+import com.jayway.jsonpath.DocumentContext;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class CompiledJsonPathTest {
+
+    private static final String PAYLOAD = "{\"a\":{\"b\":[{\"c\":1},{\"c\":2}],\"e-f\":\"g\"}}";
+
+    private static DocumentContext parse(String payload) {
+        return JsonPath.parse(payload, JsonParser.jsonPathConfig);
+    }
+
+    private static String toJson(DocumentContext context, Object element) {
+        return element == null ? null : context.configuration().jsonProvider().toJson(element);
+    }
+
+    @Test
+    public void testCompile_ShouldNavigateDirectly_WhenPathSimple() {
+        assertTrue(CompiledJsonPath.compile("$").isSimple());
+        assertTrue(CompiledJsonPath.compile("$.a.b[1].c").isSimple());
+        assertTrue(CompiledJsonPath.compile("$['a']['e-f']").isSimple());
+        assertTrue(CompiledJsonPath.compile("a.b").isSimple());
+        assertFalse(CompiledJsonPath.compile("$.a.b[-1]").isSimple());
+        assertFalse(CompiledJsonPath.compile("$.a.b[?(@.c == 1)]").isSimple());
+        assertFalse(CompiledJsonPath.compile("$..c").isSimple());
+    }
+
+    @Test
+    public void testRead_ShouldReturnSameElementsAsJsonPath() {
+
+        // GIVEN
+        DocumentContext context = parse(PAYLOAD);
+        String[] paths = { "$", "$.a", "$.a.b", "$.a.b[1].c", "$['a']['e-f']", "a.b[0]", "$.a.x",
+                "$.a.b[5]", "$.a.b.c", "$.a.e-f.x", "$.a.b[-1].c" };
+
+        for (String path : paths) {
+            // WHEN
+            Object element = CompiledJsonPath.compile(path).read(context);
+
+            // THEN
+            Object expected = JsonPath.compile(path).read((Object) context.json(), context.configuration());
+            assertEquals(path, toJson(context, expected), toJson(context, element));
+        }
+    }
+
+    @Test
+    public void testGetPath_ShouldReturnNormalizedPath() {
+        assertEquals("$['a']['b'][1]['c']", CompiledJsonPath.compile("$.a.b[1].c").getPath());
+        assertEquals("$", CompiledJsonPath.compile("$").getPath());
+    }
+
+    @Test
+    public void testPut_ShouldAddProperty_WhenObjectExists() {
+
+        // GIVEN
+        DocumentContext context = parse(PAYLOAD);
+
+        // WHEN
+        CompiledJsonPath.compile("$.a.b[0]").put(context, "x", "y");
+        CompiledJsonPath.compile("$.a.missing").put(context, "x", "y");
+
+        // THEN
+        assertEquals("{\"a\":{\"b\":[{\"c\":1,\"x\":\"y\"},{\"c\":2}],\"e-f\":\"g\"}}", context.jsonString());
+    }
+
+    @Test
+    public void testSet_ShouldReplaceElement_WhenElementExists() {
+
+        // GIVEN
+        DocumentContext context = parse(PAYLOAD);
+
+        // WHEN
+        CompiledJsonPath.compile("$.a.b[1]").set(context, "x");
+        CompiledJsonPath.compile("$.a.missing").set(context, "z");
+
+        // THEN
+        assertEquals("{\"a\":{\"b\":[{\"c\":1},\"x\"],\"e-f\":\"g\"}}", context.jsonString());
+    }
+
+    @Test
+    public void testDelete_ShouldRemoveElement_WhenElementExists() {
+
+        // GIVEN
+        DocumentContext context = parse(PAYLOAD);
+
+        // WHEN
+        CompiledJsonPath.compile("$.a.b[0]").delete(context);
+        CompiledJsonPath.compile("$['a']['e-f']").delete(context);
+        CompiledJsonPath.compile("$.a.missing.x").delete(context);
+
+        // THEN
+        assertEquals("{\"a\":{\"b\":[{\"c\":2}]}}", context.jsonString());
+    }
+}
@@ -216,11 +216,11 @@ public class FieldLevelEncryptionConfigBuilderTest {
     }
 
     @Test
-    public void testBuild_ShouldThrowIllegalArgumentException_WhenMultipleWildcardsOnDecryptionPaths() throws Exception {
+    public void testBuild_ShouldThrowIllegalArgumentException_WhenWildcardCountsDifferOnDecryptionPaths() throws Exception {
         expectedException.expect(IllegalArgumentException.class);
-        expectedException.expectMessage("JSON paths for decryption with can only contain one wildcard!");
+        expectedException.expectMessage("JSON paths for decryption with wildcard must contain the same number of wildcards!");
         FieldLevelEncryptionConfigBuilder.aFieldLevelEncryptionConfig()
-                .withDecryptionPath("$.encryptedPayloads[*]field1[*]subField", "$.payload[*]field1[*]encryptedSubField")
+                .withDecryptionPath("$.encryptedPayloads[*]field1[*]subField", "$.payload[*]encryptedSubField")
                 .withDecryptionKey(TestUtils.getTestDecryptionKey())
                 .build();
     }
@@ -250,11 +250,11 @@ public class FieldLevelEncryptionConfigBuilderTest {
     }
 
     @Test
-    public void testBuild_ShouldThrowIllegalArgumentException_WhenMultipleWildcardsOnEncryptionPaths() throws Exception {
+    public void testBuild_ShouldThrowIllegalArgumentException_WhenWildcardCountsDifferOnEncryptionPaths() throws Exception {
         expectedException.expect(IllegalArgumentException.class);
-        expectedException.expectMessage("JSON paths for encryption with can only contain one wildcard!");
+        expectedException.expectMessage("JSON paths for encryption with wildcard must contain the same number of wildcards!");
         FieldLevelEncryptionConfigBuilder.aFieldLevelEncryptionConfig()
-                .withEncryptionPath("$.encryptedPayloads[*]field1[*]subField", "$.payload[*]field1[*]encryptedSubField")
+                .withEncryptionPath("$.encryptedPayloads[*]field1[*]subField", "$.payload[*]encryptedSubField")
                 .withEncryptionCertificate(TestUtils.getTestEncryptionCertificate())
                 .build();
     }
@@ -16,7 +16,11 @@ import javax.crypto.Cipher;
 import javax.crypto.SecretKey;
 import javax.crypto.spec.IvParameterSpec;
 import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.security.InvalidKeyException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import static com.mastercard.developer.encryption.FieldLevelEncryptionConfig.FieldValueEncoding;
 import static com.mastercard.developer.encryption.FieldLevelEncryptionParams.SYMMETRIC_KEY_TYPE;
@@ -128,6 +132,33 @@ public class FieldLevelEncryptionWithDefaultJsonEngineTest {
         assertDecryptedPayloadEquals("{\"data\":{\"field1\":\"value1\",\"field2\":\"value2\"}}", encryptedPayload, config);
     }
 
+    @Test
+    public void testEncryptPayload_ShouldEncryptWithNestedWildcards() throws Exception {
+
+        // GIVEN
+        String payload = "{\"groups\":[" +
+                "{\"fields\":[{\"field1\":\"AAAA\"},{\"field1\":\"BBBB\"}]}," +
+                "{\"fields\":[]}," +
+                "{\"fields\":[{\"field1\":\"CCCC\"}]}" +
+                "]}";
+        FieldLevelEncryptionConfig config = getTestFieldLevelEncryptionConfigBuilder()
+                .withEncryptionPath("$.groups[*].fields[*].field1", "$.groups[*].fields[*].encryptedData")
+                .withDecryptionPath("$.groups[*].fields[*].encryptedData", "$.groups[*].fields[*].field1")
+                .withOaepPaddingDigestAlgorithm("SHA-256")
+                .build();
+
+        // WHEN
+        String encryptedPayload = FieldLevelEncryption.encryptPayload(payload, config);
+
+        // THEN
+        JsonObject encryptedPayloadObject = new Gson().fromJson(encryptedPayload, JsonObject.class);
+        JsonObject lastField = encryptedPayloadObject.getAsJsonArray("groups").get(2).getAsJsonObject()
+                .getAsJsonArray("fields").get(0).getAsJsonObject();
+        assertNull(lastField.get("field1"));
+        assertNotNull(lastField.get("encryptedData"));
+        assertDecryptedPayloadEquals("{\"groups\":[{\"fields\":[{\"field1\":\"AAAA\"},{\"field1\":\"BBBB\"}]},{\"fields\":[]},{\"fields\":[{\"field1\":\"CCCC\"}]}]}", encryptedPayload, config);
+    }
+
     @Test
     public void testEncryptPayload_ShouldEncryptWithWildcard() throws Exception {
 
@@ -156,6 +187,65 @@ public class FieldLevelEncryptionWithDefaultJsonEngineTest {
     }
 
 
+    @Test
+    public void testEncryptPayload_ShouldProcessElementsConcurrently_WhenParallelExecutorSet() throws Exception {
+
+        // GIVEN
+        StringBuilder payload = new StringBuilder("{\"fields\":[");
+        for (int i = 0; i < 50; i++) {
+            payload.append(i == 0 ? "" : ",").append("{\"field1\":\"value").append(i).append("\",\"field2\":").append(i).append("}");
+        }
+        String expectedPayload = payload.append("]}").toString();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            FieldLevelEncryptionConfig parallelConfig = getTestFieldLevelEncryptionConfigBuilder()
+                    .withEncryptionPath("$.fields[*].field1", "$.fields[*].encryptedData")
+                    .withDecryptionPath("$.fields[*].encryptedData", "$.fields[*].field1")
+                    .withParallelExecutor(executor)
+                    .withParallelThreshold(2)
+                    .build();
+            FieldLevelEncryptionConfig sequentialConfig = getTestFieldLevelEncryptionConfigBuilder()
+                    .withEncryptionPath("$.fields[*].field1", "$.fields[*].encryptedData")
+                    .withDecryptionPath("$.fields[*].encryptedData", "$.fields[*].field1")
+                    .build();
+
+            // WHEN
+            String encryptedPayload = FieldLevelEncryption.encryptPayload(expectedPayload, parallelConfig);
+
+            // THEN
+            assertDecryptedPayloadEquals(expectedPayload, encryptedPayload, sequentialConfig);
+            assertPayloadEquals(FieldLevelEncryption.decryptPayload(encryptedPayload, sequentialConfig), FieldLevelEncryption.decryptPayload(encryptedPayload, parallelConfig));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testEncryptPayload_ShouldUseOneKeyForAllFields_WhenPayloadKeyReuseEnabled() throws Exception {
+
+        // GIVEN
+        String payload = "{\"fields\":[{\"field1\":\"value1\"},{\"field1\":\"value2\"},{\"field1\":\"value3\"}]}";
+        FieldLevelEncryptionConfig config = getTestFieldLevelEncryptionConfigBuilder()
+                .withEncryptionPath("$.fields[*].field1", "$.fields[*].encryptedField1")
+                .withDecryptionPath("$.fields[*].encryptedField1", "$.fields[*].field1")
+                .withPayloadKeyReuse(true)
+                .build();
+
+        // WHEN
+        String encryptedPayload = FieldLevelEncryption.encryptPayload(payload, config);
+
+        // THEN
+        JsonObject encryptedPayloadObject = new Gson().fromJson(encryptedPayload, JsonObject.class);
+        JsonObject field0 = encryptedPayloadObject.getAsJsonArray("fields").get(0).getAsJsonObject().getAsJsonObject("encryptedField1");
+        JsonObject field1 = encryptedPayloadObject.getAsJsonArray("fields").get(1).getAsJsonObject().getAsJsonObject("encryptedField1");
+        JsonObject field2 = encryptedPayloadObject.getAsJsonArray("fields").get(2).getAsJsonObject().getAsJsonObject("encryptedField1");
+        assertEquals(field0.get("encryptedKey"), field1.get("encryptedKey"));
+        assertEquals(field0.get("encryptedKey"), field2.get("encryptedKey"));
+        assertNotEquals(field0.get("iv"), field1.get("iv"));
+        assertNotEquals(field1.get("iv"), field2.get("iv"));
+        assertDecryptedPayloadEquals(payload, encryptedPayload, config);
+    }
+
     @Test
     public void testEncryptPayload_ShouldSupportBase64FieldValueEncoding() throws Exception {
 
@@ -1429,4 +1519,25 @@ public class FieldLevelEncryptionWithDefaultJsonEngineTest {
         // WHEN
         FieldLevelEncryption.decryptPayload(encryptedPayload, config, null);
     }
+
+    @Test
+    public void testEncryptPayload_ShouldEncryptUtf8Bytes() throws Exception {
+
+        // GIVEN
+        String payload = "{\"data\":{\"name\":\"Zo\u00eb \u20ac\"}}";
+        FieldLevelEncryptionConfig config = getTestFieldLevelEncryptionConfigBuilder()
+                .withEncryptionPath("$.data", "$.encryptedData")
+                .withDecryptionPath("$.encryptedData", "$.data")
+                .build();
+
+        // WHEN
+        byte[] encryptedPayload = FieldLevelEncryption.encryptPayload(payload.getBytes(StandardCharsets.UTF_8), config);
+        ByteBuffer decryptedPayload = FieldLevelEncryption.decryptPayload(ByteBuffer.wrap(encryptedPayload), config);
+
+        // THEN
+        String encryptedPayloadString = new String(encryptedPayload, StandardCharsets.UTF_8);
+        assertNotNull(new Gson().fromJson(encryptedPayloadString, JsonObject.class).get("encryptedData"));
+        assertDecryptedPayloadEquals(payload, encryptedPayloadString, config);
+        assertPayloadEquals(payload, StandardCharsets.UTF_8.decode(decryptedPayload).toString());
+    }
 }
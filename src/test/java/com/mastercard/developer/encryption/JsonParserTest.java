@@ -6,8 +6,13 @@ import com.jayway.jsonpath.DocumentContext;
 import com.jayway.jsonpath.JsonPath;
 import org.junit.Test;
 
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 
 public class JsonParserTest {
 
@@ -39,4 +44,40 @@ public class JsonParserTest {
         Object value = context.read(key);
         assertNotNull(value);
     }
+
+    @Test
+    public void testReadTopLevelString_ShouldReturnValue_WhenSimpleString() {
+        byte[] json = " {\"a\": {\"b\": \"c\"}, \"b\" : \"d\"}".getBytes(StandardCharsets.UTF_8);
+        assertEquals("d", JsonParser.readTopLevelString(json, 0, json.length, "b"));
+        assertNull(JsonParser.readTopLevelString(json, 0, json.length, "c"));
+        assertNull(JsonParser.readTopLevelString(json, 0, json.length, "a"));
+    }
+
+    @Test
+    public void testReadTopLevelString_ShouldReturnNull_WhenUnexpectedInput() {
+        byte[] escaped = "{\"a\": \"\\u0062\"}".getBytes(StandardCharsets.UTF_8);
+        byte[] array = "[\"a\"]".getBytes(StandardCharsets.UTF_8);
+        byte[] truncated = "{\"b\": [1, 2".getBytes(StandardCharsets.UTF_8);
+        assertNull(JsonParser.readTopLevelString(escaped, 0, escaped.length, "a"));
+        assertNull(JsonParser.readTopLevelString(array, 0, array.length, "a"));
+        assertNull(JsonParser.readTopLevelString(truncated, 0, truncated.length, "a"));
+    }
+
+    @Test
+    public void testIsJsonObjectOrArray_ShouldReturnTrue_WhenWellFormed() {
+        String[] payloads = { "{}", " [ ] ", "{\"a\": [1, -2.5e+3, 0, true, false, null, \"}\\\"\"], \"b\": {\"c\": {}}}\n", "[[[]], {\"a\": []}]" };
+        for (String payload : payloads) {
+            byte[] json = payload.getBytes(StandardCharsets.UTF_8);
+            assertTrue(payload, JsonParser.isJsonObjectOrArray(json, 0, json.length));
+        }
+    }
+
+    @Test
+    public void testIsJsonObjectOrArray_ShouldReturnFalse_WhenMalformed() {
+        String[] payloads = { "{oops", "{\"a\": 1", "{\"a\" 1}", "{\"a\": tru}", "[1,]", "[01]", "[1.]", "{} {}", "[}", "\"a\"", "" };
+        for (String payload : payloads) {
+            byte[] json = payload.getBytes(StandardCharsets.UTF_8);
+            assertFalse(payload, JsonParser.isJsonObjectOrArray(json, 0, json.length));
+        }
+    }
 }
@@ -0,0 +1,142 @@
+package com.mastercard.developer.encryption;
+
+import com.jayway.jsonpath.DocumentContext;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class JsonPathPlanTest {
+
+    @Test
+    public void testCompile_ShouldPrecompilePaths_WhenPathsDefinite() {
+
+        // GIVEN
+        Map<String, String> paths = new LinkedHashMap<>();
+        paths.put("$.data", "$.encrypted.data");
+        paths.put("$", "$");
+
+        // WHEN
+        List<JsonPathPlan> plans = JsonPathPlan.compile(paths);
+
+        // THEN
+        assertEquals(2, plans.size());
+        JsonPathPlan plan = plans.get(0);
+        assertFalse(plan.hasWildcard());
+        assertEquals("$['data']", plan.getCompiledInPath().getPath());
+        assertEquals("$['encrypted']['data']", plan.getCompiledOutPath().getPath());
+        assertEquals("$['encrypted']", plan.getCompiledOutParentPath().getPath());
+        assertEquals("data", plan.getOutElementKey());
+        assertTrue(plans.get(1).isInRoot());
+        assertTrue(plans.get(1).isOutRoot());
+    }
+
+    @Test
+    public void testExpand_ShouldAnchorItemPathsOnArray_WhenPathsContainWildcard() {
+
+        // GIVEN
+        Map<String, String> paths = new LinkedHashMap<>();
+        paths.put("$.fields[*].field1", "$.fields[*].encryptedField1");
+        JsonPathPlan plan = JsonPathPlan.compile(paths).get(0);
+        DocumentContext context = JsonPath.parse("{\"fields\":[{},{},{\"field1\":\"value\"}]}", JsonParser.jsonPathConfig);
+
+        // WHEN
+        JsonPathPlan itemPlan = plan.expand(context).get(2);
+
+        // THEN
+        assertTrue(plan.hasWildcard());
+        assertFalse(itemPlan.hasWildcard());
+        assertTrue(itemPlan.isArrayItem());
+        assertEquals("$[2]['field1']", itemPlan.getCompiledInPath().getPath());
+        assertEquals("$[2]['encryptedField1']", itemPlan.getCompiledOutPath().getPath());
+        assertEquals("encryptedField1", itemPlan.getOutElementKey());
+        assertEquals("value", itemPlan.getCompiledInPath().read(context));
+        assertEquals("$.fields[2].field1", itemPlan.getInPath());
+    }
+
+    @Test
+    public void testExpand_ShouldWalkEachArray_WhenOutputInAnotherArray() {
+
+        // GIVEN
+        Map<String, String> paths = new LinkedHashMap<>();
+        paths.put("$.a[*].c", "$.b[*].c");
+        JsonPathPlan plan = JsonPathPlan.compile(paths).get(0);
+        DocumentContext context = JsonPath.parse("{\"a\":[{\"c\":1},{\"c\":2}],\"b\":[{\"c\":3}]}", JsonParser.jsonPathConfig);
+
+        // WHEN
+        List<JsonPathPlan> plans = plan.expand(context);
+
+        // THEN
+        assertEquals(2, plans.size());
+        assertEquals(2, plans.get(1).getCompiledInPath().read(context));
+        assertEquals(3, plans.get(0).getCompiledOutPath().read(context));
+        assertNull(plans.get(1).getCompiledOutPath().read(context));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCompile_ShouldThrowIllegalArgumentException_WhenWildcardPathNotSimple() {
+        Map<String, String> paths = new LinkedHashMap<>();
+        paths.put("$..a[*].c", "$..a[*].d");
+        JsonPathPlan.compile(paths);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testGetCompiledOutParentPath_ShouldThrowIllegalStateException_WhenOutPathIsRoot() {
+        Map<String, String> paths = new LinkedHashMap<>();
+        paths.put("$.data", "$");
+        JsonPathPlan.compile(paths).get(0).getCompiledOutParentPath();
+    }
+
+    @Test
+    public void testExpand_ShouldReturnOnePlanPerItem_WhenPathsContainNestedWildcards() {
+
+        // GIVEN
+        Map<String, String> paths = new LinkedHashMap<>();
+        paths.put("$.a[*].b[*].c", "$.a[*].b[*].d");
+        JsonPathPlan plan = JsonPathPlan.compile(paths).get(0);
+        DocumentContext context = JsonPath.parse("{\"a\":[{\"b\":[{},{}]},{\"b\":[]},{\"b\":[{}]},{}]}", JsonParser.jsonPathConfig);
+
+        // WHEN
+        List<JsonPathPlan> plans = plan.expand(context);
+
+        // THEN
+        assertEquals(3, plans.size());
+        assertEquals("$.a[0].b[0].c", plans.get(0).getInPath());
+        assertEquals("$.a[0].b[1].d", plans.get(1).getOutPath());
+        assertEquals("$.a[2].b[0].c", plans.get(2).getInPath());
+    }
+
+    @Test
+    public void testExpand_ShouldReturnNoPlan_WhenArrayMissing() {
+        Map<String, String> paths = new LinkedHashMap<>();
+        paths.put("$.a[*].c", "$.a[*].d");
+        DocumentContext context = JsonPath.parse("{}", JsonParser.jsonPathConfig);
+        assertTrue(JsonPathPlan.compile(paths).get(0).expand(context).isEmpty());
+    }
+
+    @Test
+    public void testBatchIndependent_ShouldSplitBatches_WhenPathsOverlap() {
+
+        // GIVEN
+        Map<String, String> paths = new LinkedHashMap<>();
+        paths.put("$.a", "$.a");
+        paths.put("$.b", "$.encryptedB");
+        paths.put("$.items[*].c", "$.items[*].c");
+        paths.put("$.items[*].d", "$.items[*].d");
+        paths.put("$.encryptedB.e", "$.e");
+        paths.put("$", "$");
+
+        // WHEN
+        List<List<JsonPathPlan>> batches = JsonPathPlan.batchIndependent(JsonPathPlan.compile(paths));
+
+        // THEN
+        assertEquals(3, batches.size());
+        assertEquals(4, batches.get(0).size());
+        assertEquals("$.encryptedB.e", batches.get(1).get(0).getInPath());
+        assertEquals("$", batches.get(2).get(0).getInPath());
+    }
+}
@@ -1,11 +1,15 @@
 package com.mastercard.developer.encryption;
 
+import com.mastercard.developer.encryption.jwe.JweHeader;
+import com.mastercard.developer.json.GsonJsonEngine;
+import com.mastercard.developer.json.JsonEngine;
 import com.mastercard.developer.test.TestUtils;
 import org.junit.Assert;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
 
+import javax.crypto.spec.SecretKeySpec;
 import java.util.Collections;
 
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -35,6 +39,8 @@ public class JweConfigBuilderTest {
         Assert.assertEquals(Collections.singletonMap("$.encryptedPayload", "$"), config.getDecryptionPaths());
         Assert.assertEquals(Collections.singletonMap("$", "$"), config.getEncryptionPaths());
         assertThat(config.getIVSize(),equalTo(12));
+        JweHeader expectedHeader = new JweHeader("RSA-OAEP-256", "A256GCM", config.getEncryptionKeyFingerprint(), "application/json");
+        Assert.assertEquals(expectedHeader.getEncoded(), config.getJweHeader().getEncoded());
     }
 
     @Test
@@ -163,6 +169,45 @@ public class JweConfigBuilderTest {
                 .build();
     }
 
+    @Test
+    public void testBuild_ShouldThrowIllegalArgumentException_WhenKeyManagementAlgorithmNotSupported() throws Exception {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("Unsupported key management algorithm: A128KW!");
+        JweConfigBuilder.aJweEncryptionConfig()
+                .withKeyEncryptionKey(new SecretKeySpec(new byte[32], "AES"), "A128KW")
+                .build();
+    }
+
+    @Test
+    public void testBuild_ShouldThrowIllegalArgumentException_WhenKeyManagementAlgorithmDoesNotMatchKey() throws Exception {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("Unsupported key management algorithm: ECDH-ES!");
+        JweConfigBuilder.aJweEncryptionConfig()
+                .withEncryptionCertificate(TestUtils.getTestEncryptionCertificate())
+                .withKeyManagementAlgorithm("ECDH-ES")
+                .build();
+    }
+
+    @Test
+    public void testBuild_ShouldThrowIllegalArgumentException_WhenSeveralEncryptionKeys() throws Exception {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("Only one of an encryption key/certificate, a content encryption key or a key encryption key can be used!");
+        JweConfigBuilder.aJweEncryptionConfig()
+                .withEncryptionCertificate(TestUtils.getTestEncryptionCertificate())
+                .withContentEncryptionKey(new SecretKeySpec(new byte[32], "AES"))
+                .build();
+    }
+
+    @Test
+    public void testBuild_ShouldThrowIllegalArgumentException_WhenMaximumInflatedSizeNotPositive() throws Exception {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("Maximum inflated size must be positive!");
+        JweConfigBuilder.aJweEncryptionConfig()
+                .withEncryptionCertificate(TestUtils.getTestEncryptionCertificate())
+                .withMaximumInflatedSize(0)
+                .build();
+    }
+
     @Test
     public void testBuild_ShouldThrowIllegalArgumentException_WhenNotHavingWildcardOnBothDecryptionPaths() throws Exception {
         expectedException.expect(IllegalArgumentException.class);
@@ -174,11 +219,11 @@ public class JweConfigBuilderTest {
     }
 
     @Test
-    public void testBuild_ShouldThrowIllegalArgumentException_WhenMultipleWildcardsOnDecryptionPaths() throws Exception {
+    public void testBuild_ShouldThrowIllegalArgumentException_WhenWildcardCountsDifferOnDecryptionPaths() throws Exception {
         expectedException.expect(IllegalArgumentException.class);
-        expectedException.expectMessage("JSON paths for decryption with can only contain one wildcard!");
+        expectedException.expectMessage("JSON paths for decryption with wildcard must contain the same number of wildcards!");
         JweConfigBuilder.aJweEncryptionConfig()
-                .withDecryptionPath("$.encryptedPayloads[*]field1[*]subField", "$.payload[*]field1[*]encryptedSubField")
+                .withDecryptionPath("$.encryptedPayloads[*]field1[*]subField", "$.payload[*]encryptedSubField")
                 .withDecryptionKey(TestUtils.getTestDecryptionKey())
                 .build();
     }
@@ -194,11 +239,11 @@ public class JweConfigBuilderTest {
     }
 
     @Test
-    public void testBuild_ShouldThrowIllegalArgumentException_WhenMultipleWildcardsOnEncryptionPaths() throws Exception {
+    public void testBuild_ShouldThrowIllegalArgumentException_WhenWildcardCountsDifferOnEncryptionPaths() throws Exception {
         expectedException.expect(IllegalArgumentException.class);
-        expectedException.expectMessage("JSON paths for encryption with can only contain one wildcard!");
+        expectedException.expectMessage("JSON paths for encryption with wildcard must contain the same number of wildcards!");
         JweConfigBuilder.aJweEncryptionConfig()
-                .withEncryptionPath("$.encryptedPayloads[*]field1[*]subField", "$.payload[*]field1[*]encryptedSubField")
+                .withEncryptionPath("$.encryptedPayloads[*]field1[*]subField", "$.payload[*]encryptedSubField")
                 .withEncryptionCertificate(TestUtils.getTestEncryptionCertificate())
                 .build();
     }
@@ -240,4 +285,50 @@ public class JweConfigBuilderTest {
                 .build();
         Assert.assertEquals("2f4lvi26vJWzkzAIaiR2G0YsJAQ=", config.getEncryptionKeyFingerprint());
     }
+
+    @Test
+    public void testBuild_ShouldThrowIllegalArgumentException_WhenParallelThresholdNotPositive() throws Exception {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("Parallel threshold must be positive!");
+        JweConfigBuilder.aJweEncryptionConfig()
+                .withEncryptionCertificate(TestUtils.getTestEncryptionCertificate())
+                .withParallelThreshold(0)
+                .build();
+    }
+
+    @Test
+    public void testBuild_ShouldUseGivenJsonEngine_WhenJsonEngineSet() throws Exception {
+
+        // GIVEN
+        JsonEngine jsonEngine = new GsonJsonEngine();
+        JweConfig config = TestUtils.getTestJweConfigBuilder()
+                .withJsonEngine(jsonEngine)
+                .build();
+
+        // WHEN
+        String encryptedPayload = JweEncryption.encryptPayload("{\"field\":\"value\"}", config);
+
+        // THEN
+        Assert.assertSame(jsonEngine, config.getJsonEngine());
+        TestUtils.assertDecryptedJweEquals("{\"field\":\"value\"}", encryptedPayload, config);
+    }
+
+    @Test
+    public void testBuild_ShouldKeepJsonEngine_WhenDefaultJsonEngineChangedAfterBuild() throws Exception {
+
+        // GIVEN
+        JsonEngine defaultJsonEngine = JsonParser.jsonEngine;
+        JweConfig config = TestUtils.getTestJweConfigBuilder().build();
+
+        // WHEN
+        JsonParser.withJsonEngine(new GsonJsonEngine());
+
+        // THEN
+        try {
+            Assert.assertSame(defaultJsonEngine, config.getJsonEngine());
+            Assert.assertNotSame(JsonParser.jsonPathConfig, config.getJsonPathConfig());
+        } finally {
+            JsonParser.withJsonEngine(defaultJsonEngine);
+        }
+    }
 }
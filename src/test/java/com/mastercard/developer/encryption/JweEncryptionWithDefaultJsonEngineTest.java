@@ -1,12 +1,22 @@
 package com.mastercard.developer.encryption;
 
 import com.google.gson.Gson;
+import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
 import org.junit.Test;
 import org.junit.jupiter.api.Assertions;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import static com.mastercard.developer.test.TestUtils.*;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
 
 public class JweEncryptionWithDefaultJsonEngineTest {
@@ -33,6 +43,31 @@ public class JweEncryptionWithDefaultJsonEngineTest {
         assertDecryptedJweEquals("[{},{}]", encryptedPayload, config);
     }
 
+    @Test
+    public void testEncryptPayload_ShouldEncryptWithNestedWildcards() throws Exception {
+
+        // GIVEN
+        String payload = "{\"groups\":[" +
+                "{\"fields\":[{\"field1\":\"AAAA\"},{\"field1\":\"BBBB\"}]}," +
+                "{\"fields\":[{\"field1\":\"CCCC\"}]}" +
+                "]}";
+        JweConfig config = getTestJweConfigBuilder()
+                .withEncryptionPath("$.groups[*].fields[*].field1", "$.groups[*].fields[*]")
+                .withDecryptionPath("$.groups[*].fields[*].encryptedData", "$.groups[*].fields[*].field1")
+                .build();
+
+        // WHEN
+        String encryptedPayload = JweEncryption.encryptPayload(payload, config);
+
+        // THEN
+        JsonObject encryptedPayloadObject = new Gson().fromJson(encryptedPayload, JsonObject.class);
+        JsonObject lastField = encryptedPayloadObject.getAsJsonArray("groups").get(1).getAsJsonObject()
+                .getAsJsonArray("fields").get(0).getAsJsonObject();
+        assertNull(lastField.get("field1"));
+        assertNotNull(lastField.get("encryptedData"));
+        assertDecryptedJweEquals("{\"groups\":[{\"fields\":[{\"field1\":\"AAAA\"},{\"field1\":\"BBBB\"}]},{\"fields\":[{\"field1\":\"CCCC\"}]}]}", encryptedPayload, config);
+    }
+
     @Test
     public void testEncryptPayload_ShouldEncryptWithWildcard() throws Exception {
 
@@ -59,6 +94,97 @@ public class JweEncryptionWithDefaultJsonEngineTest {
         assertDecryptedJweEquals("{\"fields\":[{\"field2\":\"asdf\",\"field1\":\"AAAA\"},{\"field2\":\"zxcv\",\"field1\":\"BBBB\"}]}", encryptedPayload, config);
     }
 
+    @Test
+    public void testEncryptPayload_ShouldProcessElementsConcurrently_WhenParallelExecutorSet() throws Exception {
+
+        // GIVEN
+        StringBuilder payload = new StringBuilder("{\"fields\":[");
+        for (int i = 0; i < 50; i++) {
+            payload.append(i == 0 ? "" : ",").append("{\"field1\":\"value").append(i).append("\",\"field2\":").append(i).append("}");
+        }
+        String expectedPayload = payload.append("]}").toString();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            JweConfig parallelConfig = getTestJweConfigBuilder()
+                    .withEncryptionPath("$.fields[*].field1", "$.fields[*]")
+                    .withDecryptionPath("$.fields[*].encryptedData", "$.fields[*].field1")
+                    .withParallelExecutor(executor)
+                    .withParallelThreshold(2)
+                    .build();
+            JweConfig sequentialConfig = getTestJweConfigBuilder()
+                    .withEncryptionPath("$.fields[*].field1", "$.fields[*]")
+                    .withDecryptionPath("$.fields[*].encryptedData", "$.fields[*].field1")
+                    .build();
+
+            // WHEN
+            String encryptedPayload = JweEncryption.encryptPayload(expectedPayload, parallelConfig);
+
+            // THEN
+            assertDecryptedJweEquals(expectedPayload, encryptedPayload, sequentialConfig);
+            assertPayloadEquals(JweEncryption.decryptPayload(encryptedPayload, sequentialConfig), JweEncryption.decryptPayload(encryptedPayload, parallelConfig));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testEncryptPayload_ShouldProcessPathsAsOneBatch_WhenParallelExecutorSet() throws Exception {
+
+        // GIVEN
+        String payload = "{\"field1\":\"value1\",\"field2\":\"value2\",\"field3\":\"value3\",\"field4\":\"value4\"}";
+        AtomicInteger taskCount = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            JweConfigBuilder builder = getTestJweConfigBuilder()
+                    .withParallelExecutor(task -> {
+                        taskCount.incrementAndGet();
+                        executor.execute(task);
+                    })
+                    .withParallelThreshold(4);
+            for (int i = 1; i <= 4; i++) {
+                builder.withEncryptionPath("$.field" + i, "$.encrypted" + i)
+                        .withDecryptionPath("$.encrypted" + i + ".encryptedData", "$.field" + i);
+            }
+            JweConfig config = builder.build();
+
+            // WHEN
+            String encryptedPayload = JweEncryption.encryptPayload(payload, config);
+
+            // THEN
+            assertEquals(4, taskCount.get());
+            assertPayloadEquals(payload, JweEncryption.decryptPayload(encryptedPayload, config));
+            assertEquals(8, taskCount.get());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testEncryptPayload_ShouldUseOneKeyForAllFields_WhenPayloadKeyReuseEnabled() throws Exception {
+
+        // GIVEN
+        String payload = "{\"fields\":[{\"field1\":\"value1\"},{\"field1\":\"value2\"},{\"field1\":\"value3\"}]}";
+        JweConfig config = getTestJweConfigBuilder()
+                .withEncryptionPath("$.fields[*].field1", "$.fields[*]")
+                .withDecryptionPath("$.fields[*].encryptedData", "$.fields[*].field1")
+                .withPayloadKeyReuse(true)
+                .build();
+
+        // WHEN
+        String encryptedPayload = JweEncryption.encryptPayload(payload, config);
+
+        // THEN
+        JsonArray fields = new Gson().fromJson(encryptedPayload, JsonObject.class).getAsJsonArray("fields");
+        String[] jwe0 = fields.get(0).getAsJsonObject().get("encryptedData").getAsString().split("\\.");
+        String[] jwe1 = fields.get(1).getAsJsonObject().get("encryptedData").getAsString().split("\\.");
+        String[] jwe2 = fields.get(2).getAsJsonObject().get("encryptedData").getAsString().split("\\.");
+        assertEquals(jwe0[1], jwe1[1]);
+        assertEquals(jwe0[1], jwe2[1]);
+        assertNotEquals(jwe0[2], jwe1[2]);
+        assertNotEquals(jwe1[2], jwe2[2]);
+        assertDecryptedJweEquals(payload, encryptedPayload, config);
+    }
+
     @Test
     public void testEncryptPayload_ShouldCreateEncryptedValue_WhenOutPathParentDoesNotExistInPayload() throws Exception {
 
@@ -136,4 +262,92 @@ public class JweEncryptionWithDefaultJsonEngineTest {
         // THEN
         assertPayloadEquals("{\"unencrypted\":{\"data\": {}}}", payload);
     }
+
+    @Test
+    public void testEncryptPayload_ShouldEncryptUtf8Bytes() throws Exception {
+
+        // GIVEN
+        String payload = "{\"data\":{\"name\":\"Zo\u00eb \u20ac\"}}";
+        JweConfig config = getTestJweConfigBuilder()
+                .withEncryptionPath("$.data", "$.encryptedData")
+                .withDecryptionPath("$.encryptedData.encryptedData", "$.data")
+                .build();
+        byte[] payloadBytes = payload.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer slice = ByteBuffer.allocate(payloadBytes.length + 2);
+        slice.put((byte) ' ').put(payloadBytes).put((byte) ' ');
+        slice.position(1);
+
+        // WHEN
+        ByteBuffer encryptedPayload = JweEncryption.encryptPayload(slice, config);
+        byte[] decryptedPayload = JweEncryption.decryptPayload(StandardCharsets.UTF_8.decode(encryptedPayload).toString().getBytes(StandardCharsets.UTF_8), config);
+
+        // THEN
+        assertPayloadEquals(payload, new String(decryptedPayload, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testEncryptPayload_ShouldEncryptBytesAsReceived_WhenWholePayloadEncrypted() throws Exception {
+
+        // GIVEN
+        String payload = "{\n\t\"data\": {\"field\": \"value\"}\n}";
+        JweConfig config = getTestJweConfigBuilder().build();
+
+        // WHEN
+        String encryptedPayload = JweEncryption.encryptPayload(payload, config);
+        String decryptedPayload = JweEncryption.decryptPayload(encryptedPayload, config);
+
+        // THEN
+        assertNotNull(new Gson().fromJson(encryptedPayload, JsonObject.class).get("encryptedData"));
+        assertEquals("{\"data\": {\"field\": \"value\"}}", decryptedPayload);
+    }
+
+    @Test(expected = EncryptionException.class)
+    public void testEncryptPayload_ShouldNotEncryptBytesAsReceived_WhenWholePayloadMalformed() throws Exception {
+
+        // GIVEN
+        JweConfig config = getTestJweConfigBuilder().build();
+
+        // WHEN
+        JweEncryption.encryptPayload("{oops", config);
+
+        // THEN
+        // Exception expected
+    }
+
+    @Test
+    public void testEncryptPayload_ShouldReuseSessionKey_WhenWholePayloadEncrypted() throws Exception {
+
+        // GIVEN
+        String payload = "{\"data\": {\"field\": \"value\"}}";
+        JweConfig config = getTestJweConfigBuilder()
+                .withSessionKeyPolicy(new SessionKeyPolicy(100, 1, TimeUnit.MINUTES))
+                .build();
+
+        // WHEN
+        String firstEncryptedPayload = JweEncryption.encryptPayload(payload, config);
+        String secondEncryptedPayload = JweEncryption.encryptPayload(payload, config);
+
+        // THEN
+        String[] firstJwe = new Gson().fromJson(firstEncryptedPayload, JsonObject.class).get("encryptedData").getAsString().split("\\.");
+        String[] secondJwe = new Gson().fromJson(secondEncryptedPayload, JsonObject.class).get("encryptedData").getAsString().split("\\.");
+        assertEquals(firstJwe[1], secondJwe[1]); // Same encrypted key
+        assertNotEquals(firstJwe[2], secondJwe[2]); // Different IVs
+        assertDecryptedJweEquals(payload, secondEncryptedPayload, config);
+    }
+
+    @Test
+    public void testDecryptPayload_ShouldFindEncryptedValue_WhenWholePayloadDecryptedAndOtherFieldsPresent() throws Exception {
+
+        // GIVEN
+        JweConfig config = getTestJweConfigBuilder().build();
+        String encryptedValue = new Gson().fromJson(JweEncryption.encryptPayload("{\"field\":\"value\"}", config), JsonObject.class)
+                .get("encryptedData").getAsString();
+        String encryptedPayload = "{\"other\": {\"a\": [1, \"}\\\"\", null]}, \"flag\": true, \"encryptedData\": \"" + encryptedValue + "\"}";
+
+        // WHEN
+        byte[] decryptedPayload = new PayloadDecryptor(config).decrypt(encryptedPayload.getBytes(StandardCharsets.UTF_8));
+
+        // THEN
+        assertEquals("{\"field\":\"value\"}", new String(decryptedPayload, StandardCharsets.UTF_8));
+    }
 }
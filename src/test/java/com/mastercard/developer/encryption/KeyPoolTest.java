@@ -0,0 +1,134 @@
+package com.mastercard.developer.encryption;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.spec.ECGenParameterSpec;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.mastercard.developer.test.TestUtils.assertDecryptedJweEquals;
+import static com.mastercard.developer.test.TestUtils.assertDecryptedPayloadEquals;
+import static com.mastercard.developer.test.TestUtils.getTestFieldLevelEncryptionConfigBuilder;
+import static com.mastercard.developer.test.TestUtils.getTestJweConfigBuilder;
+
+public class KeyPoolTest {
+
+    @Test
+    public void testTake_ShouldGenerateOnCallingThread_WhenPoolEmpty() throws Exception {
+
+        // GIVEN
+        AtomicInteger generatedCount = new AtomicInteger();
+        KeyPool<Integer> pool = new KeyPool<>(4, generatedCount::incrementAndGet, runnable -> { /* Never runs */ });
+
+        // WHEN
+        int key = pool.take();
+
+        // THEN
+        Assert.assertEquals(1, key);
+        Assert.assertEquals(0, pool.size());
+        Assert.assertEquals(0, pool.getHitCount());
+        Assert.assertEquals(1, pool.getStarvationCount());
+    }
+
+    @Test
+    public void testTake_ShouldTakePregeneratedKeys_WhenPoolFilled() throws Exception {
+
+        // GIVEN
+        AtomicInteger generatedCount = new AtomicInteger();
+        KeyPool<Integer> pool = new KeyPool<>(4, generatedCount::incrementAndGet, Runnable::run);
+        pool.refill();
+
+        // WHEN
+        int firstKey = pool.take();
+        int secondKey = pool.take();
+        int thirdKey = pool.take();
+
+        // THEN
+        Assert.assertEquals(1, firstKey);
+        Assert.assertEquals(2, secondKey);
+        Assert.assertEquals(3, thirdKey);
+        Assert.assertEquals(3, pool.getHitCount());
+        Assert.assertEquals(0, pool.getStarvationCount());
+        Assert.assertEquals(3, pool.size()); // Refilled once half empty
+        Assert.assertEquals(6, generatedCount.get());
+    }
+
+    @Test
+    public void testRefill_ShouldCountFailure_WhenGenerationFails() {
+
+        // GIVEN
+        KeyPool<Integer> pool = new KeyPool<>(4, () -> {
+            throw new EncryptionException("Failed!", new IllegalStateException());
+        }, Runnable::run);
+
+        // WHEN
+        pool.refill();
+
+        // THEN
+        Assert.assertEquals(0, pool.size());
+        Assert.assertEquals(1, pool.getFailureCount());
+    }
+
+    @Test
+    public void testEncryptPayload_ShouldUsePooledParams_WhenKeyPoolCapacitySet() throws Exception {
+
+        // GIVEN
+        String payload = "{\"data\":{\"field\":\"value\"}}";
+        FieldLevelEncryptionConfig config = getTestFieldLevelEncryptionConfigBuilder()
+                .withEncryptionPath("$.data", "$.encryptedData")
+                .withDecryptionPath("$.encryptedData", "$.data")
+                .withParallelExecutor(Runnable::run)
+                .withKeyPoolCapacity(2)
+                .build();
+
+        // WHEN
+        String encryptedPayload = FieldLevelEncryption.encryptPayload(payload, config);
+
+        // THEN
+        Assert.assertEquals(1, config.getKeyPool().getHitCount());
+        Assert.assertEquals(0, config.getKeyPool().getStarvationCount());
+        assertDecryptedPayloadEquals(payload, encryptedPayload, config);
+    }
+
+    @Test
+    public void testEncryptPayload_ShouldUsePooledContentKeys_WhenKeyPoolCapacitySet() throws Exception {
+
+        // GIVEN
+        String payload = "{\"data\":{\"field\":\"value\"}}";
+        JweConfig config = getTestJweConfigBuilder()
+                .withParallelExecutor(Runnable::run)
+                .withKeyPoolCapacity(2)
+                .build();
+
+        // WHEN
+        String encryptedPayload = JweEncryption.encryptPayload(payload, config);
+
+        // THEN
+        Assert.assertEquals(1, config.getKeyPool().getHitCount());
+        Assert.assertEquals(0, config.getKeyPool().getStarvationCount());
+        assertDecryptedJweEquals(payload, encryptedPayload, config);
+    }
+
+    @Test
+    public void testBuild_ShouldFillKeyPool_WhenEcKeyConfigured() throws Exception {
+
+        // GIVEN
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+        generator.initialize(new ECGenParameterSpec("secp256r1"));
+        KeyPair keyPair = generator.generateKeyPair();
+
+        // WHEN
+        JweConfig config = JweConfigBuilder.aJweEncryptionConfig()
+                .withEncryptionKey(keyPair.getPublic())
+                .withDecryptionKey(keyPair.getPrivate())
+                .withParallelExecutor(Runnable::run)
+                .withKeyPoolCapacity(4)
+                .build();
+
+        // THEN
+        Assert.assertEquals(0, config.getKeyPool().getFailureCount());
+        Assert.assertEquals(4, config.getKeyPool().size());
+    }
+}
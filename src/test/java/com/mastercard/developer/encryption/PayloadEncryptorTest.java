@@ -0,0 +1,101 @@
+package com.mastercard.developer.encryption;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static com.mastercard.developer.test.TestUtils.assertPayloadEquals;
+import static com.mastercard.developer.test.TestUtils.getTestFieldLevelEncryptionConfigBuilder;
+import static com.mastercard.developer.test.TestUtils.getTestJweConfigBuilder;
+
+public class PayloadEncryptorTest {
+
+    @Test
+    public void testEncrypt_ShouldEncryptFieldLevel_WhenLegacyConfig() throws Exception {
+
+        // GIVEN
+        String payload = "{\"data\":{\"field\":\"value\"}}";
+        FieldLevelEncryptionConfig config = getTestFieldLevelEncryptionConfigBuilder()
+                .withEncryptionPath("$.data", "$.encryptedData")
+                .withDecryptionPath("$.encryptedData", "$.data")
+                .build();
+        PayloadEncryptor encryptor = new PayloadEncryptor(config);
+        PayloadDecryptor decryptor = new PayloadDecryptor(config);
+
+        // WHEN
+        String encryptedPayload = encryptor.encrypt(payload);
+
+        // THEN
+        Assert.assertFalse(encryptedPayload.contains("value"));
+        assertPayloadEquals(payload, decryptor.decrypt(encryptedPayload));
+        assertPayloadEquals(payload, FieldLevelEncryption.decryptPayload(encryptedPayload, config));
+    }
+
+    @Test
+    public void testEncrypt_ShouldEncryptJwe_WhenJweConfig() throws Exception {
+
+        // GIVEN
+        String payload = "{\"data\":{\"field\":\"value\"}}";
+        JweConfig config = getTestJweConfigBuilder().build();
+        PayloadEncryptor encryptor = new PayloadEncryptor(config);
+        PayloadDecryptor decryptor = new PayloadDecryptor(config);
+
+        // WHEN
+        byte[] encryptedPayload = encryptor.encrypt(payload.getBytes(StandardCharsets.UTF_8));
+
+        // THEN
+        ByteBuffer decryptedPayload = decryptor.decrypt(ByteBuffer.wrap(encryptedPayload));
+        assertPayloadEquals(payload, StandardCharsets.UTF_8.decode(decryptedPayload).toString());
+        assertPayloadEquals(payload, JweEncryption.decryptPayload(new String(encryptedPayload, StandardCharsets.UTF_8), config));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testEncrypt_ShouldThrowIllegalArgumentException_WhenParamsGivenWithJweConfig() throws Exception {
+        JweConfig config = getTestJweConfigBuilder().build();
+        new PayloadEncryptor(config).encrypt("{}", FieldLevelEncryptionParams.generate(getTestFieldLevelEncryptionConfigBuilder().build()));
+    }
+
+    @Test
+    public void testEncrypt_ShouldRejectParamsBeforeReadingStream_WhenJweConfig() throws Exception {
+
+        // GIVEN
+        JweConfig config = getTestJweConfigBuilder().build();
+        FieldLevelEncryptionParams params = FieldLevelEncryptionParams.generate(getTestFieldLevelEncryptionConfigBuilder().build());
+        InputStream payload = new InputStream() {
+            @Override
+            public int read() {
+                throw new AssertionError("Payload read");
+            }
+        };
+
+        // WHEN
+        try {
+            new PayloadEncryptor(config).encrypt(payload, new ByteArrayOutputStream(), params);
+            Assert.fail("IllegalArgumentException expected");
+        } catch (IllegalArgumentException e) {
+
+            // THEN
+            Assert.assertEquals("Encryption params are only supported with field level encryption!", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testEncryptPayload_ShouldUseConfigEncryptor() throws Exception {
+
+        // GIVEN
+        String payload = "{\"data\":{\"field\":\"value\"}}";
+        JweConfig config = getTestJweConfigBuilder().build();
+
+        // WHEN
+        String encryptedPayload = JweEncryption.encryptPayload(payload, config);
+
+        // THEN
+        Assert.assertNotNull(config.getEncryptor());
+        Assert.assertSame(config, config.getEncryptor().getConfig());
+        assertPayloadEquals(payload, config.getDecryptor().decrypt(encryptedPayload));
+    }
+}
@@ -0,0 +1,81 @@
+package com.mastercard.developer.encryption;
+
+import com.mastercard.developer.test.TestUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+
+public class RandomSourceTest {
+
+    @Test
+    public void testNextBytes_ShouldReturnRequestedLength() {
+        RandomSource randomSource = new RandomSource(2, 0);
+        assertEquals(0, randomSource.nextBytes(0).length);
+        assertEquals(12, randomSource.nextBytes(12).length);
+        assertEquals(32, randomSource.nextBytes(32).length);
+    }
+
+    @Test
+    public void testNextBytes_ShouldNotRepeatBytes_WhenPrefetching() {
+
+        // GIVEN
+        RandomSource randomSource = new RandomSource(1, 40);
+
+        // WHEN
+        byte[] first = randomSource.nextBytes(16);
+        byte[] second = randomSource.nextBytes(16);
+        byte[] third = randomSource.nextBytes(16); // Spans two prefetched blocks
+        byte[] large = randomSource.nextBytes(64); // Larger than a prefetched block
+
+        // THEN
+        assertFalse(Arrays.equals(first, second));
+        assertFalse(Arrays.equals(second, third));
+        assertFalse(Arrays.equals(new byte[16], third));
+        assertFalse(Arrays.equals(new byte[64], large));
+    }
+
+    @Test
+    public void testGetDefault_ShouldReturnSharedInstance() {
+        assertSame(RandomSource.getDefault(), RandomSource.getDefault());
+        Assert.assertTrue(RandomSource.getDefault().getStripeCount() > 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_ShouldThrowIllegalArgumentException_WhenStripeCountNotPositive() {
+        new RandomSource(0, 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_ShouldThrowIllegalArgumentException_WhenPrefetchSizeNegative() {
+        new RandomSource(1, -1);
+    }
+
+    @Test
+    public void testBuild_ShouldUseConfiguredRandomSource() throws Exception {
+
+        // GIVEN
+        RandomSource randomSource = new RandomSource(1, 256);
+
+        // WHEN
+        FieldLevelEncryptionConfig config = TestUtils.getTestFieldLevelEncryptionConfigBuilder()
+                .withRandomSource(randomSource)
+                .build();
+        FieldLevelEncryptionParams params = FieldLevelEncryptionParams.generate(config);
+
+        // THEN
+        assertSame(randomSource, config.getRandomSource());
+        assertEquals(16, params.getIvSpec().getIV().length);
+        assertEquals(16, params.getSecretKey().getEncoded().length);
+    }
+
+    @Test
+    public void testBuild_ShouldUseDefaultRandomSource_WhenNotConfigured() throws Exception {
+        JweConfig config = TestUtils.getTestJweConfigBuilder().build();
+        assertSame(RandomSource.getDefault(), config.getRandomSource());
+    }
+}
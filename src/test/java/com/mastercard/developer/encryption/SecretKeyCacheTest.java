@@ -0,0 +1,129 @@
+package com.mastercard.developer.encryption;
+
+import com.mastercard.developer.encryption.rsa.RSA;
+import com.mastercard.developer.test.TestUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import java.security.Key;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.util.concurrent.TimeUnit;
+
+import static com.mastercard.developer.utils.EncodingUtils.base64Decode;
+
+public class SecretKeyCacheTest {
+
+    @Test
+    public void testUnwrapSecretKey_ShouldSkipUnwrap_WhenKeyAlreadyCached() throws Exception {
+
+        // GIVEN
+        SecretKeyCache cache = new SecretKeyCache(10, 1, TimeUnit.MINUTES);
+        byte[] wrappedKeyBytes = wrap(aSecretKey("mZzmzoURXI3Vk0vdsPkcFw=="));
+        PrivateKey decryptionKey = TestUtils.getTestDecryptionKey();
+
+        // WHEN
+        Key firstKey = cache.unwrapSecretKey(decryptionKey, wrappedKeyBytes, "SHA-256");
+        Key secondKey = cache.unwrapSecretKey(decryptionKey, wrappedKeyBytes, "SHA-256");
+
+        // THEN
+        Assert.assertArrayEquals(base64Decode("mZzmzoURXI3Vk0vdsPkcFw=="), firstKey.getEncoded());
+        Assert.assertSame(firstKey, secondKey);
+        Assert.assertEquals(1, cache.getHitCount());
+        Assert.assertEquals(1, cache.getMissCount());
+        Assert.assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void testUnwrapSecretKey_ShouldMiss_WhenDecryptionKeyDiffers() throws Exception {
+
+        // GIVEN
+        SecretKeyCache cache = new SecretKeyCache(10, 1, TimeUnit.MINUTES);
+        byte[] wrappedKeyBytes = wrap(aSecretKey("mZzmzoURXI3Vk0vdsPkcFw=="));
+
+        // WHEN
+        cache.unwrapSecretKey(TestUtils.getTestDecryptionKey(), wrappedKeyBytes, "SHA-256");
+        cache.unwrapSecretKey(TestUtils.getTestDecryptionKey(), wrappedKeyBytes, "SHA-256");
+
+        // THEN
+        Assert.assertEquals(0, cache.getHitCount());
+        Assert.assertEquals(2, cache.getMissCount());
+    }
+
+    @Test
+    public void testUnwrapSecretKey_ShouldEvictEldestKey_WhenMaximumSizeReached() throws Exception {
+
+        // GIVEN
+        SecretKeyCache cache = new SecretKeyCache(1, 1, TimeUnit.MINUTES);
+        PrivateKey decryptionKey = TestUtils.getTestDecryptionKey();
+        byte[] wrappedKeyBytes1 = wrap(aSecretKey("mZzmzoURXI3Vk0vdsPkcFw=="));
+        byte[] wrappedKeyBytes2 = wrap(aSecretKey("VNm/scgd1jhWF0z4+Qh6MA=="));
+
+        // WHEN
+        cache.unwrapSecretKey(decryptionKey, wrappedKeyBytes1, "SHA-256");
+        cache.unwrapSecretKey(decryptionKey, wrappedKeyBytes2, "SHA-256");
+        cache.unwrapSecretKey(decryptionKey, wrappedKeyBytes1, "SHA-256");
+
+        // THEN
+        Assert.assertEquals(0, cache.getHitCount());
+        Assert.assertEquals(3, cache.getMissCount());
+        Assert.assertEquals(2, cache.getEvictionCount());
+        Assert.assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void testUnwrapSecretKey_ShouldUnwrapAgain_WhenKeyExpired() throws Exception {
+
+        // GIVEN
+        SecretKeyCache cache = new SecretKeyCache(10, 1, TimeUnit.MILLISECONDS);
+        PrivateKey decryptionKey = TestUtils.getTestDecryptionKey();
+        byte[] wrappedKeyBytes = wrap(aSecretKey("mZzmzoURXI3Vk0vdsPkcFw=="));
+
+        // WHEN
+        cache.unwrapSecretKey(decryptionKey, wrappedKeyBytes, "SHA-256");
+        Thread.sleep(5);
+        cache.unwrapSecretKey(decryptionKey, wrappedKeyBytes, "SHA-256");
+
+        // THEN
+        Assert.assertEquals(0, cache.getHitCount());
+        Assert.assertEquals(2, cache.getMissCount());
+        Assert.assertEquals(1, cache.getEvictionCount());
+    }
+
+    @Test
+    public void testDecryptPayload_ShouldUseSecretKeyCache_WhenConfigured() throws Exception {
+
+        // GIVEN
+        SecretKeyCache cache = new SecretKeyCache(10, 1, TimeUnit.MINUTES);
+        JweConfig config = TestUtils.getTestJweConfigBuilder()
+                .withSecretKeyCache(cache)
+                .build();
+        String encryptedPayload = JweEncryption.encryptPayload("{\"foo\":\"bar\"}", config);
+
+        // WHEN
+        JweEncryption.decryptPayload(encryptedPayload, config);
+        String payload = JweEncryption.decryptPayload(encryptedPayload, config);
+
+        // THEN
+        TestUtils.assertPayloadEquals("{\"foo\":\"bar\"}", payload);
+        Assert.assertEquals(1, cache.getHitCount());
+        Assert.assertEquals(1, cache.getMissCount());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_ShouldThrowIllegalArgumentException_WhenMaximumSizeNotPositive() {
+        new SecretKeyCache(0, 1, TimeUnit.MINUTES);
+    }
+
+    private static SecretKey aSecretKey(String base64Value) {
+        byte[] keyBytes = base64Decode(base64Value);
+        return new SecretKeySpec(keyBytes, 0, keyBytes.length, "AES");
+    }
+
+    private static byte[] wrap(SecretKey secretKey) throws Exception {
+        PublicKey publicKey = TestUtils.getTestEncryptionCertificate().getPublicKey();
+        return RSA.wrapSecretKey(publicKey, secretKey, "SHA-256");
+    }
+}
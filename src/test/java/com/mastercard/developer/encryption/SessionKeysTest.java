@@ -0,0 +1,101 @@
+package com.mastercard.developer.encryption;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.mastercard.developer.test.TestUtils.assertDecryptedPayloadEquals;
+import static com.mastercard.developer.test.TestUtils.getTestFieldLevelEncryptionConfigBuilder;
+
+public class SessionKeysTest {
+
+    @Test
+    public void testAcquire_ShouldReuseKey_UntilMaximumUsagesReached() throws Exception {
+
+        // GIVEN
+        AtomicInteger generatedCount = new AtomicInteger();
+        SessionKeys<Integer> sessionKeys = new SessionKeys<>(new SessionKeyPolicy(4, 1, TimeUnit.MINUTES),
+                generatedCount::incrementAndGet, Runnable::run);
+
+        // WHEN
+        int[] keys = new int[5];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = sessionKeys.acquire();
+        }
+
+        // THEN
+        Assert.assertArrayEquals(new int[] { 1, 1, 1, 1, 2 }, keys);
+        Assert.assertEquals(2, generatedCount.get());
+    }
+
+    @Test
+    public void testAcquire_ShouldReplaceKey_WhenTimeToLiveElapsed() throws Exception {
+
+        // GIVEN
+        AtomicInteger generatedCount = new AtomicInteger();
+        SessionKeys<Integer> sessionKeys = new SessionKeys<>(new SessionKeyPolicy(100, 50, TimeUnit.MILLISECONDS),
+                generatedCount::incrementAndGet, Runnable::run);
+
+        // WHEN
+        int firstKey = sessionKeys.acquire();
+        Thread.sleep(60);
+        int secondKey = sessionKeys.acquire();
+
+        // THEN
+        Assert.assertEquals(1, firstKey);
+        Assert.assertNotEquals(firstKey, secondKey);
+    }
+
+    @Test
+    public void testAcquire_ShouldGenerateNextKeyAgain_WhenBackgroundGenerationFailed() throws Exception {
+
+        // GIVEN
+        AtomicInteger callCount = new AtomicInteger();
+        SessionKeys<Integer> sessionKeys = new SessionKeys<>(new SessionKeyPolicy(1, 1, TimeUnit.MINUTES), () -> {
+            if (callCount.incrementAndGet() == 2) {
+                throw new EncryptionException("Failed!", new IllegalStateException());
+            }
+            return callCount.get();
+        }, Runnable::run);
+
+        // WHEN
+        int firstKey = sessionKeys.acquire();
+        int secondKey = sessionKeys.acquire();
+
+        // THEN
+        Assert.assertEquals(1, firstKey);
+        Assert.assertEquals(3, secondKey);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSessionKeyPolicy_ShouldThrowIllegalArgumentException_WhenMaximumUsagesExceedsGcmLimit() {
+        new SessionKeyPolicy(SessionKeyPolicy.MAXIMUM_USAGES_LIMIT + 1, 1, TimeUnit.MINUTES);
+    }
+
+    @Test
+    public void testEncryptPayload_ShouldReuseWrappedKeyAcrossPayloads_WhenSessionKeyPolicySet() throws Exception {
+
+        // GIVEN
+        String payload = "{\"data\": {\"field\": \"value\"}, \"encryptedData\": {}}";
+        FieldLevelEncryptionConfig config = getTestFieldLevelEncryptionConfigBuilder()
+                .withEncryptionPath("$.data", "$.encryptedData")
+                .withDecryptionPath("$.encryptedData", "$.data")
+                .withSessionKeyPolicy(new SessionKeyPolicy(100, 1, TimeUnit.MINUTES))
+                .build();
+
+        // WHEN
+        String firstEncryptedPayload = FieldLevelEncryption.encryptPayload(payload, config);
+        String secondEncryptedPayload = FieldLevelEncryption.encryptPayload(payload, config);
+
+        // THEN
+        JsonObject firstEncryptedData = new Gson().fromJson(firstEncryptedPayload, JsonObject.class).getAsJsonObject("encryptedData");
+        JsonObject secondEncryptedData = new Gson().fromJson(secondEncryptedPayload, JsonObject.class).getAsJsonObject("encryptedData");
+        Assert.assertEquals(firstEncryptedData.get("encryptedKey"), secondEncryptedData.get("encryptedKey"));
+        Assert.assertNotEquals(firstEncryptedData.get("iv"), secondEncryptedData.get("iv"));
+        assertDecryptedPayloadEquals("{\"data\":{\"field\":\"value\"}}", secondEncryptedPayload, config);
+    }
+}
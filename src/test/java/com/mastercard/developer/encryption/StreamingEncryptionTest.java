@@ -0,0 +1,264 @@
+package com.mastercard.developer.encryption;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static com.mastercard.developer.test.TestUtils.*;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class StreamingEncryptionTest {
+
+    private static String encrypt(String payload, EncryptionConfig config) throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        StreamingEncryption.encryptPayload(new ByteArrayInputStream(payload.getBytes(StandardCharsets.UTF_8)), output, config);
+        return new String(output.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    private static String decrypt(String payload, EncryptionConfig config) throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        StreamingEncryption.decryptPayload(new ByteArrayInputStream(payload.getBytes(StandardCharsets.UTF_8)), output, config);
+        return new String(output.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void testIsAvailable_ShouldReturnTrue_WhenJacksonOnClasspath() {
+        assertTrue(StreamingEncryption.isAvailable());
+    }
+
+    @Test
+    public void testEncryptPayload_ShouldEncryptWithJwe() throws Exception {
+
+        // GIVEN
+        String payload = "{\"before\":[1,2,{\"x\":true}],\"data\":{\"field\":\"value\",\"number\":42},\"after\":\"text\"}";
+        JweConfig config = getTestJweConfigBuilder()
+                .withEncryptionPath("$.data", "$.encryptedData")
+                .withDecryptionPath("$.encryptedData.encryptedData", "$.data")
+                .build();
+
+        // WHEN
+        String encryptedPayload = encrypt(payload, config);
+
+        // THEN
+        JsonObject encryptedPayloadObject = new Gson().fromJson(encryptedPayload, JsonObject.class);
+        assertNull(encryptedPayloadObject.get("data"));
+        assertNotNull(encryptedPayloadObject.getAsJsonObject("encryptedData").get("encryptedData"));
+        assertEquals("text", encryptedPayloadObject.get("after").getAsString());
+        assertDecryptedJweEquals(payload, encryptedPayload, config);
+    }
+
+    @Test
+    public void testDecryptPayload_ShouldDecryptWithJwe() throws Exception {
+
+        // GIVEN
+        String payload = "{\"before\":\"text\",\"data\":{\"field\":\"value\"},\"after\":[{}]}";
+        JweConfig config = getTestJweConfigBuilder()
+                .withEncryptionPath("$.data", "$.encryptedData")
+                .withDecryptionPath("$.encryptedData.encryptedData", "$.data")
+                .build();
+        String encryptedPayload = JweEncryption.encryptPayload(payload, config);
+
+        // WHEN
+        String decryptedPayload = decrypt(encryptedPayload, config);
+
+        // THEN
+        assertPayloadEquals(JweEncryption.decryptPayload(encryptedPayload, config), decryptedPayload);
+    }
+
+    @Test
+    public void testEncryptPayload_ShouldEncryptWithWildcard() throws Exception {
+
+        // GIVEN
+        String payload = "{\"groups\":[" +
+                "{\"fields\":[{\"field1\":\"AAAA\",\"field2\":1},{\"field1\":\"BBBB\"}]}," +
+                "{\"fields\":[{\"field1\":\"CCCC\"}]}" +
+                "]}";
+        JweConfig config = getTestJweConfigBuilder()
+                .withEncryptionPath("$.groups[*].fields[*].field1", "$.groups[*].fields[*]")
+                .withDecryptionPath("$.groups[*].fields[*].encryptedData", "$.groups[*].fields[*].field1")
+                .build();
+
+        // WHEN
+        String encryptedPayload = encrypt(payload, config);
+
+        // THEN
+        JsonObject encryptedPayloadObject = new Gson().fromJson(encryptedPayload, JsonObject.class);
+        JsonObject firstField = encryptedPayloadObject.getAsJsonArray("groups").get(0).getAsJsonObject()
+                .getAsJsonArray("fields").get(0).getAsJsonObject();
+        assertNull(firstField.get("field1"));
+        assertNotNull(firstField.get("encryptedData"));
+        assertEquals(1, firstField.get("field2").getAsInt());
+        assertDecryptedJweEquals(payload, encryptedPayload, config);
+        assertPayloadEquals(payload, decrypt(encryptedPayload, config));
+    }
+
+    @Test
+    public void testEncryptPayload_ShouldEncryptWithFieldLevelEncryption() throws Exception {
+
+        // GIVEN
+        String payload = "{\"data\":{\"field1\":\"value\",\"field2\":[1,2]},\"other\":{\"x\":\"y\"}}";
+        FieldLevelEncryptionConfig config = getTestFieldLevelEncryptionConfigBuilder()
+                .withEncryptionPath("$.data", "$.encryptedData")
+                .withDecryptionPath("$.encryptedData", "$.data")
+                .build();
+
+        // WHEN
+        String encryptedPayload = encrypt(payload, config);
+
+        // THEN
+        JsonObject encryptedPayloadObject = new Gson().fromJson(encryptedPayload, JsonObject.class);
+        assertNull(encryptedPayloadObject.get("data"));
+        assertNotNull(encryptedPayloadObject.getAsJsonObject("encryptedData").get("encryptedValue"));
+        assertDecryptedPayloadEquals(payload, encryptedPayload, config);
+        assertPayloadEquals(payload, decrypt(encryptedPayload, config));
+    }
+
+    @Test
+    public void testDecryptPayload_ShouldMergeIntoParent_WhenOutPathIsParent() throws Exception {
+
+        // GIVEN
+        String payload = "{\"data\":{\"field1\":\"value\"}}";
+        FieldLevelEncryptionConfig config = getTestFieldLevelEncryptionConfigBuilder()
+                .withEncryptionPath("$.data", "$.data")
+                .withDecryptionPath("$.data", "$.data")
+                .build();
+        String encryptedPayload = FieldLevelEncryption.encryptPayload(payload, config);
+
+        // WHEN
+        String decryptedPayload = decrypt(encryptedPayload, config);
+
+        // THEN
+        assertPayloadEquals(payload, decryptedPayload);
+    }
+
+    @Test
+    public void testEncryptPayload_ShouldBufferCommonParent_WhenOutPathIsElsewhere() throws Exception {
+
+        // GIVEN
+        String payload = "{\"x\":{\"a\":{\"b\":{\"field\":\"value\"},\"c\":1}},\"d\":2}";
+        JweConfig config = getTestJweConfigBuilder()
+                .withEncryptionPath("$.x.a.b", "$.x.e")
+                .withDecryptionPath("$.x.e.encryptedData", "$.x.a.b")
+                .build();
+
+        // WHEN
+        String encryptedPayload = encrypt(payload, config);
+
+        // THEN
+        JsonObject encryptedPayloadObject = new Gson().fromJson(encryptedPayload, JsonObject.class);
+        JsonObject x = encryptedPayloadObject.getAsJsonObject("x");
+        assertNull(x.getAsJsonObject("a").get("b"));
+        assertNotNull(x.getAsJsonObject("e").get("encryptedData"));
+        assertEquals(2, encryptedPayloadObject.get("d").getAsInt());
+        assertPayloadEquals(payload, decrypt(encryptedPayload, config));
+    }
+
+    @Test
+    public void testEncryptPayload_ShouldProcessWholePayload_WhenRootPaths() throws Exception {
+
+        // GIVEN
+        String payload = "[{},{}]";
+        JweConfig config = getTestJweConfigBuilder()
+                .withEncryptionPath("$", "$")
+                .withDecryptionPath("$.encryptedData", "$")
+                .build();
+
+        // WHEN
+        String encryptedPayload = encrypt(payload, config);
+
+        // THEN
+        assertDecryptedJweEquals(payload, encryptedPayload, config);
+        assertPayloadEquals(payload, decrypt(encryptedPayload, config));
+    }
+
+    @Test
+    public void testEncryptPayload_ShouldStreamWholePayload_WhenFieldLevelEncryptionOfRoot() throws Exception {
+
+        // GIVEN
+        StringBuilder payload = new StringBuilder("{\"items\":[");
+        for (int i = 0; i < 10_000; i++) {
+            payload.append(i == 0 ? "" : ",").append("{\"id\":").append(i).append(",\"name\":\"item \u00e9 ").append(i).append("\"}");
+        }
+        payload.append("]}");
+        FieldLevelEncryptionConfig config = getTestFieldLevelEncryptionConfigBuilder()
+                .withEncryptionPath("$", "$.encryptedData")
+                .withDecryptionPath("$.encryptedData", "$")
+                .build();
+
+        // WHEN
+        String encryptedPayload = encrypt(payload.toString(), config);
+
+        // THEN
+        JsonObject encryptedData = new Gson().fromJson(encryptedPayload, JsonObject.class).getAsJsonObject("encryptedData");
+        assertNotNull(encryptedData.get("encryptedValue"));
+        assertNotNull(encryptedData.get("iv"));
+        assertNotNull(encryptedData.get("encryptedKey"));
+        assertEquals("SHA256", encryptedData.get("oaepHashingAlgorithm").getAsString());
+        assertDecryptedPayloadEquals(payload.toString(), encryptedPayload, config);
+    }
+
+    @Test
+    public void testEncryptPayload_ShouldStreamWholePayload_WhenHexEncodingAndRootOutput() throws Exception {
+
+        // GIVEN
+        String payload = "[{\"field\":\"value\"},42,\"text\"]";
+        FieldLevelEncryptionConfig config = getTestFieldLevelEncryptionConfigBuilder()
+                .withEncryptionPath("$", "$")
+                .withDecryptionPath("$", "$")
+                .withFieldValueEncoding(FieldLevelEncryptionConfig.FieldValueEncoding.HEX)
+                .build();
+
+        // WHEN
+        String encryptedPayload = encrypt(payload, config);
+
+        // THEN
+        JsonObject encryptedPayloadObject = new Gson().fromJson(encryptedPayload, JsonObject.class);
+        assertTrue(encryptedPayloadObject.get("encryptedValue").getAsString().matches("[0-9a-f]+"));
+        assertDecryptedPayloadEquals(payload, encryptedPayload, config);
+    }
+
+    @Test
+    public void testEncryptPayload_ShouldCopyPayload_WhenPathNotFound() throws Exception {
+
+        // GIVEN
+        String payload = "{\"data\":{\"field\":\"\\u00e9\"},\"list\":[1.5,true,\"z\"]}";
+        JweConfig config = getTestJweConfigBuilder()
+                .withEncryptionPath("$.missing", "$.encryptedData")
+                .build();
+
+        // WHEN
+        String encryptedPayload = encrypt(payload, config);
+
+        // THEN
+        assertPayloadEquals(payload, encryptedPayload);
+    }
+
+    @Test
+    public void testEncryptPayload_ShouldThrowEncryptionException_WhenOutputFieldAlreadyWritten() throws Exception {
+
+        // GIVEN
+        String payload = "{\"encryptedData\":\"existing\",\"data\":{}}";
+        JweConfig config = getTestJweConfigBuilder()
+                .withEncryptionPath("$.data", "$.encryptedData")
+                .build();
+
+        // WHEN
+        try {
+            encrypt(payload, config);
+        } catch (EncryptionException e) {
+
+            // THEN
+            assertFalse(e.getMessage().isEmpty());
+            return;
+        }
+        throw new AssertionError("EncryptionException expected");
+    }
+}
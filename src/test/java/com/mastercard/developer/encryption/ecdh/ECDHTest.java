@@ -0,0 +1,130 @@
+package com.mastercard.developer.encryption.ecdh;
+
+import com.mastercard.developer.encryption.EncryptionException;
+import com.mastercard.developer.utils.EncodingUtils;
+import org.junit.Test;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PublicKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.spec.ECFieldFp;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.ECParameterSpec;
+import java.security.spec.ECPoint;
+import java.security.spec.EllipticCurve;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class ECDHTest {
+
+    private static KeyPair generateP256KeyPair() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+        generator.initialize(new ECGenParameterSpec("secp256r1"));
+        return generator.generateKeyPair();
+    }
+
+    @Test
+    public void testDeriveKey_ShouldMatchRfc7518Example() throws Exception {
+
+        // GIVEN (RFC 7518, appendix C)
+        byte[] sharedSecret = { (byte) 158, 86, (byte) 217, 29, (byte) 129, 113, 53, (byte) 211, 114, (byte) 131, 66, (byte) 131,
+                (byte) 191, (byte) 132, 38, (byte) 156, (byte) 251, 49, 110, (byte) 163, (byte) 218, (byte) 128, 106, 72,
+                (byte) 246, (byte) 218, (byte) 167, 121, (byte) 140, (byte) 254, (byte) 144, (byte) 196 };
+
+        // WHEN
+        byte[] derivedKey = ECDH.deriveKey(sharedSecret, "A128GCM",
+                "Alice".getBytes(StandardCharsets.US_ASCII), "Bob".getBytes(StandardCharsets.US_ASCII), 128);
+
+        // THEN
+        assertEquals("VqqN6vgjbSBcIijNcacQGg", EncodingUtils.base64UrlEncode(derivedKey));
+    }
+
+    @Test
+    public void testAgree_ShouldComputeSameSecret_WhenUsingEphemeralKeyFromJwk() throws Exception {
+
+        // GIVEN
+        KeyPair recipientKeyPair = generateP256KeyPair();
+        KeyPair ephemeralKeyPair = ECDH.generateEphemeralKeyPair(recipientKeyPair.getPublic());
+
+        // WHEN
+        Map<String, String> jwk = ECDH.toJwk(ephemeralKeyPair.getPublic());
+        PublicKey ephemeralPublicKey = ECDH.fromJwk(jwk, recipientKeyPair.getPrivate());
+
+        // THEN
+        assertEquals("P-256", jwk.get("crv"));
+        assertArrayEquals(ECDH.agree(ephemeralKeyPair.getPrivate(), recipientKeyPair.getPublic()),
+                ECDH.agree(recipientKeyPair.getPrivate(), ephemeralPublicKey));
+    }
+
+    @Test
+    public void testFromJwk_ShouldThrowEncryptionException_WhenPointNotOnCurve() throws Exception {
+
+        // GIVEN
+        KeyPair recipientKeyPair = generateP256KeyPair();
+        Map<String, String> jwk = new HashMap<>(ECDH.toJwk(ECDH.generateEphemeralKeyPair(recipientKeyPair.getPublic()).getPublic()));
+        jwk.put("y", jwk.get("x"));
+
+        try {
+            // WHEN
+            ECDH.fromJwk(jwk, recipientKeyPair.getPrivate());
+            fail("An exception should have been thrown!");
+        } catch (EncryptionException e) {
+            // THEN
+            assertEquals("The ephemeral public key isn't on the curve of the decryption key!", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testToJwk_ShouldThrowEncryptionException_WhenNotNistCurveOfSameSize() {
+
+        // GIVEN
+        ECParameterSpec secp256k1 = new ECParameterSpec(
+                new EllipticCurve(new ECFieldFp(new BigInteger("FFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFEFFFFFC2F", 16)),
+                        BigInteger.ZERO, BigInteger.valueOf(7)),
+                new ECPoint(new BigInteger("79BE667EF9DCBBAC55A06295CE870B07029BFCDB2DCE28D959F2815B16F81798", 16),
+                        new BigInteger("483ADA7726A3C4655DA4FBFC0E1108A8FD17B448A68554199C47D08FFB10D4B8", 16)),
+                new BigInteger("FFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFEBAAEDCE6AF48A03BBFD25E8CD0364141", 16), 1);
+        ECPublicKey publicKey = new ECPublicKey() {
+            @Override
+            public ECPoint getW() {
+                return secp256k1.getGenerator();
+            }
+
+            @Override
+            public ECParameterSpec getParams() {
+                return secp256k1;
+            }
+
+            @Override
+            public String getAlgorithm() {
+                return "EC";
+            }
+
+            @Override
+            public String getFormat() {
+                return null;
+            }
+
+            @Override
+            public byte[] getEncoded() {
+                return null;
+            }
+        };
+
+        try {
+            // WHEN
+            ECDH.toJwk(publicKey);
+            fail("An exception should have been thrown!");
+        } catch (EncryptionException e) {
+            // THEN
+            assertEquals("Unsupported curve, only P-256, P-384 and P-521 are supported!", e.getMessage());
+        }
+    }
+}
@@ -1,15 +1,33 @@
 package com.mastercard.developer.encryption.jwe;
 
 import com.google.common.collect.ImmutableList;
+import com.mastercard.developer.encryption.EncryptionException;
+import com.mastercard.developer.encryption.JweConfig;
+import com.mastercard.developer.encryption.JweConfigBuilder;
+import com.mastercard.developer.json.JsonEngine;
 import com.mastercard.developer.test.TestUtils;
 import org.junit.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
 
+import javax.crypto.spec.SecretKeySpec;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.spec.AlgorithmParameterSpec;
+import java.security.spec.ECGenParameterSpec;
+import java.util.Base64;
 import java.util.stream.Stream;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 public class JWEObjectTest {
 
@@ -37,4 +55,388 @@ public class JWEObjectTest {
 
         assertEquals("{\"foo\":\"bar\"}", decryptedPayload);
     }
+
+    @ParameterizedTest(name = "[{index}] {0}")
+    @MethodSource("aesGcmJweObjects")
+    public void testDecrypt_ShouldWriteDecryptedPayload_WhenPayloadIsGcmEncrypted(String name, JweObject jweObject) throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        jweObject.decrypt(TestUtils.getTestJweConfigBuilder().build(), output);
+
+        assertEquals("{\"foo\":\"bar\"}", new String(output.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testDecrypt_ShouldWriteDecryptedPayload_WhenPayloadIsCbcEncrypted() throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        TestUtils.getTestCbcJweObject().decrypt(TestUtils.getTestJweConfigBuilder().build(), output);
+
+        assertEquals("bar", new String(output.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testParse_ShouldKeepSegments() {
+        JweObject jweObject = JweObject.parse(" aGVhZGVy.a2V5.aXY.dGV4dA.dGFn\n", JsonEngine.getDefault());
+
+        assertEquals("aGVhZGVy", jweObject.getRawHeader());
+        assertEquals("aXY", jweObject.getIv());
+        assertEquals("dGV4dA", jweObject.getCipherText());
+        assertEquals("dGFn", jweObject.getAuthTag());
+    }
+
+    @Test
+    public void testParse_ShouldAcceptEmptySegments() {
+        JweObject jweObject = JweObject.parse("aGVhZGVy..aXY..", JsonEngine.getDefault());
+
+        assertEquals("aXY", jweObject.getIv());
+        assertEquals("", jweObject.getCipherText());
+        assertEquals("", jweObject.getAuthTag());
+    }
+
+    @Test
+    public void testGetCipherTextAndAuthTagBytes_ShouldDecodeBothSegments() {
+        JweObject jweObject = JweObject.parse("aGVhZGVy.a2V5.aXY.dGV4dA.dGFn", JsonEngine.getDefault());
+        assertArrayEquals("texttag".getBytes(StandardCharsets.US_ASCII), jweObject.getCipherTextAndAuthTagBytes());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testParse_ShouldThrowIllegalArgumentException_WhenTooFewSegments() {
+        JweObject.parse("aGVhZGVy.a2V5.aXY.dGV4dA", JsonEngine.getDefault());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testParse_ShouldThrowIllegalArgumentException_WhenTooManySegments() {
+        JweObject.parse("aGVhZGVy.a2V5.aXY.dGV4dA.dGFn.Zm9v", JsonEngine.getDefault());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testParse_ShouldThrowIllegalArgumentException_WhenHeaderEmpty() {
+        JweObject.parse(".a2V5.aXY.dGV4dA.dGFn", JsonEngine.getDefault());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testParse_ShouldThrowIllegalArgumentException_WhenNoSegment() {
+        JweObject.parse("not a JWE", JsonEngine.getDefault());
+    }
+
+    @Test
+    public void testGetHeader_ShouldReuseParsedHeader_WhenRawHeaderRepeats() {
+
+        // GIVEN
+        JweObject jweObject1 = TestUtils.getTestAes256GcmJweObject();
+        JweObject jweObject2 = TestUtils.getTestAes256GcmJweObject();
+
+        // WHEN
+        JweHeader header1 = jweObject1.getHeader();
+        JweHeader header2 = jweObject2.getHeader();
+
+        // THEN
+        assertSame(header1, header2);
+        assertEquals("A256GCM", header1.getEnc());
+        assertEquals("RSA-OAEP-256", header1.getAlg());
+    }
+
+    @Test
+    public void testEncrypt_ShouldEncodePayloadAsUtf8() throws Exception {
+
+        // GIVEN
+        JweConfig config = TestUtils.getTestJweConfigBuilder().build();
+        String payload = "{\"name\":\"Zo\u00eb \u20ac\"}";
+
+        // WHEN
+        String encrypted = JweObject.encrypt(config, payload);
+        JweObject jweObject = JweObject.parse(encrypted, JsonEngine.getDefault());
+
+        // THEN
+        assertArrayEquals(payload.getBytes(StandardCharsets.UTF_8), jweObject.decryptBytes(config));
+        assertEquals(payload, jweObject.decrypt(config));
+    }
+
+    @Test
+    public void testEncrypt_ShouldCompressPayload_WhenCompressionThresholdReached() throws Exception {
+
+        // GIVEN
+        JweConfig config = TestUtils.getTestJweConfigBuilder()
+                .withCompressionThreshold(100)
+                .build();
+        String payload = "{\"data\":\"" + new String(new char[1000]).replace('\0', 'a') + "\"}";
+
+        // WHEN
+        String encrypted = JweObject.encrypt(config, payload);
+        JweObject jweObject = JweObject.parse(encrypted, JsonEngine.getDefault());
+
+        // THEN
+        assertEquals("DEF", jweObject.getHeader().getZip());
+        assertTrue(jweObject.getCipherText().length() < 100);
+        assertEquals(payload, jweObject.decrypt(config));
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        jweObject.decrypt(config, output);
+        assertEquals(payload, new String(output.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testEncrypt_ShouldNotCompressPayload_WhenBelowCompressionThreshold() throws Exception {
+
+        // GIVEN
+        JweConfig config = TestUtils.getTestJweConfigBuilder()
+                .withCompressionThreshold(100)
+                .build();
+
+        // WHEN
+        String encrypted = JweObject.encrypt(config, "{\"foo\":\"bar\"}");
+        JweObject jweObject = JweObject.parse(encrypted, JsonEngine.getDefault());
+
+        // THEN
+        assertNull(jweObject.getHeader().getZip());
+        assertEquals("{\"foo\":\"bar\"}", jweObject.decrypt(config));
+    }
+
+    @Test
+    public void testDecrypt_ShouldThrowEncryptionException_WhenInflatedPayloadExceedsMaximumSize() throws Exception {
+
+        // GIVEN
+        JweConfig encryptionConfig = TestUtils.getTestJweConfigBuilder()
+                .withCompressionThreshold(1)
+                .build();
+        JweConfig decryptionConfig = TestUtils.getTestJweConfigBuilder()
+                .withMaximumInflatedSize(1000)
+                .build();
+        String encrypted = JweObject.encrypt(encryptionConfig, new String(new char[1001]).replace('\0', 'a'));
+
+        // WHEN
+        try {
+            JweObject.parse(encrypted, JsonEngine.getDefault()).decrypt(decryptionConfig);
+            fail("Exception expected");
+        } catch (EncryptionException e) {
+            // THEN
+            assertEquals("The inflated payload exceeds the maximum size (1000 bytes)!", e.getMessage());
+        }
+    }
+
+    private static Stream<Arguments> symmetricConfigBuilders() {
+        SecretKeySpec key = new SecretKeySpec(new byte[32], "AES");
+        return Stream.of(
+                Arguments.of("dir", JweConfigBuilder.aJweEncryptionConfig().withContentEncryptionKey(key)),
+                Arguments.of("A256KW", JweConfigBuilder.aJweEncryptionConfig().withKeyEncryptionKey(key, "A256KW")),
+                Arguments.of("A256GCMKW", JweConfigBuilder.aJweEncryptionConfig().withKeyEncryptionKey(key, "A256GCMKW")));
+    }
+
+    @ParameterizedTest(name = "[{index}] {0}")
+    @MethodSource("symmetricConfigBuilders")
+    public void testEncrypt_ShouldUseSymmetricKeyManagement_WhenSymmetricKeyConfigured(String algorithm, JweConfigBuilder builder) throws Exception {
+
+        // GIVEN
+        JweConfig config = builder.build();
+
+        // WHEN
+        String encrypted = JweObject.encrypt(config, "{\"foo\":\"bar\"}");
+        JweObject jweObject = JweObject.parse(encrypted, JsonEngine.getDefault());
+
+        // THEN
+        assertEquals(algorithm, jweObject.getHeader().getAlg());
+        assertEquals("{\"foo\":\"bar\"}", jweObject.decrypt(config));
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        jweObject.decrypt(config, output);
+        assertEquals("{\"foo\":\"bar\"}", new String(output.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testDecrypt_ShouldOnlyAcceptConfiguredAlgorithm() throws Exception {
+
+        // GIVEN
+        SecretKeySpec keyEncryptionKey = new SecretKeySpec(new byte[32], "AES");
+        JweConfig encryptionConfig = JweConfigBuilder.aJweEncryptionConfig()
+                .withKeyEncryptionKey(keyEncryptionKey, "A256GCMKW")
+                .withCompressionThreshold(1)
+                .build();
+        JweConfig decryptionConfig = TestUtils.getTestJweConfigBuilder()
+                .withEncryptionCertificate(null)
+                .withKeyEncryptionKey(keyEncryptionKey, "A256GCMKW")
+                .build();
+
+        // WHEN
+        String symmetricallyEncrypted = JweObject.encrypt(encryptionConfig, "{\"foo\":\"bar\"}");
+        String asymmetricallyEncrypted = JweObject.encrypt(TestUtils.getTestJweConfigBuilder().build(), "{\"foo\":\"baz\"}");
+
+        // THEN
+        JweObject jweObject = JweObject.parse(symmetricallyEncrypted, JsonEngine.getDefault());
+        assertEquals("DEF", jweObject.getHeader().getZip());
+        assertNotNull(jweObject.getHeader().getIv());
+        assertEquals("{\"foo\":\"bar\"}", jweObject.decrypt(decryptionConfig));
+        try {
+            JweObject.parse(asymmetricallyEncrypted, JsonEngine.getDefault()).decrypt(decryptionConfig);
+            fail("Exception expected");
+        } catch (EncryptionException e) {
+            assertEquals("Key management algorithm RSA-OAEP-256 not allowed, expected A256GCMKW!", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testDecrypt_ShouldThrowEncryptionException_WhenWeakerKeyWrapAlgorithmInHeader() throws Exception {
+
+        // GIVEN
+        JweConfig config = JweConfigBuilder.aJweEncryptionConfig()
+                .withKeyEncryptionKey(new SecretKeySpec(new byte[32], "AES"), "A256KW")
+                .build();
+        String[] parts = JweObject.encrypt(config, "{\"foo\":\"bar\"}").split("\\.", -1);
+        parts[0] = base64UrlEncode("{\"alg\":\"A128KW\",\"enc\":\"A256GCM\"}");
+
+        // WHEN
+        try {
+            JweObject.parse(String.join(".", parts), JsonEngine.getDefault()).decrypt(config);
+            fail("Exception expected");
+        } catch (EncryptionException e) {
+            // THEN
+            assertEquals("Key management algorithm A128KW not allowed, expected A256KW!", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testDecrypt_ShouldThrowEncryptionException_WhenEncryptedKeyWithDirectAlgorithm() throws Exception {
+
+        // GIVEN
+        JweConfig config = JweConfigBuilder.aJweEncryptionConfig()
+                .withContentEncryptionKey(new SecretKeySpec(new byte[32], "AES"))
+                .build();
+        String[] parts = JweObject.encrypt(config, "{\"foo\":\"bar\"}").split("\\.", -1);
+        parts[1] = base64UrlEncode("unexpected");
+
+        // WHEN
+        try {
+            JweObject.parse(String.join(".", parts), JsonEngine.getDefault()).decrypt(config);
+            fail("Exception expected");
+        } catch (EncryptionException e) {
+            // THEN
+            assertEquals("Unexpected encrypted key for the dir algorithm!", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testDecrypt_ShouldThrowEncryptionException_WhenEncryptedKeyWithEcdhEsAlgorithm() throws Exception {
+
+        // GIVEN
+        KeyPair keyPair = generateKeyPair("EC", new ECGenParameterSpec("secp256r1"));
+        JweConfig config = JweConfigBuilder.aJweEncryptionConfig()
+                .withEncryptionKey(keyPair.getPublic())
+                .withDecryptionKey(keyPair.getPrivate())
+                .build();
+        String[] parts = JweObject.encrypt(config, "{\"foo\":\"bar\"}").split("\\.", -1);
+        parts[1] = base64UrlEncode("unexpected");
+
+        // WHEN
+        try {
+            JweObject.parse(String.join(".", parts), JsonEngine.getDefault()).decrypt(config);
+            fail("Exception expected");
+        } catch (EncryptionException e) {
+            // THEN
+            assertEquals("Unexpected encrypted key for the ECDH-ES algorithm!", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testDecrypt_ShouldAcceptConfiguredAlgorithm_WhenEcDecryptionKeyOnly() throws Exception {
+
+        // GIVEN
+        KeyPair keyPair = generateKeyPair("EC", new ECGenParameterSpec("secp256r1"));
+        String encrypted = JweObject.encrypt(JweConfigBuilder.aJweEncryptionConfig()
+                .withEncryptionKey(keyPair.getPublic())
+                .withKeyManagementAlgorithm("ECDH-ES+A256KW")
+                .build(), "{\"foo\":\"bar\"}");
+        JweConfig config = JweConfigBuilder.aJweEncryptionConfig()
+                .withDecryptionKey(keyPair.getPrivate())
+                .withKeyManagementAlgorithm("ECDH-ES+A256KW")
+                .build();
+
+        // WHEN
+        String decrypted = JweObject.parse(encrypted, JsonEngine.getDefault()).decrypt(config);
+
+        // THEN
+        assertEquals("{\"foo\":\"bar\"}", decrypted);
+    }
+
+    private static String base64UrlEncode(String value) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Stream<Arguments> keyAgreementKeyPairs() throws Exception {
+        return Stream.of(
+                Arguments.of("ECDH-ES", generateKeyPair("EC", new ECGenParameterSpec("secp256r1"))),
+                Arguments.of("ECDH-ES+A256KW", generateKeyPair("EC", new ECGenParameterSpec("secp256r1"))),
+                Arguments.of("ECDH-ES", generateKeyPair("EC", new ECGenParameterSpec("secp384r1"))),
+                Arguments.of("ECDH-ES+A256KW", generateKeyPair("EC", new ECGenParameterSpec("secp521r1"))),
+                Arguments.of("ECDH-ES", generateKeyPair("X25519", null)));
+    }
+
+    private static KeyPair generateKeyPair(String algorithm, AlgorithmParameterSpec params) throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance(algorithm);
+        if (params != null) {
+            generator.initialize(params);
+        }
+        return generator.generateKeyPair();
+    }
+
+    @ParameterizedTest(name = "[{index}] {0}")
+    @MethodSource("keyAgreementKeyPairs")
+    public void testEncrypt_ShouldUseKeyAgreement_WhenEcKeyConfigured(String algorithm, KeyPair keyPair) throws Exception {
+
+        // GIVEN
+        JweConfig config = JweConfigBuilder.aJweEncryptionConfig()
+                .withEncryptionKey(keyPair.getPublic())
+                .withDecryptionKey(keyPair.getPrivate())
+                .withKeyManagementAlgorithm(algorithm)
+                .build();
+
+        // WHEN
+        String encrypted = JweObject.encrypt(config, "{\"foo\":\"bar\"}");
+        JweObject jweObject = JweObject.parse(encrypted, JsonEngine.getDefault());
+
+        // THEN
+        assertEquals(algorithm, jweObject.getHeader().getAlg());
+        assertNotNull(jweObject.getHeader().getEpk());
+        assertEquals("ECDH-ES".equals(algorithm), jweObject.getEncryptedKey().isEmpty());
+        assertEquals("{\"foo\":\"bar\"}", jweObject.decrypt(config));
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        jweObject.decrypt(config, output);
+        assertEquals("{\"foo\":\"bar\"}", new String(output.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testEncrypt_ShouldDefaultToEcdhEs_WhenEcKeyConfigured() throws Exception {
+
+        // GIVEN
+        KeyPair keyPair = generateKeyPair("EC", new ECGenParameterSpec("secp256r1"));
+        JweConfig config = JweConfigBuilder.aJweEncryptionConfig()
+                .withEncryptionKey(keyPair.getPublic())
+                .build();
+
+        // WHEN
+        String encrypted = JweObject.encrypt(config, "{\"foo\":\"bar\"}");
+
+        // THEN
+        JweHeader header = JweObject.parse(encrypted, JsonEngine.getDefault()).getHeader();
+        assertEquals("ECDH-ES", header.getAlg());
+        assertEquals("EC", header.getEpk().get("kty"));
+        assertEquals("P-256", header.getEpk().get("crv"));
+    }
+
+    @Test
+    public void testDecrypt_ShouldThrowEncryptionException_WhenEphemeralKeyOnAnotherCurve() throws Exception {
+
+        // GIVEN
+        JweConfig encryptionConfig = JweConfigBuilder.aJweEncryptionConfig()
+                .withEncryptionKey(generateKeyPair("EC", new ECGenParameterSpec("secp384r1")).getPublic())
+                .build();
+        JweConfig decryptionConfig = JweConfigBuilder.aJweEncryptionConfig()
+                .withDecryptionKey(generateKeyPair("EC", new ECGenParameterSpec("secp256r1")).getPrivate())
+                .build();
+        JweObject jweObject = JweObject.parse(JweObject.encrypt(encryptionConfig, "{}"), JsonEngine.getDefault());
+
+        try {
+            // WHEN
+            jweObject.decrypt(decryptionConfig);
+            fail("An exception should have been thrown!");
+        } catch (EncryptionException e) {
+            // THEN
+            assertEquals("The ephemeral public key doesn't match the decryption key!", e.getMessage());
+        }
+    }
 }
@@ -13,6 +13,16 @@ public class JweHeaderTest {
         assertEquals("{\"kid\":\"123\",\"cty\":\"application/json\",\"enc\":\"A256GCM\",\"alg\":\"RSA-OAEP-256\"}", header.toJson());
     }
 
+    @Test
+    public void testGetEncoded_ShouldReturnBase64UrlEncodedJsonJweHeader() {
+        JweHeader header = new JweHeader("RSA-OAEP-256", "A256GCM", "123", "application/json");
+        String encoded = header.getEncoded();
+        assertEquals("eyJraWQiOiIxMjMiLCJjdHkiOiJhcHBsaWNhdGlvbi9qc29uIiwiZW5jIjoiQTI1NkdDTSIsImFsZyI6IlJTQS1PQUVQLTI1NiJ9", encoded);
+        assertSame(encoded, header.getEncoded());
+        assertArrayEquals(encoded.getBytes(), header.getAad());
+        assertSame(header.getAad(), header.getAad());
+    }
+
     @Test
     public void testParseJweHeader_ShouldCorrectlyParseJweHeader() {
         JweHeader header = JweHeader.parseJweHeader("eyJraWQiOiI3NjFiMDAzYzFlYWRlM2E1NDkwZTUwMDBkMzc4ODdiYWE1ZTZlYzBlMjI2YzA3NzA2ZTU5OTQ1MWZjMDMyYTc5IiwiY3R5IjoiYXBwbGljYXRpb25cL2pzb24iLCJlbmMiOiJBMjU2R0NNIiwiYWxnIjoiUlNBLU9BRVAtMjU2In0", JsonEngine.getDefault());
@@ -21,4 +31,14 @@ public class JweHeaderTest {
         assertEquals("application/json", header.getCty());
         assertEquals("761b003c1eade3a5490e5000d37887baa5e6ec0e226c07706e599451fc032a79", header.getKid());
     }
+
+    @Test
+    public void testWithDeflate_ShouldAddZipHeader() {
+        JweHeader header = new JweHeader("RSA-OAEP-256", "A256GCM", "123", "application/json");
+        JweHeader deflated = header.withDeflate();
+        assertEquals("{\"kid\":\"123\",\"cty\":\"application/json\",\"enc\":\"A256GCM\",\"alg\":\"RSA-OAEP-256\",\"zip\":\"DEF\"}", deflated.toJson());
+        assertSame(deflated, header.withDeflate());
+        assertEquals("DEF", JweHeader.parseJweHeader(deflated.getEncoded(), JsonEngine.getDefault()).getZip());
+        assertNull(JweHeader.parseJweHeader(header.getEncoded(), JsonEngine.getDefault()).getZip());
+    }
 }
@@ -0,0 +1,151 @@
+package com.mastercard.developer.encryption.jwe;
+
+import com.mastercard.developer.encryption.JweConfig;
+import com.mastercard.developer.json.JsonEngine;
+import com.mastercard.developer.test.TestUtils;
+import org.junit.Test;
+
+import javax.crypto.AEADBadTagException;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class JweStreamDecryptionTest {
+
+    private static byte[] decrypt(String jwe, JweConfig config) throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        JweStreamDecryption.decrypt(new ByteArrayInputStream(jwe.getBytes(StandardCharsets.US_ASCII)), output,
+                config, JsonEngine.getDefault());
+        return output.toByteArray();
+    }
+
+    @Test
+    public void testDecrypt_ShouldMatchInMemoryDecryption_ForAnySize() throws Exception {
+
+        // GIVEN
+        JweConfig config = TestUtils.getTestJweConfigBuilder().build();
+        Random random = new Random(42);
+
+        for (int size : new int[]{0, 1, 15, 16, 17, 8191, 8192, 100_000}) {
+            byte[] payload = new byte[size];
+            random.nextBytes(payload);
+            String jwe = JweObject.encrypt(config, payload);
+
+            // WHEN
+            byte[] decryptedPayload = decrypt(jwe, config);
+
+            // THEN
+            assertArrayEquals("Size " + size, payload, decryptedPayload);
+        }
+    }
+
+    @Test
+    public void testDecrypt_ShouldInflatePlainText_WhenCompressed() throws Exception {
+
+        // GIVEN
+        JweConfig config = TestUtils.getTestJweConfigBuilder()
+                .withCompressionThreshold(1)
+                .build();
+        String payload = new String(new char[50_000]).replace('\0', 'a');
+        String jwe = JweObject.encrypt(config, payload);
+
+        // WHEN
+        byte[] decryptedPayload = decrypt(jwe, config);
+
+        // THEN
+        assertEquals("DEF", JweObject.parse(jwe, JsonEngine.getDefault()).getHeader().getZip());
+        assertEquals(payload, new String(decryptedPayload, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testDecrypt_ShouldDecryptTestVectors() throws Exception {
+
+        // GIVEN
+        JweConfig config = TestUtils.getTestJweConfigBuilder().build();
+        String aes128Gcm = "eyJlbmMiOiJBMTI4R0NNIiwiYWxnIjoiUlNBLU9BRVAtMjU2In0.WtvYljbsjdEv-Ttxx1p6PgyIrOsLpj1FMF9NQNhJUAHlKchAo5QImgEgIdgJE7HC2KfpNcHiQVqKKZq_y201FVzpicDkNzlPJr5kIH4Lq-oC5iP0agWeou9yK5vIxFRP__F_B8HSuojBJ3gDYT_KdYffUIHkm_UysNj4PW2RIRlafJ6RKYanVzk74EoKZRG7MIr3pTU6LIkeQUW41qYG8hz6DbGBOh79Nkmq7Oceg0ZwCn1_MruerP-b15SGFkuvOshStT5JJp7OOq82gNAOkMl4fylEj2-vADjP7VSK8GlqrA7u9Tn-a4Q28oy0GOKr1Z-HJgn_CElknwkUTYsWbg.PKl6_kvZ4_4MjmjW.AH6pGFkn7J49hBQcwg.zdyD73TcuveImOy4CRnVpw";
+
+        // WHEN
+        byte[] decryptedPayload = decrypt(aes128Gcm, config);
+
+        // THEN
+        assertEquals("{\"foo\":\"bar\"}", new String(decryptedPayload, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testDecrypt_ShouldFallBackToInMemoryDecryption_WhenCbc() throws Exception {
+
+        // GIVEN
+        JweConfig config = TestUtils.getTestJweConfigBuilder().build();
+        String cbc = "eyJraWQiOiI3NjFiMDAzYzFlYWRlM2E1NDkwZTUwMDBkMzc4ODdiYWE1ZTZlYzBlMjI2YzA3NzA2ZTU5OTQ1MWZjMDMyYTc5IiwiY3R5IjoiYXBwbGljYXRpb25cL2pzb24iLCJlbmMiOiJBMTI4Q0JDLUhTMjU2IiwiYWxnIjoiUlNBLU9BRVAtMjU2In0.5bsamlChk0HR3Nqg2UPJ2Fw4Y0MvC2pwWzNv84jYGkOXyqp1iwQSgETGaplIa7JyLg1ZWOqwNHEx3N7gsN4nzwAnVgz0eta6SsoQUE9YQ-5jek0COslUkoqIQjlQYJnYur7pqttDibj87fcw13G2agle5fL99j1QgFPjNPYqH88DMv481XGFa8O3VfJhW93m73KD2gvE5GasOPOkFK9wjKXc9lMGSgSArp3Awbc_oS2Cho_SbsvuEQwkhnQc2JKT3IaSWu8yK7edNGwD6OZJLhMJzWJlY30dUt2Eqe1r6kMT0IDRl7jHJnVIr2Qpe56CyeZ9V0aC5RH1mI5dYk4kHg.yI0CS3NdBrz9CCW2jwBSDw.6zr2pOSmAGdlJG0gbH53Eg.UFgf3-P9UjgMocEu7QA_vQ";
+
+        // WHEN
+        byte[] decryptedPayload = decrypt(cbc, config);
+
+        // THEN
+        assertEquals("bar", new String(decryptedPayload, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testDecrypt_ShouldWriteToChannel() throws Exception {
+
+        // GIVEN
+        JweConfig config = TestUtils.getTestJweConfigBuilder().build();
+        String jwe = JweObject.encrypt(config, "{\"foo\":\"bar\"}");
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        // WHEN
+        JweStreamDecryption.decrypt(new ByteArrayInputStream(jwe.getBytes(StandardCharsets.US_ASCII)),
+                Channels.newChannel(output), config, JsonEngine.getDefault());
+
+        // THEN
+        assertEquals("{\"foo\":\"bar\"}", new String(output.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    @Test(expected = AEADBadTagException.class)
+    public void testDecrypt_ShouldThrowAEADBadTagException_WhenTagDoesNotMatch() throws Exception {
+
+        // GIVEN
+        JweConfig config = TestUtils.getTestJweConfigBuilder().build();
+        String jwe = JweObject.encrypt(config, "{\"foo\":\"bar\"}");
+        int tagStart = jwe.lastIndexOf('.') + 1;
+        String tamperedJwe = jwe.substring(0, tagStart) + (jwe.charAt(tagStart) == 'A' ? 'B' : 'A') + jwe.substring(tagStart + 1);
+
+        // WHEN
+        decrypt(tamperedJwe, config);
+    }
+
+    @Test
+    public void testDecrypt_ShouldNotWritePlainText_WhenTagDoesNotMatch() throws Exception {
+
+        // GIVEN
+        JweConfig config = TestUtils.getTestJweConfigBuilder().build();
+        byte[] payload = new byte[50_000];
+        new Random(3).nextBytes(payload);
+        String jwe = JweObject.encrypt(config, payload);
+        int tagStart = jwe.lastIndexOf('.') + 1;
+        String tamperedJwe = jwe.substring(0, tagStart) + (jwe.charAt(tagStart) == 'A' ? 'B' : 'A') + jwe.substring(tagStart + 1);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        // WHEN
+        try {
+            JweStreamDecryption.decrypt(new ByteArrayInputStream(tamperedJwe.getBytes(StandardCharsets.US_ASCII)), output,
+                    config, JsonEngine.getDefault());
+            fail("AEADBadTagException expected");
+        } catch (AEADBadTagException e) {
+
+            // THEN
+            assertEquals(0, output.size());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDecrypt_ShouldThrowIllegalArgumentException_WhenSegmentsAreMissing() throws Exception {
+        decrypt("eyJlbmMiOiJBMjU2R0NNIn0.a2V5.aXY", TestUtils.getTestJweConfigBuilder().build());
+    }
+}
@@ -31,6 +31,24 @@ public class RSATest {
         Assert.assertArrayEquals(originalKey.getEncoded(), unwrappedKey.getEncoded());
     }
 
+    @Test
+    public void testWrapUnwrapSecretKey_ShouldSupportSuccessiveCallsWithDifferentDigests() throws Exception {
+
+        // GIVEN
+        FieldLevelEncryptionConfig config = TestUtils.getTestFieldLevelEncryptionConfigBuilder().build();
+        byte[] originalKeyBytes = base64Decode("mZzmzoURXI3Vk0vdsPkcFw==");
+        SecretKey originalKey = new SecretKeySpec(originalKeyBytes, 0, originalKeyBytes.length, SYMMETRIC_KEY_TYPE);
+
+        for (String digest : new String[] {"SHA-256", "SHA-512", "SHA-256", "SHA512"}) {
+            // WHEN
+            byte[] wrappedKeyBytes = RSA.wrapSecretKey(config.getEncryptionKey(), originalKey, digest.replace("SHA512", "SHA-512"));
+            Key unwrappedKey = RSA.unwrapSecretKey(config.getDecryptionKey(), wrappedKeyBytes, digest);
+
+            // THEN
+            Assert.assertArrayEquals(originalKey.getEncoded(), unwrappedKey.getEncoded());
+        }
+    }
+
     @Test
     public void testUnwrapSecretKey_InteroperabilityTest_OaepSha256() throws Exception {
 
@@ -14,6 +14,7 @@ import org.junit.runner.RunWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.junit.MockitoJUnitRunner;
 
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
@@ -129,7 +130,7 @@ public class HttpExecuteFieldLevelEncryptionInterceptorTest {
         HttpResponse response = mock(HttpResponse.class);
         HttpHeaders httpHeaders = new HttpHeaders();
         httpHeaders.setContentLength(100L);
-        when(response.parseAsString()).thenReturn(encryptedPayload);
+        when(response.getContent()).thenReturn(new ByteArrayInputStream(encryptedPayload.getBytes(StandardCharsets.UTF_8)));
         when(response.getHeaders()).thenReturn(httpHeaders);
 
         // WHEN
@@ -151,14 +152,14 @@ public class HttpExecuteFieldLevelEncryptionInterceptorTest {
         // GIVEN
         FieldLevelEncryptionConfig config = getTestFieldLevelEncryptionConfigBuilder().build();
         HttpResponse response = mock(HttpResponse.class);
-        when(response.parseAsString()).thenReturn(null);
+        when(response.getContent()).thenReturn(null);
 
         // WHEN
         HttpExecuteFieldLevelEncryptionInterceptor instanceUnderTest = new HttpExecuteFieldLevelEncryptionInterceptor(config);
         instanceUnderTest.interceptResponse(response);
 
         // THEN
-        verify(response).parseAsString();
+        verify(response).getContent();
         verifyNoMoreInteractions(response);
     }
 
@@ -177,7 +178,7 @@ public class HttpExecuteFieldLevelEncryptionInterceptorTest {
                 .withDecryptionPath("$.encryptedData", "$.data")
                 .build();
         HttpResponse response = mock(HttpResponse.class);
-        when(response.parseAsString()).thenReturn(encryptedPayload);
+        when(response.getContent()).thenReturn(new ByteArrayInputStream(encryptedPayload.getBytes(StandardCharsets.UTF_8)));
 
         // THEN
         expectedException.expect(IOException.class);
@@ -252,7 +253,7 @@ public class HttpExecuteFieldLevelEncryptionInterceptorTest {
         httpHeaders.set("x-encryption-key-fingerprint", "761b003c1eade3a5490e5000d37887baa5e6ec0e226c07706e599451fc032a79");
         httpHeaders.set("x-encryption-certificate-fingerprint", "80810fc13a8319fcf0e2ec322c82a4c304b782cc3ce671176343cfe8160c2279");
         httpHeaders.setContentLength(100L);
-        when(response.parseAsString()).thenReturn(encryptedPayload);
+        when(response.getContent()).thenReturn(new ByteArrayInputStream(encryptedPayload.getBytes(StandardCharsets.UTF_8)));
         when(response.getHeaders()).thenReturn(httpHeaders);
 
         // WHEN
@@ -13,6 +13,7 @@ import org.junit.runner.RunWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.junit.MockitoJUnitRunner;
 
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
@@ -104,7 +105,7 @@ public class HttpExecuteJweInterceptorTest {
         HttpResponse response = mock(HttpResponse.class);
         HttpHeaders httpHeaders = new HttpHeaders();
         httpHeaders.setContentLength(100L);
-        when(response.parseAsString()).thenReturn(encryptedPayload);
+        when(response.getContent()).thenReturn(new ByteArrayInputStream(encryptedPayload.getBytes(StandardCharsets.UTF_8)));
         when(response.getHeaders()).thenReturn(httpHeaders);
 
         // WHEN
@@ -133,7 +134,7 @@ public class HttpExecuteJweInterceptorTest {
         HttpResponse response = mock(HttpResponse.class);
         HttpHeaders httpHeaders = new HttpHeaders();
         httpHeaders.setContentLength(100L);
-        when(response.parseAsString()).thenReturn(encryptedPayload);
+        when(response.getContent()).thenReturn(new ByteArrayInputStream(encryptedPayload.getBytes(StandardCharsets.UTF_8)));
         when(response.getHeaders()).thenReturn(httpHeaders);
 
         // WHEN
@@ -162,7 +163,7 @@ public class HttpExecuteJweInterceptorTest {
         HttpResponse response = mock(HttpResponse.class);
         HttpHeaders httpHeaders = new HttpHeaders();
         httpHeaders.setContentLength(100L);
-        when(response.parseAsString()).thenReturn(encryptedPayload);
+        when(response.getContent()).thenReturn(new ByteArrayInputStream(encryptedPayload.getBytes(StandardCharsets.UTF_8)));
         when(response.getHeaders()).thenReturn(httpHeaders);
 
         // THEN
@@ -178,14 +179,14 @@ public class HttpExecuteJweInterceptorTest {
         // GIVEN
         JweConfig config = getTestJweConfigBuilder().build();
         HttpResponse response = mock(HttpResponse.class);
-        when(response.parseAsString()).thenReturn(null);
+        when(response.getContent()).thenReturn(null);
 
         // WHEN
         HttpExecuteJweInterceptor instanceUnderTest = new HttpExecuteJweInterceptor(config);
         instanceUnderTest.interceptResponse(response);
 
         // THEN
-        verify(response).parseAsString();
+        verify(response).getContent();
         verifyNoMoreInteractions(response);
     }
 
@@ -200,7 +201,7 @@ public class HttpExecuteJweInterceptorTest {
                 .withDecryptionPath("$.encryptedPayload", "$")
                 .build();
         HttpResponse response = mock(HttpResponse.class);
-        when(response.parseAsString()).thenReturn(encryptedPayload);
+        when(response.getContent()).thenReturn(new ByteArrayInputStream(encryptedPayload.getBytes(StandardCharsets.UTF_8)));
 
         // THEN
         expectedException.expect(IOException.class);
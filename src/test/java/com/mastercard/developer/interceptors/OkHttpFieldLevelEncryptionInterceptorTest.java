@@ -17,6 +17,7 @@ import org.junit.rules.ExpectedException;
 import org.mockito.ArgumentCaptor;
 
 import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static com.mastercard.developer.test.TestUtils.assertPayloadEquals;
 import static com.mastercard.developer.test.TestUtils.getTestFieldLevelEncryptionConfigBuilder;
@@ -333,4 +334,41 @@ public class OkHttpFieldLevelEncryptionInterceptorTest {
         assertNull(response.header("x-encryption-key-fingerprint"));
         assertNull(response.header("x-encryption-certificate-fingerprint"));
     }
+
+    @Test
+    public void testIntercept_ShouldCallStringHook_WhenOverridden() throws Exception {
+
+        // GIVEN
+        FieldLevelEncryptionConfig config = getTestFieldLevelEncryptionConfigBuilder()
+                .withEncryptionPath("$.foo", "$.encryptedFoo")
+                .build();
+        Request request = new Request.Builder()
+                .url("https://sandbox.api.mastercard.com/service")
+                .post(RequestBody.create(JSON_MEDIA_TYPE, "{\"foo\":\"bar\"}"))
+                .build();
+        Chain chain = mock(Chain.class);
+        Response response = mock(Response.class);
+        when(chain.request()).thenReturn(request);
+        when(response.body()).thenReturn(null);
+        when(chain.proceed(any(Request.class))).thenReturn(response);
+        AtomicInteger hookCalls = new AtomicInteger();
+
+        // WHEN
+        OkHttpFieldLevelEncryptionInterceptor instanceUnderTest = new OkHttpFieldLevelEncryptionInterceptor(config) {
+            @Override
+            protected String encryptPayload(Request request, Request.Builder requestBuilder, String requestPayload) throws EncryptionException {
+                hookCalls.incrementAndGet();
+                return super.encryptPayload(request, requestBuilder, requestPayload);
+            }
+        };
+        instanceUnderTest.intercept(chain);
+
+        // THEN
+        assertEquals(1, hookCalls.get());
+        ArgumentCaptor<Request> requestCaptor = ArgumentCaptor.forClass(Request.class);
+        verify(chain).proceed(requestCaptor.capture());
+        Buffer buffer = new Buffer();
+        requestCaptor.getValue().body().writeTo(buffer);
+        assertTrue(buffer.readUtf8().contains("encryptedFoo"));
+    }
 }
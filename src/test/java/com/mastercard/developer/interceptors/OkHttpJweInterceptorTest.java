@@ -16,6 +16,7 @@ import org.junit.rules.ExpectedException;
 import org.mockito.ArgumentCaptor;
 
 import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static com.mastercard.developer.test.TestUtils.assertPayloadEquals;
 import static com.mastercard.developer.test.TestUtils.getTestJweConfigBuilder;
@@ -234,4 +235,41 @@ public class OkHttpJweInterceptorTest {
         OkHttpJweInterceptor instanceUnderTest = new OkHttpJweInterceptor(config);
         instanceUnderTest.intercept(chain);
     }
+
+    @Test
+    public void testIntercept_ShouldCallStringHook_WhenOverridden() throws Exception {
+
+        // GIVEN
+        JweConfig config = getTestJweConfigBuilder()
+                .withEncryptionPath("$.foo", "$.encryptedFoo")
+                .build();
+        Request request = new Request.Builder()
+                .url("https://sandbox.api.mastercard.com/service")
+                .post(RequestBody.create(JSON_MEDIA_TYPE, "{\"foo\":\"bar\"}"))
+                .build();
+        Chain chain = mock(Chain.class);
+        Response response = mock(Response.class);
+        when(chain.request()).thenReturn(request);
+        when(response.body()).thenReturn(null);
+        when(chain.proceed(any(Request.class))).thenReturn(response);
+        AtomicInteger hookCalls = new AtomicInteger();
+
+        // WHEN
+        OkHttpJweInterceptor instanceUnderTest = new OkHttpJweInterceptor(config) {
+            @Override
+            protected String encryptPayload(Request request, Request.Builder requestBuilder, String requestPayload) throws EncryptionException {
+                hookCalls.incrementAndGet();
+                return super.encryptPayload(request, requestBuilder, requestPayload);
+            }
+        };
+        instanceUnderTest.intercept(chain);
+
+        // THEN
+        assertEquals(1, hookCalls.get());
+        ArgumentCaptor<Request> requestCaptor = ArgumentCaptor.forClass(Request.class);
+        verify(chain).proceed(requestCaptor.capture());
+        Buffer buffer = new Buffer();
+        requestCaptor.getValue().body().writeTo(buffer);
+        assertTrue(buffer.readUtf8().contains("encryptedFoo"));
+    }
 }
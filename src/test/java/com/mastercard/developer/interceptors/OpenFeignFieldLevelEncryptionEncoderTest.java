@@ -12,6 +12,7 @@ import org.junit.rules.ExpectedException;
 import org.mockito.ArgumentCaptor;
 
 import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
 
 import static com.mastercard.developer.test.TestUtils.getTestFieldLevelEncryptionConfigBuilder;
 import static org.hamcrest.core.Is.isA;
@@ -49,10 +50,10 @@ public class OpenFeignFieldLevelEncryptionEncoderTest {
         // THEN
         verify(delegate).encode(object, type, request);
         verify(request).body();
-        ArgumentCaptor<String> encryptedPayloadCaptor = ArgumentCaptor.forClass(String.class);
-        verify(request).body(encryptedPayloadCaptor.capture());
+        ArgumentCaptor<byte[]> encryptedPayloadCaptor = ArgumentCaptor.forClass(byte[].class);
+        verify(request).body(encryptedPayloadCaptor.capture(), eq(StandardCharsets.UTF_8));
         verify(request).header(eq("Content-Length"), anyString());
-        String encryptedPayload = encryptedPayloadCaptor.getValue();
+        String encryptedPayload = new String(encryptedPayloadCaptor.getValue(), StandardCharsets.UTF_8);
         assertFalse(encryptedPayload.contains("foo"));
         assertTrue(encryptedPayload.contains("encryptedFoo"));
     }
@@ -150,10 +151,10 @@ public class OpenFeignFieldLevelEncryptionEncoderTest {
         // THEN
         verify(delegate).encode(object, type, request);
         verify(request).body();
-        ArgumentCaptor<String> encryptedPayloadCaptor = ArgumentCaptor.forClass(String.class);
-        verify(request).body(encryptedPayloadCaptor.capture());
+        ArgumentCaptor<byte[]> encryptedPayloadCaptor = ArgumentCaptor.forClass(byte[].class);
+        verify(request).body(encryptedPayloadCaptor.capture(), eq(StandardCharsets.UTF_8));
         verify(request).header(eq("Content-Length"), anyString());
-        String encryptedPayload = encryptedPayloadCaptor.getValue();
+        String encryptedPayload = new String(encryptedPayloadCaptor.getValue(), StandardCharsets.UTF_8);
         assertFalse(encryptedPayload.contains("foo"));
         assertTrue(encryptedPayload.contains("encryptedFoo"));
         verify(request).header(eq("x-iv"), anyString());
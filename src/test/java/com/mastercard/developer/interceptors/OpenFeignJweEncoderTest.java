@@ -10,6 +10,7 @@ import org.junit.rules.ExpectedException;
 import org.mockito.ArgumentCaptor;
 
 import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
 
 import static com.mastercard.developer.test.TestUtils.getTestJweConfigBuilder;
 import static org.junit.Assert.assertFalse;
@@ -59,10 +60,10 @@ public class OpenFeignJweEncoderTest {
         // THEN
         verify(delegate).encode(object, type, request);
         verify(request).body();
-        ArgumentCaptor<String> encryptedPayloadCaptor = ArgumentCaptor.forClass(String.class);
-        verify(request).body(encryptedPayloadCaptor.capture());
+        ArgumentCaptor<byte[]> encryptedPayloadCaptor = ArgumentCaptor.forClass(byte[].class);
+        verify(request).body(encryptedPayloadCaptor.capture(), eq(StandardCharsets.UTF_8));
         verify(request).header(eq("Content-Length"), anyString());
-        String encryptedPayload = encryptedPayloadCaptor.getValue();
+        String encryptedPayload = new String(encryptedPayloadCaptor.getValue(), StandardCharsets.UTF_8);
         assertFalse(encryptedPayload.contains("foo"));
         assertTrue(encryptedPayload.contains("encryptedFoo"));
     }
@@ -4,6 +4,7 @@ import org.junit.Assert;
 import org.junit.Test;
 
 import java.security.MessageDigest;
+import java.util.Arrays;
 import java.security.NoSuchAlgorithmException;
 
 public class EncodingUtilsTest {
@@ -68,10 +69,65 @@ public class EncodingUtilsTest {
         EncodingUtils.base64Decode(null);
     }
 
+    @Test
+    public void testBase64Decode_ShouldSupportBothAlphabets() {
+        byte[] expectedBytes = new byte[] {(byte) 0xfb, (byte) 0xff, (byte) 0xbf};
+        Assert.assertArrayEquals(expectedBytes, EncodingUtils.base64Decode("+/+/"));
+        Assert.assertArrayEquals(expectedBytes, EncodingUtils.base64Decode("-_-_"));
+        Assert.assertArrayEquals("light work".getBytes(), EncodingUtils.base64Decode("bGlnaHQgd29yaw"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBase64Decode_ShouldThrowIllegalArgumentException_WhenAlphabetsAreMixed() {
+        EncodingUtils.base64Decode("+/-_");
+    }
+
+    @Test
+    public void testBase64UrlDecode() {
+        Assert.assertArrayEquals(new byte[1], EncodingUtils.base64UrlDecode("AA"));
+        Assert.assertArrayEquals(new byte[1], EncodingUtils.base64UrlDecode("AA=="));
+        Assert.assertArrayEquals(new byte[] {(byte) 0xfb, (byte) 0xff, (byte) 0xbf}, EncodingUtils.base64UrlDecode("-_-_"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBase64UrlDecode_ShouldThrowIllegalArgumentException_WhenNullValue() {
+        EncodingUtils.base64UrlDecode(null);
+    }
+
     @Test
     public void testBase64UrlEncode() {
         Assert.assertEquals("AA", EncodingUtils.base64UrlEncode(new byte[1]));
         Assert.assertEquals("eyJhbGciOiJSU0EtT0FFUCIsImVuYyI6IkEyNTZHQ00ifQ", EncodingUtils.base64UrlEncode("{\"alg\":\"RSA-OAEP\",\"enc\":\"A256GCM\"}".getBytes()));
         Assert.assertEquals("bGlnaHQgd29yaw", EncodingUtils.base64UrlEncode("light work".getBytes()));
     }
+
+    @Test
+    public void testBase64UrlEncode_WithOffset() {
+        byte[] bytes = "some light work".getBytes();
+        Assert.assertEquals("bGlnaHQgd29yaw", EncodingUtils.base64UrlEncode(bytes, 5, 10));
+        Assert.assertEquals("", EncodingUtils.base64UrlEncode(bytes, 15, 0));
+    }
+
+    @Test
+    public void testBase64UrlDecode_WithOffset() {
+        String value = "x.bGlnaHQgd29yaw.-_-_.AA==";
+        byte[] dst = new byte[16];
+        Assert.assertEquals(10, EncodingUtils.base64UrlDecodedLength(value, 2, 16));
+        Assert.assertEquals(10, EncodingUtils.base64UrlDecode(value, 2, 16, dst, 1));
+        Assert.assertEquals("light work", new String(dst, 1, 10));
+        Assert.assertEquals(3, EncodingUtils.base64UrlDecode(value, 17, 21, dst, 11));
+        Assert.assertArrayEquals(new byte[] {(byte) 0xfb, (byte) 0xff, (byte) 0xbf}, Arrays.copyOfRange(dst, 11, 14));
+        Assert.assertEquals(1, EncodingUtils.base64UrlDecode(value, 22, 26, dst, 14));
+        Assert.assertEquals(0, dst[14]);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBase64UrlDecode_WithOffset_ShouldThrowIllegalArgumentException_WhenIllegalCharacter() {
+        EncodingUtils.base64UrlDecode("AA+A", 0, 4, new byte[3], 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBase64UrlDecode_WithOffset_ShouldThrowIllegalArgumentException_WhenOutputTooSmall() {
+        EncodingUtils.base64UrlDecode("AAAA", 0, 4, new byte[3], 1);
+    }
 }